@@ -0,0 +1,65 @@
+package com.example.appointmentservice.business.availability;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+// Measures SlotGenerator against booking density and query length.
+// Time per call should grow linearly with bookingsPerDay * days; compare the avgt
+// scores across the bookingsPerDay and days parameters to check it.
+@State(Scope.Benchmark)
+public class SlotGeneratorBenchmark {
+
+    // Bookings per day, spread over a 24h calendar so most are outside working hours
+    @Param({"10", "100", "500"})
+    public int bookingsPerDay;
+
+    @Param({"1", "7", "28"})
+    public int days;
+
+    private SlotGenerator fiveMinuteGrid;
+    private SlotGenerator thirtyMinuteGridWithBuffer;
+    private LocalDate firstDay;
+    private List<BookedInterval> bookings;
+
+    @Setup
+    public void setUp() {
+        fiveMinuteGrid = new SlotGenerator(LocalTime.of(0, 0), LocalTime.of(23, 59), 5, 0);
+        thirtyMinuteGridWithBuffer = new SlotGenerator(LocalTime.of(9, 0), LocalTime.of(17, 0), 30, 10);
+        firstDay = LocalDate.of(2030, 1, 7);
+
+        Random random = new Random(42);
+        bookings = new ArrayList<>(bookingsPerDay * days);
+        for (int day = 0; day < days; day++) {
+            LocalDateTime midnight = firstDay.plusDays(day).atStartOfDay();
+            for (int i = 0; i < bookingsPerDay; i++) {
+                LocalDateTime start = midnight.plusMinutes(random.nextInt(24 * 60));
+                bookings.add(new BookedInterval(day + "-" + i, start, start.plusMinutes(15 + random.nextInt(4) * 15)));
+            }
+        }
+        // Mongo returns bookings unordered; the generator has to sort them itself
+        Collections.shuffle(bookings, random);
+    }
+
+    @Benchmark
+    public void fineGridWholeDay(Blackhole blackhole) {
+        blackhole.consume(fiveMinuteGrid.generate(firstDay, days, bookings, 30));
+    }
+
+    @Benchmark
+    public void workingHoursWithBuffer(Blackhole blackhole) {
+        blackhole.consume(thirtyMinuteGridWithBuffer.generate(firstDay, days, bookings, 60));
+    }
+}
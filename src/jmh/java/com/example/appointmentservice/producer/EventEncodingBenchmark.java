@@ -0,0 +1,124 @@
+package com.example.appointmentservice.producer;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+// Encodes and decodes real-shaped appointment events with every EventEncoding, with and without gzip.
+// avgt is the CPU cost per message; the bytesPerMessage aux counter is the wire size, so the two
+// columns together show the CPU/size trade-off of each combination.
+@State(Scope.Benchmark)
+public class EventEncodingBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public EventEncoding encoding;
+
+    @Param({"FAT", "COMPACT"})
+    public EventFormat format;
+
+    // 0 = no compression; otherwise the ThresholdGZipPostProcessor threshold
+    @Param({"0", "512"})
+    public int gzipThreshold;
+
+    private MessageConverter converter;
+    private ThresholdGZipPostProcessor gzip;
+    private final DelegatingDecompressingPostProcessor gunzip = new DelegatingDecompressingPostProcessor();
+    private Object payload;
+    private Message encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long bytesPerMessage;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerMessage = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        converter = EventEncoding.negotiating(encoding);
+        gzip = gzipThreshold > 0 ? new ThresholdGZipPostProcessor(gzipThreshold) : null;
+        payload = format.payload(sampleEvent());
+        encoded = encodeMessage();
+    }
+
+    @Benchmark
+    public Message encode(WireSize wireSize) {
+        Message message = encodeMessage();
+        wireSize.bytesPerMessage = message.getBody().length;
+        return message;
+    }
+
+    @Benchmark
+    public Object decode() {
+        Message message = gzip != null ? gunzip.postProcessMessage(encoded) : encoded;
+        return converter.fromMessage(message);
+    }
+
+    private Message encodeMessage() {
+        Message message = converter.toMessage(payload, new MessageProperties());
+        return gzip != null ? gzip.postProcessMessage(message) : message;
+    }
+
+    // Field values sized like production events: full profiles, four image URLs and a description
+    private static AppointmentEvent sampleEvent() {
+        return AppointmentEvent.builder()
+                .eventType("APPOINTMENT_RESCHEDULED")
+                .eventTimestamp(LocalDateTime.of(2030, 1, 7, 9, 15))
+                .eventId(UUID.randomUUID().toString())
+                .appointmentId("65a1f0c2e4b0a1b2c3d4e5f6")
+                .appointmentTitle("Property viewing - 2 bedroom apartment")
+                .description("Viewing of the apartment with the landlord, including the shared garden and storage room.")
+                .appointmentDateTime(LocalDateTime.of(2030, 1, 9, 14, 30))
+                .durationMinutes(60)
+                .status("RESCHEDULED")
+                .type("PROPERTY_VIEWING")
+                .location("Stationsstraat 12, 5611 AB Eindhoven")
+                .notes("Please bring a copy of your ID and recent payslips.")
+                .requesterId(1042L)
+                .requesterUsername("jdevries")
+                .requesterName("Jan de Vries")
+                .requesterEmail("jan.devries@example.com")
+                .requesterPhone("+31 6 12345678")
+                .requesterFirstName("Jan")
+                .requesterLastName("de Vries")
+                .requesterProfileImage("https://cdn.example.com/users/1042/profile.jpg")
+                .providerId(2077L)
+                .providerUsername("mbakker")
+                .providerName("Maria Bakker")
+                .providerEmail("maria.bakker@example.com")
+                .providerPhone("+31 6 87654321")
+                .providerFirstName("Maria")
+                .providerLastName("Bakker")
+                .providerProfileImage("https://cdn.example.com/users/2077/profile.jpg")
+                .propertyId(31L)
+                .propertyTitle("Bright 2 bedroom apartment near the station")
+                .propertyAddress("Stationsstraat 12, 5611 AB Eindhoven")
+                .propertyIsRented(false)
+                .propertyImage("https://cdn.example.com/properties/31/1.jpg")
+                .propertyImage2("https://cdn.example.com/properties/31/2.jpg")
+                .propertyImage3("https://cdn.example.com/properties/31/3.jpg")
+                .propertyImage4("https://cdn.example.com/properties/31/4.jpg")
+                .propertyRentAmount(BigDecimal.valueOf(1450))
+                .propertyDescription("A bright, recently renovated apartment with two bedrooms, an open kitchen, "
+                        + "a balcony facing south and a private storage room, five minutes from the central station.")
+                .previousDateTime(LocalDateTime.of(2030, 1, 8, 10, 0))
+                .build();
+    }
+}
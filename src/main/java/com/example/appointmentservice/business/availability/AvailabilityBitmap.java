@@ -0,0 +1,100 @@
+package com.example.appointmentservice.business.availability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// Bit arithmetic for provider-day occupancy bitmaps: a day is 288 buckets of 5 minutes,
+// packed little-endian into WORDS longs (bucket b is bit b % 64 of word b / 64).
+// An interval occupies every bucket it touches, so starts round down and ends round up
+// to the 5-minute grid.
+public final class AvailabilityBitmap {
+
+    public static final int BUCKET_MINUTES = 5;
+    public static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+    public static final int WORDS = (BUCKETS_PER_DAY + 63) / 64;
+
+    private AvailabilityBitmap() {
+    }
+
+    // Bucket masks of [start, end) for every day it touches, in date order
+    public static Map<LocalDate, long[]> masksByDay(LocalDateTime start, LocalDateTime end) {
+        Map<LocalDate, long[]> masks = new LinkedHashMap<>();
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            LocalDateTime midnight = day.atStartOfDay();
+            long fromMinute = Math.max(0, ChronoUnit.MINUTES.between(midnight, start));
+            long toSecond = Math.min(24 * 60 * 60, ChronoUnit.SECONDS.between(midnight, end));
+
+            int firstBucket = (int) (fromMinute / BUCKET_MINUTES);
+            int endBucket = (int) Math.ceilDiv(toSecond, BUCKET_MINUTES * 60L);
+            if (endBucket > firstBucket) {
+                masks.put(day, mask(firstBucket, endBucket));
+            }
+        }
+        return masks;
+    }
+
+    // Buckets [fromBucket, toBucket) set
+    public static long[] mask(int fromBucket, int toBucket) {
+        long[] words = new long[WORDS];
+        for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+            words[bucket >>> 6] |= 1L << (bucket & 63);
+        }
+        return words;
+    }
+
+    public static boolean intersects(long[] words, long[] mask) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static long[] or(long[] words, long[] mask) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] | mask[i];
+        }
+        return result;
+    }
+
+    public static long[] andNot(long[] words, long[] mask) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & ~mask[i];
+        }
+        return result;
+    }
+
+    // Each run of set buckets as one booked interval, so the regular slot sweep can consume the bitmap
+    public static List<BookedInterval> toIntervals(LocalDate date, long[] words) {
+        List<BookedInterval> intervals = new ArrayList<>();
+        LocalDateTime midnight = date.atStartOfDay();
+        int bucket = 0;
+        while (bucket < BUCKETS_PER_DAY) {
+            if (!isSet(words, bucket)) {
+                bucket++;
+                continue;
+            }
+            int runStart = bucket;
+            while (bucket < BUCKETS_PER_DAY && isSet(words, bucket)) {
+                bucket++;
+            }
+            intervals.add(new BookedInterval("bitmap:" + date + ":" + runStart,
+                    midnight.plusMinutes((long) runStart * BUCKET_MINUTES),
+                    midnight.plusMinutes((long) bucket * BUCKET_MINUTES)));
+        }
+        return intervals;
+    }
+
+    private static boolean isSet(long[] words, int bucket) {
+        return (words[bucket >>> 6] & (1L << (bucket & 63))) != 0;
+    }
+}
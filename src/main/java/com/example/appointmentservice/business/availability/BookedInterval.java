@@ -0,0 +1,27 @@
+package com.example.appointmentservice.business.availability;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+// A provider's booked time as the half-open interval [start, end)
+public record BookedInterval(String appointmentId, LocalDateTime start, LocalDateTime end) {
+
+    public static BookedInterval of(AppointmentEntity appointment) {
+        // end_date_time may still be missing on documents written before the backfill migration ran
+        LocalDateTime end = appointment.getEndDateTime() != null
+                ? appointment.getEndDateTime()
+                : appointment.getAppointmentDateTime().plusMinutes(appointment.getDurationMinutes());
+        return new BookedInterval(appointment.getId(), appointment.getAppointmentDateTime(), end);
+    }
+
+    // Statuses that occupy the provider's time - the ones findProviderBookedSlots returns
+    public static boolean isBooked(AppointmentStatus status) {
+        return status != AppointmentStatus.CANCELLED && status != AppointmentStatus.NO_SHOW;
+    }
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.appointmentservice.business.availability;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.example.appointmentservice.persistence.repository.AppointmentRepository.MAX_APPOINTMENT_DURATION;
+
+
+// In-process index of each provider's booked intervals over a rolling horizon (60 days by default).
+// A provider's bookings are loaded from findProviderBookedSlots on first use, kept in a TreeMap ordered
+// by start time, and updated synchronously by this instance's writes. Because no booking is longer than
+// MAX_APPOINTMENT_DURATION, an overlap query only has to look at bookings starting in
+// (start - MAX_APPOINTMENT_DURATION, end), which is an O(log n) seek plus a bounded scan.
+//
+// The index serves availability and advisory conflict checks only. Writes made by other instances are
+// picked up when an entry expires (refresh-seconds), so booking paths still ask Mongo at commit time.
+// Queries outside the loaded horizon return Optional.empty() and the caller goes to Mongo.
+@Component
+@Slf4j
+public class ProviderBookingIndex {
+
+    private static final Comparator<BookedInterval> BY_START_THEN_ID =
+            Comparator.comparing(BookedInterval::start).thenComparing(BookedInterval::appointmentId);
+
+    private final AppointmentRepository appointmentRepository;
+    private final Cache<Long, ProviderBookings> providers;
+    private final int horizonDays;
+
+    public ProviderBookingIndex(AppointmentRepository appointmentRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.availability.index.maximum-providers:10000}") long maximumProviders,
+                                @Value("${app.availability.index.horizon-days:60}") int horizonDays,
+                                @Value("${app.availability.index.refresh-seconds:300}") long refreshSeconds) {
+        this.appointmentRepository = appointmentRepository;
+        this.horizonDays = horizonDays;
+        this.providers = Caffeine.newBuilder()
+                .maximumSize(maximumProviders)
+                .expireAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, providers, "provider.bookings");
+    }
+
+    // Bookings overlapping [from, to), ordered by start; empty if the range is outside the horizon
+    public Optional<List<BookedInterval>> bookedIntervals(Long providerId, LocalDateTime from, LocalDateTime to) {
+        ProviderBookings bookings = bookingsFor(providerId);
+        if (!bookings.covers(from, to)) {
+            return Optional.empty();
+        }
+        return Optional.of(bookings.overlapping(from, to, null));
+    }
+
+    // Whether [start, end) overlaps another booking; empty if the range is outside the horizon
+    public Optional<Boolean> hasOverlap(Long providerId, LocalDateTime start, LocalDateTime end,
+                                        String excludeAppointmentId) {
+        ProviderBookings bookings = bookingsFor(providerId);
+        if (!bookings.covers(start, end)) {
+            return Optional.empty();
+        }
+        return Optional.of(!bookings.overlapping(start, end, excludeAppointmentId).isEmpty());
+    }
+
+    // Applies a local write to an already-loaded provider: booked statuses are (re)indexed at their
+    // current times, CANCELLED / NO_SHOW appointments are dropped. Unloaded providers are left alone -
+    // they will be read fresh from Mongo on first use.
+    public void record(AppointmentEntity appointment) {
+        ProviderBookings bookings = loaded(appointment.getProviderId());
+        if (bookings == null || appointment.getId() == null) {
+            return;
+        }
+
+        if (BookedInterval.isBooked(appointment.getStatus()) && appointment.getAppointmentDateTime() != null) {
+            bookings.put(BookedInterval.of(appointment));
+        } else {
+            bookings.remove(appointment.getId());
+        }
+    }
+
+    public void remove(Long providerId, String appointmentId) {
+        ProviderBookings bookings = loaded(providerId);
+        if (bookings != null) {
+            bookings.remove(appointmentId);
+        }
+    }
+
+    // Drops a provider whose entry turned out to be stale, e.g. after Mongo reported a conflict the index missed
+    public void invalidate(Long providerId) {
+        if (providerId != null) {
+            providers.invalidate(providerId);
+        }
+    }
+
+    private ProviderBookings loaded(Long providerId) {
+        return providerId == null ? null : providers.getIfPresent(providerId);
+    }
+
+    private ProviderBookings bookingsFor(Long providerId) {
+        return providers.get(providerId, this::load);
+    }
+
+    private ProviderBookings load(Long providerId) {
+        LocalDateTime coveredFrom = LocalDate.now().atStartOfDay();
+        LocalDateTime coveredTo = coveredFrom.plusDays(horizonDays);
+
+        // Bookings starting up to MAX_APPOINTMENT_DURATION before the horizon can still reach into it
+        List<AppointmentEntity> booked = appointmentRepository.findProviderBookedSlots(
+                providerId, coveredFrom.minus(MAX_APPOINTMENT_DURATION), coveredTo);
+
+        ProviderBookings bookings = new ProviderBookings(coveredFrom, coveredTo);
+        booked.stream()
+                .filter(appointment -> appointment.getAppointmentDateTime() != null)
+                .map(BookedInterval::of)
+                .forEach(bookings::put);
+
+        log.debug("Indexed {} bookings for provider {} between {} and {}", booked.size(), providerId, coveredFrom, coveredTo);
+        return bookings;
+    }
+
+    // One provider's bookings; all access goes through the instance monitor
+    private static final class ProviderBookings {
+
+        private final LocalDateTime coveredFrom;
+        private final LocalDateTime coveredTo;
+        private final NavigableMap<BookedInterval, BookedInterval> byStart = new TreeMap<>(BY_START_THEN_ID);
+        private final Map<String, BookedInterval> byId = new HashMap<>();
+
+        private ProviderBookings(LocalDateTime coveredFrom, LocalDateTime coveredTo) {
+            this.coveredFrom = coveredFrom;
+            this.coveredTo = coveredTo;
+        }
+
+        private boolean covers(LocalDateTime from, LocalDateTime to) {
+            return !from.isBefore(coveredFrom) && !to.isAfter(coveredTo);
+        }
+
+        private synchronized void put(BookedInterval interval) {
+            remove(interval.appointmentId());
+            byStart.put(interval, interval);
+            byId.put(interval.appointmentId(), interval);
+        }
+
+        private synchronized void remove(String appointmentId) {
+            BookedInterval previous = byId.remove(appointmentId);
+            if (previous != null) {
+                byStart.remove(previous);
+            }
+        }
+
+        private synchronized List<BookedInterval> overlapping(LocalDateTime from, LocalDateTime to,
+                                                              String excludeAppointmentId) {
+            BookedInterval lowest = new BookedInterval("", from.minus(MAX_APPOINTMENT_DURATION), from);
+            BookedInterval highest = new BookedInterval("", to, to);
+
+            List<BookedInterval> overlapping = new ArrayList<>();
+            for (BookedInterval interval : byStart.subMap(lowest, false, highest, false).keySet()) {
+                if (interval.overlaps(from, to) && !interval.appointmentId().equals(excludeAppointmentId)) {
+                    overlapping.add(interval);
+                }
+            }
+            return overlapping;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.appointmentservice.business.availability;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.ProviderDayAvailabilityEntity;
+import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import com.example.appointmentservice.persistence.repository.ProviderDayAvailabilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Availability backed by precomputed provider-day bitmaps in Mongo.
+// Availability for a day is one small document read plus a scan of 288 bits. A conflict check
+// is a bitmask AND against the one or two day documents the interval touches. Writes flip
+// bits with $bit, so concurrent bookings on the same day never overwrite each other.
+//
+// Bits are only trusted once the backfill migration has written every existing booking.
+// Until then, reads return Optional.empty() and callers use the booking index or Mongo.
+// Bookings that are not aligned to the 5-minute grid can share a bucket with their neighbour, so
+// freeing an interval only clears the buckets no other booking of the provider still occupies.
+// A day whose update failed is queued and rebuilt from its bookings by the repair pass of
+// ProviderDayAvailabilityReconciler, which also rebuilds every day on a schedule.
+@Component
+@Slf4j
+public class ProviderDayBitmaps {
+
+    private static final long READINESS_RECHECK_NANOS = Duration.ofSeconds(30).toNanos();
+    // reserve() sets bits before the appointment is saved, so a rebuild leaves a day alone while it was
+    // written more recently than this - the write may belong to a booking that is not visible yet
+    private static final Duration REBUILD_SETTLE_TIME = Duration.ofMinutes(1);
+
+    private final ProviderDayAvailabilityRepository repository;
+    private final AppointmentRepository appointmentRepository;
+    private final Set<ProviderDay> pendingRebuilds = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile long nextReadinessCheck;
+
+    public ProviderDayBitmaps(ProviderDayAvailabilityRepository repository, AppointmentRepository appointmentRepository) {
+        this.repository = repository;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    public record ProviderDay(Long providerId, LocalDate date) {
+    }
+
+    // Booked runs of the provider's day; empty Optional while the bitmaps are not trusted yet
+    public Optional<List<BookedInterval>> bookedIntervals(Long providerId, LocalDate date) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(repository.findById(ProviderDayAvailabilityEntity.idFor(providerId, date))
+                .map(day -> AvailabilityBitmap.toIntervals(date, day.toWords()))
+                .orElse(List.of()));
+    }
+
+    // Whether [start, end) hits an occupied bucket; empty Optional while the bitmaps are not trusted yet
+    public Optional<Boolean> hasOverlap(Long providerId, LocalDateTime start, LocalDateTime end) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+
+        Map<LocalDate, long[]> masks = AvailabilityBitmap.masksByDay(start, end);
+        List<String> ids = masks.keySet().stream()
+                .map(day -> ProviderDayAvailabilityEntity.idFor(providerId, day))
+                .toList();
+
+        for (ProviderDayAvailabilityEntity day : repository.findAllById(ids)) {
+            long[] mask = masks.get(day.getDate());
+            if (mask != null && AvailabilityBitmap.intersects(day.toWords(), mask)) {
+                return Optional.of(true);
+            }
+        }
+        return Optional.of(false);
+    }
+
+    // Frees the buckets of `released` and occupies those of `occupied`; either may be null.
+    // Runs regardless of readiness so live writes and the backfill converge on the same bits.
+    public void move(Long providerId, BookedInterval released, BookedInterval occupied) {
+        if (providerId == null) {
+            return;
+        }
+        try {
+            if (released != null) {
+                release(providerId, masksOf(released), released.appointmentId());
+            }
+            if (occupied != null) {
+                repository.applyMasks(providerId, masksOf(occupied), true);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to update availability bitmap of provider {} - queued for rebuild: {}",
+                    providerId, e.getMessage());
+            queueRebuild(providerId, released);
+            queueRebuild(providerId, occupied);
+        }
+    }
+
+    // Claims the buckets of `wanted` in one conditional findAndModify per day, failing if any of them is
+    // occupied. `held` is the interval the same appointment already occupies (a reschedule), whose
+    // buckets are allowed to overlap. Days claimed before a failing one are handed back, so a false
+    // result leaves the bitmaps untouched. Empty Optional while the bitmaps are not trusted yet.
+    public Optional<Boolean> reserve(Long providerId, BookedInterval wanted, BookedInterval held) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+
+        Map<LocalDate, long[]> heldMasks = masksOf(held);
+        Map<LocalDate, long[]> claimed = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, long[]> day : AvailabilityBitmap.masksByDay(wanted.start(), wanted.end()).entrySet()) {
+            long[] mustBeClear = minus(day.getValue(), heldMasks.get(day.getKey()));
+            if (!repository.reserve(providerId, day.getKey(), mustBeClear, day.getValue())) {
+                repository.applyMasks(providerId, claimed, false);
+                return Optional.of(false);
+            }
+            claimed.put(day.getKey(), mustBeClear);
+        }
+        return Optional.of(true);
+    }
+
+    // Undoes a successful reserve whose appointment write then failed
+    public void cancelReservation(Long providerId, BookedInterval wanted, BookedInterval held) {
+        clearDifference(providerId, wanted, held);
+    }
+
+    // After a reserved reschedule has been saved, frees the buckets of the old time the new one does not reuse
+    public void releaseRemainder(Long providerId, BookedInterval held, BookedInterval wanted) {
+        clearDifference(providerId, held, wanted);
+    }
+
+    // Recomputes one provider-day from its booked appointments and overwrites it if it differs, as a
+    // compare-and-set so a concurrent live write wins. A day written less than `settleTime` ago is left
+    // alone. Returns whether the day now matches its bookings; otherwise it is queued for the next repair pass.
+    public boolean rebuild(Long providerId, LocalDate date, Duration settleTime) {
+        boolean rebuilt = false;
+        try {
+            ProviderDayAvailabilityEntity current = repository.findById(ProviderDayAvailabilityEntity.idFor(providerId, date))
+                    .orElse(null);
+            if (current != null && current.getUpdatedAt() != null
+                    && current.getUpdatedAt().isAfter(LocalDateTime.now().minus(settleTime))) {
+                pendingRebuilds.add(new ProviderDay(providerId, date));
+                return false;
+            }
+
+            long[] booked = bookedMasks(providerId, List.of(date), null)
+                    .getOrDefault(date, new long[AvailabilityBitmap.WORDS]);
+            long[] stored = current == null ? new long[AvailabilityBitmap.WORDS] : current.toWords();
+            rebuilt = Arrays.equals(booked, stored) || repository.compareAndSetWords(providerId, date, current, booked);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild availability bitmap {}: {}", ProviderDayAvailabilityEntity.idFor(providerId, date),
+                    e.getMessage());
+        }
+
+        if (rebuilt) {
+            pendingRebuilds.remove(new ProviderDay(providerId, date));
+        } else {
+            pendingRebuilds.add(new ProviderDay(providerId, date));
+        }
+        return rebuilt;
+    }
+
+    // rebuild() for days written by live traffic, which may have reservations in flight
+    public boolean rebuild(Long providerId, LocalDate date) {
+        return rebuild(providerId, date, REBUILD_SETTLE_TIME);
+    }
+
+    // Rebuilds the days whose update failed (or whose rebuild was deferred) on this instance.
+    // Returns how many are still queued.
+    public int rebuildPending() {
+        for (ProviderDay day : List.copyOf(pendingRebuilds)) {
+            rebuild(day.providerId(), day.date());
+        }
+        return pendingRebuilds.size();
+    }
+
+    // Clears the buckets of `interval` that `except` does not cover
+    private void clearDifference(Long providerId, BookedInterval interval, BookedInterval except) {
+        Map<LocalDate, long[]> exceptMasks = masksOf(except);
+        Map<LocalDate, long[]> difference = new LinkedHashMap<>();
+        masksOf(interval).forEach((day, mask) -> difference.put(day, minus(mask, exceptMasks.get(day))));
+        try {
+            release(providerId, difference, interval.appointmentId());
+        } catch (Exception e) {
+            log.warn("Failed to update availability bitmap of provider {} - queued for rebuild: {}",
+                    providerId, e.getMessage());
+            queueRebuild(providerId, interval);
+        }
+    }
+
+    // Clears the masked buckets except those another booking of the provider still occupies
+    private void release(Long providerId, Map<LocalDate, long[]> masks, String appointmentId) {
+        if (masks.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, long[]> stillBooked = bookedMasks(providerId, masks.keySet(), appointmentId);
+        Map<LocalDate, long[]> free = new LinkedHashMap<>();
+        masks.forEach((day, mask) -> free.put(day, minus(mask, stillBooked.get(day))));
+        repository.applyMasks(providerId, free, false);
+    }
+
+    // Buckets occupied on each of `days` by the provider's booked appointments other than `excludedId`
+    private Map<LocalDate, long[]> bookedMasks(Long providerId, Collection<LocalDate> days, String excludedId) {
+        LocalDateTime from = Collections.min(days).atStartOfDay().minus(AppointmentRepository.MAX_APPOINTMENT_DURATION);
+        LocalDateTime to = Collections.max(days).plusDays(1).atStartOfDay();
+
+        Map<LocalDate, long[]> masks = new HashMap<>();
+        for (AppointmentEntity booking : appointmentRepository.findBookedSlotsForProviders(List.of(providerId), from, to)) {
+            if (booking.getAppointmentDateTime() == null || Objects.equals(booking.getId(), excludedId)) {
+                continue;
+            }
+            masksOf(BookedInterval.of(booking)).forEach((day, mask) -> {
+                if (days.contains(day)) {
+                    masks.merge(day, mask, AvailabilityBitmap::or);
+                }
+            });
+        }
+        return masks;
+    }
+
+    private void queueRebuild(Long providerId, BookedInterval interval) {
+        masksOf(interval).keySet().forEach(day -> pendingRebuilds.add(new ProviderDay(providerId, day)));
+    }
+
+    private static Map<LocalDate, long[]> masksOf(BookedInterval interval) {
+        return interval == null ? Map.of() : AvailabilityBitmap.masksByDay(interval.start(), interval.end());
+    }
+
+    private static long[] minus(long[] mask, long[] except) {
+        return except == null ? mask : AvailabilityBitmap.andNot(mask, except);
+    }
+
+    private boolean isReady() {
+        if (ready) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - nextReadinessCheck >= 0) {
+            nextReadinessCheck = now + READINESS_RECHECK_NANOS;
+            try {
+                ready = repository.isBackfilled();
+            } catch (Exception e) {
+                log.debug("Could not check availability bitmap backfill: {}", e.getMessage());
+            }
+        }
+        return ready;
+    }
+}
@@ -212,6 +212,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.function.Predicate;
 
 
 // Authorization Rules:
@@ -333,6 +334,34 @@ public class AppointmentSecurityService {
     }
 
 
+    // Bulk counterpart of canModifyAppointment (modify == true) and canAccessAppointment: the current user is
+    // resolved once and the returned check runs against appointments the caller has already loaded, so a
+    // whole batch is authorized from one query instead of a findById per appointment.
+    // Denies everything when no user can be resolved.
+    public Predicate<AppointmentEntity> appointmentPermission(boolean modify) {
+        try {
+            String currentUsername = getCurrentUsername();
+            if (currentUsername == null) return appointment -> false;
+
+            if (isAdmin()) {
+                log.info("✓ Admin user {} granted bulk appointment access", currentUsername);
+                return appointment -> true;
+            }
+
+            UserDto currentUser = userServiceClient.getUserByUsername(currentUsername);
+            if (currentUser == null || currentUser.getId() == null) return appointment -> false;
+
+            Long userId = currentUser.getId();
+            return appointment -> userId.equals(appointment.getRequesterId())
+                    || (!modify && userId.equals(appointment.getProviderId()));
+
+        } catch (Exception e) {
+            log.error("Error resolving bulk appointment access: {}", e.getMessage());
+            return appointment -> false;
+        }
+    }
+
+
     // Access is granted if:
     //     * - User is ADMIN
     //     * - User is requesting their own appointments
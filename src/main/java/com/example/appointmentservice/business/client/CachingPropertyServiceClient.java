@@ -0,0 +1,238 @@
+package com.example.appointmentservice.business.client;
+
+import com.example.appointmentservice.domain.response.PropertyServiceResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+// Stale-while-revalidate cache in front of the Property Service HTTP client.
+// Entries younger than the soft TTL are served directly. Older entries are still served
+// immediately, and a single background refresh is started for them, so request latency
+// no longer follows the Property Service tail. A failed refresh keeps the last known good
+// entry and is not retried before the refresh backoff has passed. No refreshes are attempted
+// while the propertyService circuit breaker is open, and entries past the hard TTL are still
+// served then instead of being dropped - the hard TTL is checked on read rather than enforced
+// by Caffeine, which would evict them regardless. Only cache misses wait on the remote call.
+@Component
+@Primary
+@Slf4j
+public class CachingPropertyServiceClient implements PropertyServiceClient {
+
+    private static final String PROPERTY_SERVICE = "propertyService";
+
+    private final PropertyServiceClient delegate;
+    private final Cache<Long, CachedProperty> properties;
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final ExecutorService refreshExecutor;
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+    private final long refreshBackoffNanos;
+    private final Counter staleServed;
+    private final Counter refreshFailures;
+
+    public CachingPropertyServiceClient(@Qualifier("propertyServiceHttpClient") PropertyServiceClient delegate,
+                                        CircuitBreakerRegistry circuitBreakerRegistry,
+                                        RetryRegistry retryRegistry,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.cache.properties.maximum-size:10000}") long maximumSize,
+                                        @Value("${app.cache.properties.soft-ttl-seconds:300}") long softTtlSeconds,
+                                        @Value("${app.cache.properties.hard-ttl-seconds:86400}") long hardTtlSeconds,
+                                        @Value("${app.cache.properties.refresh-backoff-seconds:60}") long refreshBackoffSeconds) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(PROPERTY_SERVICE);
+        this.retry = retryRegistry.retry(PROPERTY_SERVICE);
+        this.softTtlNanos = Duration.ofSeconds(softTtlSeconds).toNanos();
+        this.hardTtlNanos = Duration.ofSeconds(hardTtlSeconds).toNanos();
+        this.refreshBackoffNanos = Duration.ofSeconds(refreshBackoffSeconds).toNanos();
+        // Refreshes carry the SecurityContext of the request that noticed the stale entry,
+        // so the JWT-forwarding interceptor still authenticates them
+        this.refreshExecutor = new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+        this.properties = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, properties, "properties.by-id");
+        this.staleServed = meterRegistry.counter("property.cache.stale.served");
+        this.refreshFailures = meterRegistry.counter("property.cache.refresh.failures");
+    }
+
+    @Override
+    public PropertyServiceResponse getPropertyById(Long id) {
+        CachedProperty cached = usable(properties.getIfPresent(id));
+        if (cached != null) {
+            if (isStale(cached)) {
+                staleServed.increment();
+                refreshAsync(List.of(id));
+            }
+            return cached.response();
+        }
+
+        // Miss: the caller has nothing better to show, so wait for the remote call
+        PropertyServiceResponse response = circuitBreaker.executeSupplier(() -> delegate.getPropertyById(id));
+        cache(response);
+        return response;
+    }
+
+    // Fresh and stale entries are returned from the cache; only ids never seen go over the wire.
+    // If that fetch fails, the cached subset is still returned and callers fall back for the rest.
+    @Override
+    public List<PropertyServiceResponse> getPropertiesByIds(List<Long> ids) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, PropertyServiceResponse> found = new HashMap<>();
+        List<Long> stale = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : requested) {
+            CachedProperty cached = usable(properties.getIfPresent(id));
+            if (cached == null) {
+                missing.add(id);
+                continue;
+            }
+            if (isStale(cached)) {
+                stale.add(id);
+            }
+            found.put(id, cached.response());
+        }
+
+        if (!stale.isEmpty()) {
+            staleServed.increment(stale.size());
+            refreshAsync(stale);
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                List<PropertyServiceResponse> fetched =
+                        circuitBreaker.executeSupplier(() -> delegate.getPropertiesByIds(missing));
+                if (fetched != null) {
+                    for (PropertyServiceResponse response : fetched) {
+                        if (cache(response)) {
+                            found.put(response.getPropertyId(), response);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Batch property lookup failed for {} uncached ids: {}", missing.size(), e.getMessage());
+            }
+        }
+
+        List<PropertyServiceResponse> result = new ArrayList<>();
+        requested.stream().map(found::get).filter(Objects::nonNull).forEach(result::add);
+        return result;
+    }
+
+    // The entry, or null if it is past the hard TTL and the Property Service can be asked instead
+    private CachedProperty usable(CachedProperty cached) {
+        if (cached == null || System.nanoTime() - cached.fetchedAtNanos() <= hardTtlNanos || isBreakerOpen()) {
+            return cached;
+        }
+        return null;
+    }
+
+    private boolean isStale(CachedProperty cached) {
+        return System.nanoTime() - cached.refreshAfterNanos() >= 0;
+    }
+
+    private boolean isBreakerOpen() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    // At most one refresh per id is in flight; nothing is attempted while the breaker is open
+    private void refreshAsync(List<Long> ids) {
+        if (isBreakerOpen()) {
+            return;
+        }
+
+        List<Long> toRefresh = ids.stream().filter(refreshing::add).toList();
+        if (toRefresh.isEmpty()) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> refresh(toRefresh));
+        } catch (Exception e) {
+            toRefresh.forEach(refreshing::remove);
+            log.debug("Could not schedule property refresh: {}", e.getMessage());
+        }
+    }
+
+    // Runs off the request path, so the configured retries are affordable here
+    private void refresh(List<Long> ids) {
+        Set<Long> refreshed = new HashSet<>();
+        try {
+            List<PropertyServiceResponse> fetched = Retry.decorateSupplier(retry,
+                    CircuitBreaker.decorateSupplier(circuitBreaker, () -> ids.size() == 1
+                            ? Collections.singletonList(delegate.getPropertyById(ids.get(0)))
+                            : delegate.getPropertiesByIds(ids))).get();
+            if (fetched != null) {
+                for (PropertyServiceResponse response : fetched) {
+                    if (cache(response)) {
+                        refreshed.add(response.getPropertyId());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.warn("Refresh of {} cached properties failed - serving last known data: {}", ids.size(), e.getMessage());
+        } finally {
+            // Ids the refresh did not bring back (an error, or an unsuccessful response) keep their data
+            // but wait out the backoff, instead of starting another refresh on every read
+            long retryAt = System.nanoTime() + refreshBackoffNanos;
+            ids.stream().filter(id -> !refreshed.contains(id)).forEach(id ->
+                    properties.asMap().computeIfPresent(id, (key, cached) -> cached.refreshAfter(retryAt)));
+            ids.forEach(refreshing::remove);
+        }
+    }
+
+    // Only successful responses are cached, so a failing Property Service never overwrites good data
+    private boolean cache(PropertyServiceResponse response) {
+        if (response == null || !response.isSuccess() || response.getPropertyId() == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        properties.put(response.getPropertyId(), new CachedProperty(response, now, now + softTtlNanos));
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record CachedProperty(PropertyServiceResponse response, long fetchedAtNanos, long refreshAfterNanos) {
+
+        CachedProperty refreshAfter(long nanos) {
+            return new CachedProperty(response, fetchedAtNanos, nanos);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.appointmentservice.business.client;
+
+import com.example.appointmentservice.domain.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+
+// Caching decorator in front of the User Service HTTP client.
+// User profiles change rarely, so lookups by id and by username are served from a
+// size-bounded, TTL-based in-process cache. Both keys are populated from every response,
+// and entries are dropped early when a user-updated event arrives (see UserEventConsumer).
+// Hit/miss/eviction metrics are exported to Micrometer as cache.* meters.
+@Component
+@Primary
+@Slf4j
+public class CachingUserServiceClient implements UserServiceClient {
+
+    private final UserServiceClient delegate;
+    private final Cache<Long, UserDto> usersById;
+    private final Cache<String, UserDto> usersByUsername;
+
+    public CachingUserServiceClient(@Qualifier("userServiceHttpClient") UserServiceClient delegate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.cache.users.maximum-size:10000}") long maximumSize,
+                                    @Value("${app.cache.users.ttl-seconds:600}") long ttlSeconds) {
+        this.delegate = delegate;
+        this.usersById = buildCache(maximumSize, ttlSeconds);
+        this.usersByUsername = buildCache(maximumSize, ttlSeconds);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByUsername, "users.by-username");
+    }
+
+    private static <K> Cache<K, UserDto> buildCache(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDto getUserByUsername(String username) {
+        UserDto cached = usersByUsername.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserDto user = delegate.getUserByUsername(username);
+        cache(user, username);
+        return user;
+    }
+
+    @Override
+    public UserDto getUserById(Long id) {
+        UserDto cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserDto user = delegate.getUserById(id);
+        cache(user, null);
+        return user;
+    }
+
+    // Only the ids missing from the cache go over the wire
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, UserDto> found = new HashMap<>(usersById.getAllPresent(requested));
+
+        List<Long> missing = requested.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            List<UserDto> fetched = delegate.getUsersByIds(missing);
+            if (fetched != null) {
+                for (UserDto user : fetched) {
+                    if (user != null && user.getId() != null) {
+                        cache(user, null);
+                        found.put(user.getId(), user);
+                    }
+                }
+            }
+        }
+
+        List<UserDto> users = new ArrayList<>();
+        requested.stream().map(found::get).filter(Objects::nonNull).forEach(users::add);
+        return users;
+    }
+
+    @Override
+    public Boolean userExistsByUsername(String username) {
+        if (usersByUsername.getIfPresent(username) != null) {
+            return true;
+        }
+        return delegate.userExistsByUsername(username);
+    }
+
+    @Override
+    public String getUserRoleByUsername(String username) {
+        return delegate.getUserRoleByUsername(username);
+    }
+
+    // Invalidation hook for user-updated events; either key may be missing from the event
+    public void evict(Long userId, String username) {
+        if (userId != null) {
+            UserDto cached = usersById.getIfPresent(userId);
+            if (cached != null && cached.getUsername() != null) {
+                usersByUsername.invalidate(cached.getUsername());
+            }
+            usersById.invalidate(userId);
+        }
+        if (username != null) {
+            UserDto cached = usersByUsername.getIfPresent(username);
+            if (cached != null && cached.getId() != null) {
+                usersById.invalidate(cached.getId());
+            }
+            usersByUsername.invalidate(username);
+        }
+        log.debug("Evicted cached user - id: {}, username: {}", userId, username);
+    }
+
+    private void cache(UserDto user, String requestedUsername) {
+        if (user == null) {
+            return;
+        }
+        if (user.getId() != null) {
+            usersById.put(user.getId(), user);
+        }
+        String username = user.getUsername() != null ? user.getUsername() : requestedUsername;
+        if (username != null) {
+            usersByUsername.put(username, user);
+        }
+    }
+}
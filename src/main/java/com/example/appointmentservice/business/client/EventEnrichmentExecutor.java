@@ -0,0 +1,87 @@
+package com.example.appointmentservice.business.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+// Runs the post-commit enrichment of lifecycle events off the request thread with bounded concurrency:
+// `threads` workers drain a queue of at most queue-capacity tasks. When both are full the task is
+// rejected and the request carries on - the outbox entry it would have enriched is published as
+// inserted once its hold ends. The submitting request's SecurityContext is propagated, so the
+// User/Property Service lookups still forward the caller's JWT.
+@Component
+@Slf4j
+public class EventEnrichmentExecutor {
+
+    private final ExecutorService executor;
+    private final Counter rejected;
+    private final Timer duration;
+
+    @Autowired
+    public EventEnrichmentExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.events.enrichment.threads:8}") int threads,
+                                   @Value("${app.events.enrichment.queue-capacity:1000}") int queueCapacity) {
+        this(new DelegatingSecurityContextExecutorService(workers(threads, queueCapacity, meterRegistry)), meterRegistry);
+    }
+
+    public EventEnrichmentExecutor(ExecutorService executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.rejected = Counter.builder("events.enrichment.rejected")
+                .description("Post-commit enrichments dropped because the queue was full")
+                .register(meterRegistry);
+        this.duration = Timer.builder("events.enrichment")
+                .description("Lookup and outbox update of one post-commit enrichment")
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService workers(int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "event-enrichment-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("events.enrichment.queue.depth", pool, p -> p.getQueue().size()).register(meterRegistry);
+        return pool;
+    }
+
+    // Returns false if the task was rejected; a failing task is logged and never reaches the caller
+    public boolean submit(Runnable task) {
+        try {
+            executor.execute(() -> duration.record(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("Post-commit event enrichment failed: {}", e.getMessage());
+                }
+            }));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
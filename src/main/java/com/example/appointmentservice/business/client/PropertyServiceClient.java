@@ -1,18 +1,22 @@
 package com.example.appointmentservice.business.client;
 
 import com.example.appointmentservice.domain.response.PropertyServiceResponse;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
 
+import java.util.List;
+
 
 @HttpExchange
 public interface PropertyServiceClient {
 
+    // Circuit breaker and retry for the property service are applied by CachingPropertyServiceClient
     @GetExchange("/api/v1/properties/{id}")
-    @CircuitBreaker(name = "propertyService", fallbackMethod = "getPropertyFallback")
-    @Retry(name = "propertyService")
     PropertyServiceResponse getPropertyById(@PathVariable("id") Long id);
+
+    // Batch lookup used by list enrichment - one round trip for all properties of a result page
+    @GetExchange("/api/v1/properties/batch")
+    List<PropertyServiceResponse> getPropertiesByIds(@RequestParam("ids") List<Long> ids);
 }
\ No newline at end of file
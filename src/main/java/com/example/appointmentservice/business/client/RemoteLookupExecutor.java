@@ -0,0 +1,78 @@
+package com.example.appointmentservice.business.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+
+// Runs independent User/Property Service lookups concurrently on virtual threads,
+// so enriching one appointment costs max(downstream) instead of sum(downstream).
+// The SecurityContext of the submitting request thread is propagated to each lookup,
+// which keeps the JWT-forwarding interceptor in RestClientConfig working.
+@Component
+@Slf4j
+public class RemoteLookupExecutor {
+
+    private final ExecutorService executor;
+    private final Duration deadline;
+
+    @Autowired
+    public RemoteLookupExecutor(@Value("${app.enrichment.deadline-ms:2000}") long deadlineMs) {
+        this(new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor()),
+                Duration.ofMillis(deadlineMs));
+    }
+
+    public RemoteLookupExecutor(ExecutorService executor, Duration deadline) {
+        this.executor = executor;
+        this.deadline = deadline;
+    }
+
+    // Deadline shared by all lookups started for the same request
+    public long deadlineFromNow() {
+        return System.nanoTime() + deadline.toNanos();
+    }
+
+    public <T> Future<T> submit(Supplier<T> lookup) {
+        return executor.submit(lookup::get);
+    }
+
+    // Returns the lookup result, or null if it failed or did not finish before the deadline
+    public <T> T await(Future<T> lookup, long deadlineNanos, String description) {
+        if (lookup == null) {
+            return null;
+        }
+
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return lookup.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            lookup.cancel(true);
+            log.warn("Lookup of {} exceeded the {} ms enrichment deadline - continuing without it",
+                    description, deadline.toMillis());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.debug("Could not fetch {} for enrichment: {}", description, cause.getMessage());
+        } catch (InterruptedException e) {
+            lookup.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -34,9 +34,12 @@ package com.example.appointmentservice.business.client;
 
 import com.example.appointmentservice.domain.dto.UserDto;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
 
+import java.util.List;
+
 
 @HttpExchange
 public interface UserServiceClient {
@@ -46,6 +49,10 @@ public interface UserServiceClient {
     @GetExchange("/api/internal/users/id/{id}")
     UserDto getUserById(@PathVariable("id") Long id);
 
+    // Batch lookup used by list enrichment - one round trip for all users of a result page
+    @GetExchange("/api/internal/users/batch")
+    List<UserDto> getUsersByIds(@RequestParam("ids") List<Long> ids);
+
     @GetExchange("/api/internal/users/username/{username}/exists")
     Boolean userExistsByUsername(@PathVariable("username") String username);
 
@@ -1,35 +1,63 @@
 package com.example.appointmentservice.business.impl;
 
+import com.example.appointmentservice.business.availability.BookedInterval;
+import com.example.appointmentservice.business.availability.ProviderBookingIndex;
+import com.example.appointmentservice.business.availability.ProviderDayBitmaps;
+import com.example.appointmentservice.business.availability.SlotGenerator;
+import com.example.appointmentservice.business.client.EventEnrichmentExecutor;
 import com.example.appointmentservice.business.client.PropertyServiceClient;
+import com.example.appointmentservice.business.client.RemoteLookupExecutor;
 import com.example.appointmentservice.business.client.UserServiceClient;
 import com.example.appointmentservice.business.interfaces.AppointmentService;
 import com.example.appointmentservice.business.mapper.AppointmentMapperDto;
 import com.example.appointmentservice.domain.dto.AppointmentDto;
+import com.example.appointmentservice.domain.dto.AppointmentStatisticsDto;
+import com.example.appointmentservice.domain.dto.BulkOperationResultDto;
 import com.example.appointmentservice.domain.dto.PropertyDto;
+import com.example.appointmentservice.domain.dto.ProviderDayAvailabilityDto;
 import com.example.appointmentservice.domain.response.PropertyServiceResponse;
 import com.example.appointmentservice.domain.dto.UserDto;
 import com.example.appointmentservice.domain.request.AppointmentRequest;
+import com.example.appointmentservice.domain.request.BulkLifecycleRequest;
 import com.example.appointmentservice.domain.response.AppointmentResponse;
 import com.example.appointmentservice.exception.AppointmentNotFoundException;
 
 import com.example.appointmentservice.persistence.model.AppointmentEntity;
 import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import com.example.appointmentservice.persistence.model.AppointmentTransition;
 import com.example.appointmentservice.persistence.model.AppointmentType;
+import com.example.appointmentservice.persistence.model.AppointmentCounterEntity;
+import com.example.appointmentservice.persistence.model.OutboxEventEntity;
+import com.example.appointmentservice.persistence.repository.AppointmentCounterRepository;
+import com.example.appointmentservice.persistence.repository.AppointmentCursor;
 import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import com.example.appointmentservice.persistence.repository.AppointmentStatistics;
+import com.example.appointmentservice.persistence.repository.OutboxEventRepository;
+import com.example.appointmentservice.persistence.repository.StatusChange;
 import com.example.appointmentservice.producer.AppointmentEvent;
-import com.example.appointmentservice.producer.AppointmentEventProducer;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -40,8 +68,38 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final AppointmentMapperDto appointmentMapper;
     private final UserServiceClient userServiceClient;
     private final PropertyServiceClient propertyServiceClient;
-    private final AppointmentEventProducer appointmentEventProducer;
-
+    private final RemoteLookupExecutor remoteLookupExecutor;
+    private final AppointmentCounterRepository appointmentCounterRepository;
+    private final ProviderBookingIndex providerBookingIndex;
+    private final ProviderDayBitmaps providerDayBitmaps;
+    private final SlotGenerator slotGenerator;
+    private final ForkJoinPool availabilitySearchPool;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionOperations transactionOperations;
+    private final EventEnrichmentExecutor eventEnrichmentExecutor;
+
+    private static final int BATCH_LOOKUP_SIZE = 200;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Providers per booking query in an availability search; each batch is streamed as soon as it is computed
+    private static final int SEARCH_PROVIDER_BATCH_SIZE = 25;
+
+    // Streaming export tuning: documents per Mongo cursor batch, appointments per enrichment chunk
+    @Value("${app.export.cursor-batch-size:500}")
+    private int exportCursorBatchSize = 500;
+
+    @Value("${app.export.chunk-size:200}")
+    private int exportChunkSize = 200;
+
+    // How long a lifecycle event waits in the outbox for its post-commit enrichment before it is published as is
+    @Value("${app.events.enrichment.hold-ms:10000}")
+    private long enrichmentHoldMs = 10000;
+
+    // The counters are only read once their first full rebuild has completed (AppointmentCounterRepositoryCustom
+    // #isSeeded); until then statistics are aggregated. A negative answer is re-asked at most every 30 seconds.
+    private static final long COUNTER_SEED_RECHECK_NANOS = Duration.ofSeconds(30).toNanos();
+    private volatile boolean countersSeeded;
+    private volatile long nextCounterSeedCheck = System.nanoTime();
 
 
     // ========== CIRCUIT BREAKER METHODS ==========
@@ -88,34 +146,59 @@ public class AppointmentServiceImpl implements AppointmentService {
                 return AppointmentResponse.error("Appointment time cannot be in the past", "INVALID_TIME");
             }
 
-            UserDto requesterDto = validateAndGetUser(request.getRequesterUsername());
-            UserDto providerDto = validateAndGetUserById(request.getProviderId());
-            PropertyDto propertyDto = validateAndGetProperty(request.getPropertyId());
-
-            if (isDuplicateAppointment(request)) {
-                return AppointmentResponse.error("Duplicate appointment already exists", "DUPLICATE_APPOINTMENT");
-            }
-
+            // Requester, provider and property are independent - look them up in parallel
+            long deadline = remoteLookupExecutor.deadlineFromNow();
+            Future<UserDto> requesterLookup = remoteLookupExecutor.submit(() -> validateAndGetUser(request.getRequesterUsername()));
+            Future<UserDto> providerLookup = remoteLookupExecutor.submit(() -> validateAndGetUserById(request.getProviderId()));
+            Future<PropertyDto> propertyLookup = remoteLookupExecutor.submit(() -> validateAndGetProperty(request.getPropertyId()));
+
+            UserDto requesterDto = Optional.ofNullable(remoteLookupExecutor.await(requesterLookup, deadline, "requester"))
+                    .orElseGet(() -> createFallbackUser(null, request.getRequesterUsername()));
+            UserDto providerDto = Optional.ofNullable(remoteLookupExecutor.await(providerLookup, deadline, "provider"))
+                    .orElseGet(() -> createFallbackUser(request.getProviderId(), null));
+            PropertyDto propertyDto = Optional.ofNullable(remoteLookupExecutor.await(propertyLookup, deadline, "property"))
+                    .orElseGet(() -> createFallbackProperty(request.getPropertyId()));
+
+            // Admission: the provider-day bitmaps claim the time in one conditional write and the unique
+            // duplicate_check_idx rejects a repeated booking at insert, so neither needs a pre-check query.
+            // Until the bitmaps are backfilled the previous check-then-insert path is used.
             LocalDateTime endTime = request.getAppointmentDateTime().plusMinutes(request.getDurationMinutes());
-            if (hasConflictingAppointment(String.valueOf(request.getProviderId()), request.getAppointmentDateTime(), endTime, null)) {
+            BookedInterval requested = new BookedInterval(null, request.getAppointmentDateTime(), endTime);
+            Optional<Boolean> reserved = providerDayBitmaps.reserve(request.getProviderId(), requested, null);
+            if (reserved.isEmpty()) {
+                if (isDuplicateAppointment(request)) {
+                    return AppointmentResponse.error("Duplicate appointment already exists", "DUPLICATE_APPOINTMENT");
+                }
+                if (hasConflictAtCommit(request.getProviderId(), request.getAppointmentDateTime(), endTime, null)) {
+                    return AppointmentResponse.error("Provider has a conflicting appointment at this time", "TIME_CONFLICT");
+                }
+            } else if (!reserved.get()) {
                 return AppointmentResponse.error("Provider has a conflicting appointment at this time", "TIME_CONFLICT");
             }
+            boolean bitmapsReserved = reserved.orElse(false);
 
             AppointmentEntity appointment = createAppointmentEntity(request);
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
-            enrichAppointmentDto(appointmentDto, requesterDto, providerDto, propertyDto);
-
-            // ✅ PUBLISH EVENT TO RABBITMQ
+            SavedAppointment saved;
             try {
-                AppointmentEvent event = createAppointmentEvent(appointmentDto, "APPOINTMENT_CREATED");
-                appointmentEventProducer.publishAppointmentCreated(event);
-                log.info("Published APPOINTMENT_CREATED event for appointment ID: {}", savedAppointment.getId());
-            } catch (Exception e) {
-                log.warn("Failed to publish appointment created event: {}", e.getMessage());
-                // Don't fail the entire operation if event publishing fails
+                saved = saveWithEvent(appointment, savedEntity -> {
+                    AppointmentDto dto = appointmentMapper.toDto(savedEntity);
+                    enrichAppointmentDto(dto, requesterDto, providerDto, propertyDto);
+                    return dto;
+                }, dto -> createAppointmentEvent(dto, "APPOINTMENT_CREATED"));
+            } catch (DuplicateKeyException e) {
+                if (bitmapsReserved) {
+                    providerDayBitmaps.cancelReservation(request.getProviderId(), requested, null);
+                }
+                return AppointmentResponse.error("Duplicate appointment already exists", "DUPLICATE_APPOINTMENT");
+            } catch (RuntimeException e) {
+                if (bitmapsReserved) {
+                    providerDayBitmaps.cancelReservation(request.getProviderId(), requested, null);
+                }
+                throw e;
             }
+            AppointmentEntity savedAppointment = saved.appointment();
+            AppointmentDto appointmentDto = saved.dto();
+            recordTransition(savedAppointment, null, null, savedAppointment.getStatus(), bitmapsReserved);
 
             log.info("Successfully created appointment ID: {}", savedAppointment.getId());
             return AppointmentResponse.success("Appointment created successfully", appointmentDto);
@@ -149,18 +232,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByUserId(String userId) {
+    public AppointmentResponse getAppointmentsByUserId(String userId, String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments for user ID: {}", userId);
 
-            List<AppointmentEntity> appointments = appointmentRepository.findByUserId(Long.valueOf(userId));
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .peek(this::enrichAppointmentDtoSafely)
-                    .collect(Collectors.toList());
+            int pageSize = resolvePageSize(limit);
+            List<AppointmentEntity> appointments = appointmentRepository.findPageByUserId(Long.valueOf(userId), AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments for user", appointmentDtos);
+            return toPageResponse(appointments, pageSize, "appointments for user");
 
         } catch (Exception e) {
             log.error("Error retrieving appointments for user {}: {}", userId, e.getMessage());
@@ -169,18 +248,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByRequesterId(String requesterId) {
+    public AppointmentResponse getAppointmentsByRequesterId(String requesterId, String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments for requester ID: {}", requesterId);
 
-            List<AppointmentEntity> appointments = appointmentRepository.findByRequesterId(Long.valueOf(requesterId));
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .peek(this::enrichAppointmentDtoSafely)
-                    .collect(Collectors.toList());
+            int pageSize = resolvePageSize(limit);
+            List<AppointmentEntity> appointments = appointmentRepository.findPageByRequesterId(Long.valueOf(requesterId), AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments for requester", appointmentDtos);
+            return toPageResponse(appointments, pageSize, "appointments for requester");
 
         } catch (Exception e) {
             log.error("Error retrieving appointments for requester {}: {}", requesterId, e.getMessage());
@@ -189,18 +264,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByProviderId(String providerId) {
+    public AppointmentResponse getAppointmentsByProviderId(String providerId, String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments for provider ID: {}", providerId);
 
-            List<AppointmentEntity> appointments = appointmentRepository.findByProviderId(Long.valueOf(providerId));
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .peek(this::enrichAppointmentDtoSafely)
-                    .collect(Collectors.toList());
+            int pageSize = resolvePageSize(limit);
+            List<AppointmentEntity> appointments = appointmentRepository.findPageByProviderId(Long.valueOf(providerId), AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments for provider", appointmentDtos);
+            return toPageResponse(appointments, pageSize, "appointments for provider");
 
         } catch (Exception e) {
             log.error("Error retrieving appointments for provider {}: {}", providerId, e.getMessage());
@@ -209,18 +280,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByPropertyId(String propertyId) {
+    public AppointmentResponse getAppointmentsByPropertyId(String propertyId, String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments for property ID: {}", propertyId);
 
-            List<AppointmentEntity> appointments = appointmentRepository.findByPropertyId(Long.valueOf(propertyId));
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .peek(this::enrichAppointmentDtoSafely)
-                    .collect(Collectors.toList());
+            int pageSize = resolvePageSize(limit);
+            List<AppointmentEntity> appointments = appointmentRepository.findPageByPropertyId(Long.valueOf(propertyId), AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments for property", appointmentDtos);
+            return toPageResponse(appointments, pageSize, "appointments for property");
 
         } catch (Exception e) {
             log.error("Error retrieving appointments for property {}: {}", propertyId, e.getMessage());
@@ -229,17 +296,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByStatus(AppointmentStatus status) {
+    public AppointmentResponse getAppointmentsByStatus(AppointmentStatus status, String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments with status: {}", status);
 
-            List<AppointmentEntity> appointments = appointmentRepository.findByStatus(status);
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .collect(Collectors.toList());
+            int pageSize = resolvePageSize(limit);
+            List<AppointmentEntity> appointments = appointmentRepository.findPageByStatus(status, AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments with status " + status, appointmentDtos);
+            return toUnenrichedPageResponse(appointments, pageSize, "appointments with status " + status);
 
         } catch (Exception e) {
             log.error("Error retrieving appointments with status {}: {}", status, e.getMessage());
@@ -248,17 +312,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByType(AppointmentType type) {
+    public AppointmentResponse getAppointmentsByType(AppointmentType type, String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments with type: {}", type);
 
-            List<AppointmentEntity> appointments = appointmentRepository.findByType(type);
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .collect(Collectors.toList());
+            int pageSize = resolvePageSize(limit);
+            List<AppointmentEntity> appointments = appointmentRepository.findPageByType(type, AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments of type " + type, appointmentDtos);
+            return toUnenrichedPageResponse(appointments, pageSize, "appointments of type " + type);
 
         } catch (Exception e) {
             log.error("Error retrieving appointments of type {}: {}", type, e.getMessage());
@@ -267,18 +328,16 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse getAppointmentsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+    public AppointmentResponse getAppointmentsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                          String cursor, Integer limit) {
         try {
             log.info("Retrieving appointments between {} and {}", startDate, endDate);
 
+            int pageSize = resolvePageSize(limit);
             List<AppointmentEntity> appointments = appointmentRepository
-                    .findByAppointmentDateTimeBetween(startDate, endDate);
-            List<AppointmentDto> appointmentDtos = appointments.stream()
-                    .map(appointmentMapper::toDto)
-                    .collect(Collectors.toList());
+                    .findPageByDateRange(startDate, endDate, AppointmentCursor.decode(cursor), pageSize + 1);
 
-            return AppointmentResponse.success(
-                    "Retrieved " + appointmentDtos.size() + " appointments in date range", appointmentDtos);
+            return toUnenrichedPageResponse(appointments, pageSize, "appointments in date range");
 
         } catch (Exception e) {
             log.error("Error retrieving appointments in date range: {}", e.getMessage());
@@ -294,10 +353,17 @@ public class AppointmentServiceImpl implements AppointmentService {
             LocalDateTime startOfDay = date.atStartOfDay();
             LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
 
-            List<AppointmentEntity> existingAppointments = appointmentRepository
-                    .findProviderBookedSlots(Long.valueOf(providerId), startOfDay, endOfDay);
+            // One provider-day bitmap document; before the bitmaps are backfilled, the in-memory booking
+            // index, and for days outside its horizon Mongo itself
+            List<BookedInterval> bookings = providerDayBitmaps.bookedIntervals(Long.valueOf(providerId), date)
+                    .or(() -> providerBookingIndex
+                            .bookedIntervals(Long.valueOf(providerId), startOfDay, date.plusDays(1).atStartOfDay()))
+                    .orElseGet(() -> appointmentRepository
+                            .findProviderBookedSlots(Long.valueOf(providerId), startOfDay, endOfDay).stream()
+                            .map(BookedInterval::of)
+                            .toList());
 
-            List<LocalDateTime> availableSlots = generateAvailableSlots(date, existingAppointments, durationMinutes);
+            List<LocalDateTime> availableSlots = slotGenerator.generate(date, 1, bookings, durationMinutes);
 
             List<AppointmentDto> slotDtos = availableSlots.stream()
                     .map(slot -> createSlotDto(slot, durationMinutes, providerId))
@@ -313,31 +379,77 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse confirmAppointment(String appointmentId) {
-        try {
-            log.info("Confirming appointment: {}", appointmentId);
+    public int searchAvailability(List<Long> providerIds, LocalDate startDate, LocalDate endDate,
+                                  int durationMinutes, Consumer<List<ProviderDayAvailabilityDto>> chunkConsumer) {
+        log.info("Searching availability of {} providers from {} to {} for {} minutes",
+                providerIds.size(), startDate, endDate, durationMinutes);
+
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        List<Long> providers = providerIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        int emitted = 0;
+        for (int i = 0; i < providers.size(); i += SEARCH_PROVIDER_BATCH_SIZE) {
+            List<Long> batch = providers.subList(i, Math.min(i + SEARCH_PROVIDER_BATCH_SIZE, providers.size()));
+
+            // One range query for the whole batch; bookings that start before the range can still reach into it
+            Map<Long, List<BookedInterval>> bookingsByProvider = appointmentRepository
+                    .findBookedSlotsForProviders(batch, from.minus(AppointmentRepository.MAX_APPOINTMENT_DURATION), to)
+                    .stream()
+                    .collect(Collectors.groupingBy(AppointmentEntity::getProviderId,
+                            Collectors.mapping(BookedInterval::of, Collectors.toList())));
+
+            // Slot sweeps are independent per provider; a parallel stream started inside the pool runs on it
+            List<ProviderDayAvailabilityDto> results = availabilitySearchPool.submit(() -> batch.parallelStream()
+                    .flatMap(providerId -> groupByDay(providerId, startDate, days, durationMinutes,
+                            slotGenerator.generate(startDate, days,
+                                    bookingsByProvider.getOrDefault(providerId, List.of()), durationMinutes)))
+                    .toList()).join();
+
+            chunkConsumer.accept(results);
+            emitted += results.size();
+        }
 
-            AppointmentEntity appointment = appointmentRepository.findById(appointmentId)
-                    .orElseThrow(() -> new AppointmentNotFoundException(appointmentId, "Appointment not found"));
+        log.info("Availability search emitted {} provider-days", emitted);
+        return emitted;
+    }
 
-            if (appointment.getStatus() != AppointmentStatus.PENDING) {
-                return AppointmentResponse.error("Only pending appointments can be confirmed", "INVALID_STATUS");
+    // Splits one provider's ascending slot list into a result per day, including days with no free slots
+    private Stream<ProviderDayAvailabilityDto> groupByDay(Long providerId, LocalDate startDate, int days,
+                                                          int durationMinutes, List<LocalDateTime> slots) {
+        List<ProviderDayAvailabilityDto> perDay = new ArrayList<>(days);
+        int next = 0;
+        for (int day = 0; day < days; day++) {
+            LocalDate date = startDate.plusDays(day);
+            int first = next;
+            while (next < slots.size() && slots.get(next).toLocalDate().equals(date)) {
+                next++;
             }
+            perDay.add(ProviderDayAvailabilityDto.builder()
+                    .providerId(providerId)
+                    .date(date)
+                    .durationMinutes(durationMinutes)
+                    .slots(List.copyOf(slots.subList(first, next)))
+                    .build());
+        }
+        return perDay.stream();
+    }
 
-            appointment.setStatus(AppointmentStatus.CONFIRMED);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
-            enrichAppointmentDtoSafely(appointmentDto);
+    @Override
+    public AppointmentResponse confirmAppointment(String appointmentId) {
+        try {
+            log.info("Confirming appointment: {}", appointmentId);
 
-            // ✅ PUBLISH EVENT TO RABBITMQ
-            try {
-                AppointmentEvent event = createAppointmentEvent(appointmentDto, "APPOINTMENT_CONFIRMED");
-                appointmentEventProducer.publishAppointmentConfirmed(event);
-                log.info("Published APPOINTMENT_CONFIRMED event for appointment ID: {}", appointmentId);
-            } catch (Exception e) {
-                log.warn("Failed to publish appointment confirmed event: {}", e.getMessage());
+            StatusChange change = StatusChange.of(AppointmentTransition.CONFIRM);
+            Optional<Transitioned> confirmed = applyTransition(
+                    () -> appointmentRepository.transition(appointmentId, null, change),
+                    change, dto -> createAppointmentEvent(dto, "APPOINTMENT_CONFIRMED"));
+            if (confirmed.isEmpty()) {
+                return rejectTransition(appointmentId, "Only pending appointments can be confirmed");
             }
+            recordTransition(confirmed.get());
+            AppointmentDto appointmentDto = toTransitionDto(confirmed.get().appointment());
 
             log.info("Successfully confirmed appointment: {}", appointmentId);
             return AppointmentResponse.success("Appointment confirmed successfully", appointmentDto);
@@ -355,27 +467,18 @@ public class AppointmentServiceImpl implements AppointmentService {
         try {
             log.info("Confirming appointment by token");
 
-            AppointmentEntity appointment = appointmentRepository.findByConfirmationToken(confirmationToken)
-                    .orElseThrow(() -> new AppointmentNotFoundException("Invalid confirmation token", "Token not found"));
-
-            if (appointment.getStatus() != AppointmentStatus.PENDING) {
+            StatusChange change = StatusChange.of(AppointmentTransition.CONFIRM);
+            Optional<Transitioned> confirmed = applyTransition(
+                    () -> appointmentRepository.transitionByConfirmationToken(confirmationToken, change),
+                    change, dto -> createAppointmentEvent(dto, "APPOINTMENT_CONFIRMED"));
+            if (confirmed.isEmpty()) {
+                if (appointmentRepository.findByConfirmationToken(confirmationToken).isEmpty()) {
+                    throw new AppointmentNotFoundException("Invalid confirmation token", "Token not found");
+                }
                 return AppointmentResponse.error("Appointment is already confirmed or cancelled", "INVALID_STATUS");
             }
-
-            appointment.setStatus(AppointmentStatus.CONFIRMED);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
-            enrichAppointmentDtoSafely(appointmentDto);
-
-            // ✅ PUBLISH EVENT TO RABBITMQ
-            try {
-                AppointmentEvent event = createAppointmentEvent(appointmentDto, "APPOINTMENT_CONFIRMED");
-                appointmentEventProducer.publishAppointmentConfirmed(event);
-                log.info("Published APPOINTMENT_CONFIRMED event for token confirmation");
-            } catch (Exception e) {
-                log.warn("Failed to publish appointment confirmed event: {}", e.getMessage());
-            }
+            recordTransition(confirmed.get());
+            AppointmentDto appointmentDto = toTransitionDto(confirmed.get().appointment());
 
             return AppointmentResponse.success("Appointment confirmed successfully", appointmentDto);
 
@@ -392,30 +495,19 @@ public class AppointmentServiceImpl implements AppointmentService {
         try {
             log.info("Cancelling appointment: {} with reason: {}", appointmentId, cancellationReason);
 
-            AppointmentEntity appointment = appointmentRepository.findById(appointmentId)
-                    .orElseThrow(() -> new AppointmentNotFoundException(appointmentId, "Appointment not found"));
-
-            if (appointment.getStatus() == AppointmentStatus.CANCELLED ||
-                    appointment.getStatus() == AppointmentStatus.COMPLETED) {
-                return AppointmentResponse.error("Cannot cancel completed or already cancelled appointment", "INVALID_STATUS");
-            }
-
-            appointment.setStatus(AppointmentStatus.CANCELLED);
-            appointment.setCancellationReason(cancellationReason);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
-            enrichAppointmentDtoSafely(appointmentDto);
-
-            // ✅ PUBLISH EVENT TO RABBITMQ
-            try {
-                AppointmentEvent event = createAppointmentEvent(appointmentDto, "APPOINTMENT_CANCELLED");
-                event.setCancellationReason(cancellationReason);
-                appointmentEventProducer.publishAppointmentCancelled(event);
-                log.info("Published APPOINTMENT_CANCELLED event for appointment ID: {}", appointmentId);
-            } catch (Exception e) {
-                log.warn("Failed to publish appointment cancelled event: {}", e.getMessage());
+            StatusChange change = StatusChange.of(AppointmentTransition.CANCEL).withCancellationReason(cancellationReason);
+            Optional<Transitioned> cancelled = applyTransition(
+                    () -> appointmentRepository.transition(appointmentId, null, change),
+                    change, dto -> {
+                        AppointmentEvent event = createAppointmentEvent(dto, "APPOINTMENT_CANCELLED");
+                        event.setCancellationReason(cancellationReason);
+                        return event;
+                    });
+            if (cancelled.isEmpty()) {
+                return rejectTransition(appointmentId, "Cannot cancel completed or already cancelled appointment");
             }
+            recordTransition(cancelled.get());
+            AppointmentDto appointmentDto = toTransitionDto(cancelled.get().appointment());
 
             log.info("Successfully cancelled appointment: {}", appointmentId);
             return AppointmentResponse.success("Appointment cancelled successfully", appointmentDto);
@@ -433,11 +525,11 @@ public class AppointmentServiceImpl implements AppointmentService {
         try {
             log.info("Rescheduling appointment: {} to {}", appointmentId, newDateTime);
 
+            // Read first: the reservation needs the provider, the duration and the time currently held
             AppointmentEntity appointment = appointmentRepository.findById(appointmentId)
                     .orElseThrow(() -> new AppointmentNotFoundException(appointmentId, "Appointment not found"));
 
-            if (appointment.getStatus() == AppointmentStatus.COMPLETED ||
-                    appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            if (!AppointmentTransition.RESCHEDULE.allowedFrom(appointment.getStatus())) {
                 return AppointmentResponse.error("Cannot reschedule completed or cancelled appointment", "INVALID_STATUS");
             }
 
@@ -446,27 +538,49 @@ public class AppointmentServiceImpl implements AppointmentService {
             }
 
             LocalDateTime newEndTime = newDateTime.plusMinutes(appointment.getDurationMinutes());
-            if (hasConflictingAppointment(String.valueOf(appointment.getProviderId()), newDateTime, newEndTime, appointmentId)) {
+            BookedInterval requested = new BookedInterval(appointmentId, newDateTime, newEndTime);
+            // The appointment may move onto buckets it already holds
+            BookedInterval held = BookedInterval.isBooked(appointment.getStatus()) ? BookedInterval.of(appointment) : null;
+            Optional<Boolean> reserved = providerDayBitmaps.reserve(appointment.getProviderId(), requested, held);
+            if (reserved.isEmpty()
+                    ? hasConflictAtCommit(appointment.getProviderId(), newDateTime, newEndTime, appointmentId)
+                    : !reserved.get()) {
                 return AppointmentResponse.error("Provider has a conflicting appointment at the new time", "TIME_CONFLICT");
             }
+            boolean bitmapsReserved = reserved.orElse(false);
 
+            // The write only applies if status and start time are still those the reservation was made for
             LocalDateTime oldDateTime = appointment.getAppointmentDateTime();
-            appointment.setAppointmentDateTime(newDateTime);
-            appointment.setStatus(AppointmentStatus.RESCHEDULED);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
-            enrichAppointmentDtoSafely(appointmentDto);
-
-            // ✅ PUBLISH EVENT TO RABBITMQ
+            StatusChange change = StatusChange.of(AppointmentTransition.RESCHEDULE).withTimes(newDateTime, newEndTime);
+            Optional<Transitioned> rescheduled;
             try {
-                AppointmentEvent event = createAppointmentEvent(appointmentDto, "APPOINTMENT_RESCHEDULED");
-                event.setPreviousDateTime(oldDateTime);
-                appointmentEventProducer.publishAppointmentRescheduled(event);
-                log.info("Published APPOINTMENT_RESCHEDULED event for appointment ID: {}", appointmentId);
-            } catch (Exception e) {
-                log.warn("Failed to publish appointment rescheduled event: {}", e.getMessage());
+                rescheduled = applyTransition(
+                        () -> appointmentRepository.transition(appointmentId, oldDateTime, change),
+                        change, dto -> {
+                            AppointmentEvent event = createAppointmentEvent(dto, "APPOINTMENT_RESCHEDULED");
+                            event.setPreviousDateTime(oldDateTime);
+                            return event;
+                        });
+            } catch (RuntimeException e) {
+                if (bitmapsReserved) {
+                    providerDayBitmaps.cancelReservation(appointment.getProviderId(), requested, held);
+                }
+                if (e instanceof DuplicateKeyException) {
+                    return AppointmentResponse.error("Duplicate appointment already exists", "DUPLICATE_APPOINTMENT");
+                }
+                throw e;
+            }
+            if (rescheduled.isEmpty()) {
+                if (bitmapsReserved) {
+                    providerDayBitmaps.cancelReservation(appointment.getProviderId(), requested, held);
+                }
+                return AppointmentResponse.error("Appointment was changed by another request - please retry", "CONCURRENT_MODIFICATION");
+            }
+            if (bitmapsReserved && held != null) {
+                providerDayBitmaps.releaseRemainder(appointment.getProviderId(), held, requested);
             }
+            recordTransition(rescheduled.get(), bitmapsReserved);
+            AppointmentDto appointmentDto = toTransitionDto(rescheduled.get().appointment());
 
             log.info("Successfully rescheduled appointment: {} to {}", appointmentId, newDateTime);
             return AppointmentResponse.success("Appointment rescheduled successfully", appointmentDto);
@@ -484,28 +598,15 @@ public class AppointmentServiceImpl implements AppointmentService {
         try {
             log.info("Completing appointment: {}", appointmentId);
 
-            AppointmentEntity appointment = appointmentRepository.findById(appointmentId)
-                    .orElseThrow(() -> new AppointmentNotFoundException(appointmentId, "Appointment not found"));
-
-            if (appointment.getStatus() != AppointmentStatus.CONFIRMED &&
-                    appointment.getStatus() != AppointmentStatus.RESCHEDULED) {
-                return AppointmentResponse.error("Only confirmed/rescheduled appointments can be marked as completed", "INVALID_STATUS");
-            }
-
-            appointment.setStatus(AppointmentStatus.COMPLETED);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
-            enrichAppointmentDtoSafely(appointmentDto);
-
-            // ✅ PUBLISH EVENT TO RABBITMQ
-            try {
-                AppointmentEvent event = createAppointmentEvent(appointmentDto, "APPOINTMENT_COMPLETED");
-                appointmentEventProducer.publishAppointmentCompleted(event);
-                log.info("Published APPOINTMENT_COMPLETED event for appointment ID: {}", appointmentId);
-            } catch (Exception e) {
-                log.warn("Failed to publish appointment completed event: {}", e.getMessage());
+            StatusChange change = StatusChange.of(AppointmentTransition.COMPLETE);
+            Optional<Transitioned> completed = applyTransition(
+                    () -> appointmentRepository.transition(appointmentId, null, change),
+                    change, dto -> createAppointmentEvent(dto, "APPOINTMENT_COMPLETED"));
+            if (completed.isEmpty()) {
+                return rejectTransition(appointmentId, "Only confirmed/rescheduled appointments can be marked as completed");
             }
+            recordTransition(completed.get());
+            AppointmentDto appointmentDto = toTransitionDto(completed.get().appointment());
 
             log.info("Successfully completed appointment: {}", appointmentId);
             return AppointmentResponse.success("Appointment marked as completed", appointmentDto);
@@ -523,13 +624,14 @@ public class AppointmentServiceImpl implements AppointmentService {
         try {
             log.info("Marking appointment as no-show: {}", appointmentId);
 
-            AppointmentEntity appointment = appointmentRepository.findById(appointmentId)
-                    .orElseThrow(() -> new AppointmentNotFoundException(appointmentId, "Appointment not found"));
-
-            appointment.setStatus(AppointmentStatus.NO_SHOW);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            AppointmentEntity savedAppointment = appointmentRepository.save(appointment);
-            AppointmentDto appointmentDto = appointmentMapper.toDto(savedAppointment);
+            StatusChange change = StatusChange.of(AppointmentTransition.MARK_NO_SHOW);
+            Optional<Transitioned> noShow = applyTransition(
+                    () -> appointmentRepository.transition(appointmentId, null, change), change, null);
+            if (noShow.isEmpty()) {
+                return rejectTransition(appointmentId, "Appointment cannot be marked as no-show");
+            }
+            recordTransition(noShow.get());
+            AppointmentDto appointmentDto = appointmentMapper.toDto(noShow.get().appointment());
 
             log.info("Successfully marked appointment as no-show: {}", appointmentId);
             return AppointmentResponse.success("Appointment marked as no-show", appointmentDto);
@@ -542,6 +644,67 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
     }
 
+    @Override
+    public AppointmentResponse applyBulkLifecycleAction(BulkLifecycleRequest request, Predicate<AppointmentEntity> permitted) {
+        BulkLifecycleRequest.Action action = request.getAction();
+        try {
+            List<String> appointmentIds = request.getAppointmentIds().stream().distinct().toList();
+            log.info("Applying bulk {} to {} appointments", action, appointmentIds.size());
+
+            Map<String, AppointmentEntity> found = new HashMap<>();
+            appointmentRepository.findAllById(appointmentIds).forEach(appointment -> found.put(appointment.getId(), appointment));
+
+            Map<String, BulkOperationResultDto> results = new LinkedHashMap<>();
+            List<AppointmentEntity> eligible = new ArrayList<>();
+            for (String appointmentId : appointmentIds) {
+                AppointmentEntity appointment = found.get(appointmentId);
+                if (appointment == null) {
+                    results.put(appointmentId, BulkOperationResultDto.failed(appointmentId, "APPOINTMENT_NOT_FOUND", "Appointment not found"));
+                } else if (!permitted.test(appointment)) {
+                    results.put(appointmentId, BulkOperationResultDto.failed(appointmentId, "ACCESS_DENIED", "Access denied to modify this appointment"));
+                } else if (!action.transition().allowedFrom(appointment.getStatus())) {
+                    results.put(appointmentId, BulkOperationResultDto.failed(appointmentId, "INVALID_STATUS",
+                            "Cannot apply " + action + " to a " + appointment.getStatus() + " appointment"));
+                } else {
+                    eligible.add(appointment);
+                }
+            }
+
+            StatusChange change = StatusChange.of(action.transition());
+            if (action == BulkLifecycleRequest.Action.CANCEL) {
+                change.withCancellationReason(request.getCancellationReason());
+            }
+            Function<AppointmentDto, AppointmentEvent> toEvent = action.eventType() == null ? null : dto -> {
+                AppointmentEvent event = createAppointmentEvent(dto, action.eventType());
+                if (action == BulkLifecycleRequest.Action.CANCEL) {
+                    event.setCancellationReason(request.getCancellationReason());
+                }
+                return event;
+            };
+
+            List<Transitioned> applied = applyTransitions(eligible, change, toEvent);
+            recordTransitions(applied);
+
+            for (Transitioned transitioned : applied) {
+                AppointmentEntity appointment = transitioned.appointment();
+                results.put(appointment.getId(), BulkOperationResultDto.applied(appointment.getId(), appointment.getStatus()));
+            }
+            // Read as eligible, but changed by another request before the bulk write reached it
+            for (AppointmentEntity appointment : eligible) {
+                results.putIfAbsent(appointment.getId(), BulkOperationResultDto.failed(appointment.getId(),
+                        "CONCURRENT_MODIFICATION", "Appointment was changed by another request - please retry"));
+            }
+
+            List<BulkOperationResultDto> ordered = appointmentIds.stream().map(results::get).toList();
+            log.info("Bulk {} applied to {} of {} appointments", action, applied.size(), appointmentIds.size());
+            return AppointmentResponse.bulk(applied.size() + " of " + appointmentIds.size() + " appointments updated", ordered);
+
+        } catch (Exception e) {
+            log.error("Error applying bulk {}: {}", action, e.getMessage());
+            return AppointmentResponse.error("Failed to apply bulk " + action + ": " + e.getMessage());
+        }
+    }
+
     @Override
     public AppointmentResponse updateAppointment(String appointmentId, AppointmentRequest request) {
         try {
@@ -585,6 +748,7 @@ public class AppointmentServiceImpl implements AppointmentService {
                     .orElseThrow(() -> new AppointmentNotFoundException(appointmentId, "Appointment not found"));
 
             appointmentRepository.delete(appointment);
+            recordTransition(appointment, appointment.getStatus(), null);
 
             log.info("Successfully deleted appointment: {}", appointmentId);
             return AppointmentResponse.success("Appointment deleted successfully");
@@ -601,7 +765,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     public boolean hasConflictingAppointment(String providerId, LocalDateTime startTime,
                                              LocalDateTime endTime, String excludeAppointmentId) {
         try {
-            return appointmentRepository.hasConflictingAppointment(Long.valueOf(providerId), startTime, endTime, excludeAppointmentId);
+            Long provider = Long.valueOf(providerId);
+            // The bitmaps cannot tell an appointment's own buckets apart, so checks that exclude one skip them
+            Optional<Boolean> bitmapAnswer = excludeAppointmentId == null
+                    ? providerDayBitmaps.hasOverlap(provider, startTime, endTime)
+                    : Optional.empty();
+            return bitmapAnswer
+                    .or(() -> providerBookingIndex.hasOverlap(provider, startTime, endTime, excludeAppointmentId))
+                    .orElseGet(() -> appointmentRepository.hasConflictingAppointment(provider, startTime, endTime, excludeAppointmentId));
         } catch (Exception e) {
             log.warn("Error checking appointment conflicts for provider {}: {}", providerId, e.getMessage());
             return false;
@@ -627,11 +798,9 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public void markReminderSent(String appointmentId) {
         try {
-            appointmentRepository.findById(appointmentId).ifPresent(appointment -> {
-                appointment.setReminderSent(true);
-                appointmentRepository.save(appointment);
+            if (appointmentRepository.markRemindersSent(List.of(appointmentId)) > 0) {
                 log.info("Marked reminder as sent for appointment: {}", appointmentId);
-            });
+            }
         } catch (Exception e) {
             log.error("Error marking reminder as sent for appointment {}: {}", appointmentId, e.getMessage());
         }
@@ -642,28 +811,20 @@ public class AppointmentServiceImpl implements AppointmentService {
         try {
             log.info("Retrieving statistics for user: {}", userId);
 
-            String userIdStr = String.valueOf(userId);
-            List<AppointmentEntity> userAppointments = appointmentRepository.findByUserId(Long.valueOf(userIdStr));
-
-            long totalAppointments = userAppointments.size();
-            long completedAppointments = userAppointments.stream()
-                    .filter(apt -> apt.getStatus() == AppointmentStatus.COMPLETED)
-                    .count();
-            long cancelledAppointments = userAppointments.stream()
-                    .filter(apt -> apt.getStatus() == AppointmentStatus.CANCELLED)
-                    .count();
-            long upcomingAppointments = userAppointments.stream()
-                    .filter(apt -> apt.getAppointmentDateTime().isAfter(LocalDateTime.now()) &&
-                            (apt.getStatus() == AppointmentStatus.CONFIRMED ||
-                                    apt.getStatus() == AppointmentStatus.PENDING))
-                    .count();
-
-            AppointmentDto statsDto = new AppointmentDto();
-            statsDto.setId(userIdStr);
-            statsDto.setNotes(String.format("Total: %d, Completed: %d, Cancelled: %d, Upcoming: %d",
-                    totalAppointments, completedAppointments, cancelledAppointments, upcomingAppointments));
-
-            return AppointmentResponse.success("Statistics retrieved successfully", statsDto);
+            LocalDateTime now = LocalDateTime.now();
+            AppointmentStatistics statistics = readCounters(userId, now)
+                    .orElseGet(() -> appointmentRepository.aggregateStatistics(userId, now));
+
+            AppointmentStatisticsDto statisticsDto = AppointmentStatisticsDto.builder()
+                    .userId(userId)
+                    .totalAppointments(statistics.total())
+                    .completedAppointments(statistics.completed())
+                    .cancelledAppointments(statistics.cancelled())
+                    .noShowAppointments(statistics.noShow())
+                    .upcomingAppointments(statistics.upcoming())
+                    .build();
+
+            return AppointmentResponse.statistics("Statistics retrieved successfully", statisticsDto);
 
         } catch (Exception e) {
             log.error("Error retrieving statistics for user {}: {}", userId, e.getMessage());
@@ -679,8 +840,8 @@ public class AppointmentServiceImpl implements AppointmentService {
             List<AppointmentEntity> appointments = appointmentRepository.findAll();
             List<AppointmentDto> enrichedAppointments = appointments.stream()
                     .map(appointmentMapper::toDto)
-                    .peek(this::enrichAppointmentDtoWithFullDetails)
                     .collect(Collectors.toList());
+            enrichAppointmentDtosInBatch(enrichedAppointments, true);
 
             return AppointmentResponse.success(
                     "Retrieved " + enrichedAppointments.size() + " appointments with property details",
@@ -692,6 +853,41 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
     }
 
+    // Reads through a Mongo cursor and enriches one chunk at a time, so heap use depends on the
+    // chunk size rather than the collection size. The next cursor batch is only requested once
+    // the consumer has written the previous chunk, which lets a slow client throttle the read.
+    @Override
+    public long streamAllAppointmentsWithPropertyDetails(Consumer<List<AppointmentDto>> chunkConsumer) {
+        log.info("Streaming all appointments with property details");
+
+        long exported = 0;
+        List<AppointmentDto> chunk = new ArrayList<>(exportChunkSize);
+
+        try (Stream<AppointmentEntity> appointments = appointmentRepository.streamAll(exportCursorBatchSize)) {
+            Iterator<AppointmentEntity> iterator = appointments.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(appointmentMapper.toDto(iterator.next()));
+                if (chunk.size() >= exportChunkSize) {
+                    exported += emitExportChunk(chunk, chunkConsumer);
+                    chunk = new ArrayList<>(exportChunkSize);
+                }
+            }
+            exported += emitExportChunk(chunk, chunkConsumer);
+        }
+
+        log.info("Streamed {} appointments with property details", exported);
+        return exported;
+    }
+
+    private int emitExportChunk(List<AppointmentDto> chunk, Consumer<List<AppointmentDto>> chunkConsumer) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        enrichAppointmentDtosInBatch(chunk, true);
+        chunkConsumer.accept(chunk);
+        return chunk.size();
+    }
+
     @Override
     public AppointmentResponse getAppointmentsByPropertyIdWithDetails(Long propertyId) {
         try {
@@ -726,8 +922,8 @@ public class AppointmentServiceImpl implements AppointmentService {
             List<AppointmentEntity> appointments = appointmentRepository.findByRequesterId(Long.valueOf(requesterIdStr));
             List<AppointmentDto> enrichedAppointments = appointments.stream()
                     .map(appointmentMapper::toDto)
-                    .peek(this::enrichAppointmentDtoWithFullDetails)
                     .collect(Collectors.toList());
+            enrichAppointmentDtosInBatch(enrichedAppointments, true);
 
             return AppointmentResponse.success(
                     "Retrieved " + enrichedAppointments.size() + " appointments for requester with details",
@@ -798,17 +994,7 @@ public class AppointmentServiceImpl implements AppointmentService {
             if (response.isSuccess()) {
                 log.info("Successfully retrieved property data for ID: {}", propertyId);
 
-                PropertyDto propertyDto = new PropertyDto();
-                propertyDto.setId(response.getPropertyId());
-                propertyDto.setTitle(response.getTitle());
-                propertyDto.setDescription(response.getDescription());
-                propertyDto.setRentAmount(response.getRentAmount());
-                propertyDto.setAddress(response.getAddress());
-                propertyDto.setRented(response.isRented());
-                propertyDto.setImage(response.getImage());
-                propertyDto.setImage2(response.getImage2());
-                propertyDto.setImage3(response.getImage3());
-                propertyDto.setImage4(response.getImage4());
+                PropertyDto propertyDto = toPropertyDto(response);
 
                 log.info("Property DTO created - Title: {}, Image: {}", propertyDto.getTitle(), propertyDto.getImage());
                 return propertyDto;
@@ -823,6 +1009,21 @@ public class AppointmentServiceImpl implements AppointmentService {
         return createFallbackProperty(propertyId);
     }
 
+    private PropertyDto toPropertyDto(PropertyServiceResponse response) {
+        PropertyDto propertyDto = new PropertyDto();
+        propertyDto.setId(response.getPropertyId());
+        propertyDto.setTitle(response.getTitle());
+        propertyDto.setDescription(response.getDescription());
+        propertyDto.setRentAmount(response.getRentAmount());
+        propertyDto.setAddress(response.getAddress());
+        propertyDto.setRented(response.isRented());
+        propertyDto.setImage(response.getImage());
+        propertyDto.setImage2(response.getImage2());
+        propertyDto.setImage3(response.getImage3());
+        propertyDto.setImage4(response.getImage4());
+        return propertyDto;
+    }
+
     private UserDto createFallbackUser(Long userId, String username) {
         UserDto fallbackUser = new UserDto();
 
@@ -874,6 +1075,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         appointment.setDescription(request.getDescription());
         appointment.setAppointmentDateTime(request.getAppointmentDateTime());
         appointment.setDurationMinutes(request.getDurationMinutes());
+        appointment.setEndDateTime(request.getAppointmentDateTime().plusMinutes(request.getDurationMinutes()));
         appointment.setStatus(AppointmentStatus.PENDING);
         appointment.setType(request.getType());
         appointment.setPropertyId(request.getPropertyId());
@@ -967,70 +1169,465 @@ public class AppointmentServiceImpl implements AppointmentService {
         dto.setCanReschedule(canRescheduleAppointment(dto.getStatus()));
     }
 
+    // Requester, provider and property lookups run concurrently under one per-request deadline;
+    // a lookup that fails or times out simply leaves its part of the DTO unenriched
     private void enrichAppointmentDtoSafely(AppointmentDto dto) {
         try {
-            UserDto requesterDto = null;
-            if (dto.getRequesterId() != null) {
-                try {
-                    Long requesterIdLong = Long.valueOf(String.valueOf(dto.getRequesterId()));
-                    requesterDto = userServiceClient.getUserById(requesterIdLong);
-                    log.debug("Successfully retrieved requester data for ID: {}", dto.getRequesterId());
-                } catch (Exception e) {
-                    log.debug("Could not fetch requester data by ID for enrichment: {}", e.getMessage());
-                }
+            long deadline = remoteLookupExecutor.deadlineFromNow();
+
+            Future<UserDto> requesterLookup = dto.getRequesterId() != null
+                    ? remoteLookupExecutor.submit(() -> userServiceClient.getUserById(dto.getRequesterId()))
+                    : null;
+            Future<UserDto> providerLookup = dto.getProviderId() != null
+                    ? remoteLookupExecutor.submit(() -> userServiceClient.getUserById(dto.getProviderId()))
+                    : null;
+            Future<PropertyDto> propertyLookup = dto.getPropertyId() != null
+                    ? remoteLookupExecutor.submit(() -> validateAndGetProperty(dto.getPropertyId()))
+                    : null;
+
+            UserDto requesterDto = remoteLookupExecutor.await(requesterLookup, deadline, "requester " + dto.getRequesterId());
+            UserDto providerDto = remoteLookupExecutor.await(providerLookup, deadline, "provider " + dto.getProviderId());
+            PropertyDto propertyDto = remoteLookupExecutor.await(propertyLookup, deadline, "property " + dto.getPropertyId());
+
+            enrichAppointmentDto(dto, requesterDto, providerDto, propertyDto);
+
+        } catch (Exception e) {
+            log.warn("Error during safe enrichment of appointment DTO: {}", e.getMessage());
+        }
+    }
+
+    // ===== KEYSET PAGINATION =====
+    // Repositories are asked for pageSize + 1 rows; the extra row only tells us whether another page exists.
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Enriched rows for the per-user/provider/property views
+    private AppointmentResponse toPageResponse(List<AppointmentEntity> appointments, int pageSize, String description) {
+        List<AppointmentEntity> page = currentPage(appointments, pageSize);
+
+        List<AppointmentDto> appointmentDtos = page.stream()
+                .map(appointmentMapper::toDto)
+                .collect(Collectors.toList());
+        enrichAppointmentDtosInBatch(appointmentDtos, false);
+
+        return AppointmentResponse.success("Retrieved " + appointmentDtos.size() + " " + description,
+                appointmentDtos, nextCursor(appointments, page), pageSize);
+    }
+
+    // Rows for the calendar-style status/type/date-range views - straight from the projected documents,
+    // no remote enrichment
+    private AppointmentResponse toUnenrichedPageResponse(List<AppointmentEntity> appointments, int pageSize, String description) {
+        List<AppointmentEntity> page = currentPage(appointments, pageSize);
+
+        List<AppointmentDto> appointmentDtos = page.stream()
+                .map(appointmentMapper::toDto)
+                .collect(Collectors.toList());
+
+        return AppointmentResponse.success("Retrieved " + appointmentDtos.size() + " " + description,
+                appointmentDtos, nextCursor(appointments, page), pageSize);
+    }
+
+    private List<AppointmentEntity> currentPage(List<AppointmentEntity> appointments, int pageSize) {
+        return appointments.size() > pageSize ? appointments.subList(0, pageSize) : appointments;
+    }
+
+    private String nextCursor(List<AppointmentEntity> appointments, List<AppointmentEntity> page) {
+        boolean hasMore = appointments.size() > page.size();
+        return hasMore ? AppointmentCursor.of(page.get(page.size() - 1)).encode() : null;
+    }
+
+    // ===== BATCH ENRICHMENT =====
+    // List endpoints collect the distinct user/property IDs of the result page, fetch them in
+    // one round trip per service and join them in memory instead of 3 remote calls per row.
+
+    private void enrichAppointmentDtosInBatch(List<AppointmentDto> dtos, boolean useFallbackUsers) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> propertyIds = new LinkedHashSet<>();
+        for (AppointmentDto dto : dtos) {
+            if (dto.getRequesterId() != null) userIds.add(dto.getRequesterId());
+            if (dto.getProviderId() != null) userIds.add(dto.getProviderId());
+            if (dto.getPropertyId() != null) propertyIds.add(dto.getPropertyId());
+        }
+
+        Map<Long, UserDto> usersById = fetchUsersByIds(userIds);
+        Map<Long, PropertyDto> propertiesById = fetchPropertiesByIds(propertyIds);
+
+        for (AppointmentDto dto : dtos) {
+            try {
+                UserDto requesterDto = resolveUser(usersById, dto.getRequesterId(), useFallbackUsers);
+                UserDto providerDto = resolveUser(usersById, dto.getProviderId(), useFallbackUsers);
+                PropertyDto propertyDto = dto.getPropertyId() != null
+                        ? Optional.ofNullable(propertiesById.get(dto.getPropertyId()))
+                                .orElseGet(() -> createFallbackProperty(dto.getPropertyId()))
+                        : null;
+
+                enrichAppointmentDto(dto, requesterDto, providerDto, propertyDto);
+            } catch (Exception e) {
+                log.warn("Error enriching appointment {} from batch lookup: {}", dto.getId(), e.getMessage());
             }
+        }
+    }
 
-            UserDto providerDto = null;
-            if (dto.getProviderId() != null) {
-                try {
-                    Long providerIdLong = Long.valueOf(String.valueOf(dto.getProviderId()));
-                    providerDto = userServiceClient.getUserById(providerIdLong);
-                    log.debug("Successfully retrieved provider data for ID: {}", dto.getProviderId());
-                } catch (Exception e) {
-                    log.debug("Could not fetch provider data by ID for enrichment: {}", e.getMessage());
+    private UserDto resolveUser(Map<Long, UserDto> usersById, Long userId, boolean useFallbackUsers) {
+        if (userId == null) {
+            return null;
+        }
+        UserDto user = usersById.get(userId);
+        if (user == null && useFallbackUsers) {
+            return createFallbackUser(userId, null);
+        }
+        return user;
+    }
+
+    private Map<Long, UserDto> fetchUsersByIds(Collection<Long> userIds) {
+        Map<Long, UserDto> usersById = new HashMap<>();
+        for (List<Long> chunk : chunk(userIds)) {
+            try {
+                List<UserDto> users = userServiceClient.getUsersByIds(chunk);
+                if (users != null) {
+                    users.stream()
+                            .filter(user -> user != null && user.getId() != null)
+                            .forEach(user -> usersById.put(user.getId(), user));
                 }
+                log.debug("Batch retrieved {} of {} users", users != null ? users.size() : 0, chunk.size());
+            } catch (Exception e) {
+                log.warn("Could not batch fetch {} users for enrichment: {}", chunk.size(), e.getMessage());
             }
+        }
+        return usersById;
+    }
 
-            PropertyDto propertyDto = null;
-            if (dto.getPropertyId() != null) {
-                try {
-                    propertyDto = validateAndGetProperty(Long.valueOf(String.valueOf(dto.getPropertyId())));
-                } catch (Exception e) {
-                    log.debug("Could not fetch property data for enrichment: {}", e.getMessage());
+    private Map<Long, PropertyDto> fetchPropertiesByIds(Collection<Long> propertyIds) {
+        Map<Long, PropertyDto> propertiesById = new HashMap<>();
+        for (List<Long> chunk : chunk(propertyIds)) {
+            try {
+                List<PropertyServiceResponse> responses = propertyServiceClient.getPropertiesByIds(chunk);
+                if (responses != null) {
+                    responses.stream()
+                            .filter(response -> response != null && response.isSuccess() && response.getPropertyId() != null)
+                            .forEach(response -> propertiesById.put(response.getPropertyId(), toPropertyDto(response)));
                 }
+                log.debug("Batch retrieved {} of {} properties", propertiesById.size(), chunk.size());
+            } catch (Exception e) {
+                log.warn("Could not batch fetch {} properties for enrichment: {}", chunk.size(), e.getMessage());
             }
+        }
+        return propertiesById;
+    }
 
-            enrichAppointmentDto(dto, requesterDto, providerDto, propertyDto);
+    // Keeps the batch query string bounded for very large result sets
+    private List<List<Long>> chunk(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i += BATCH_LOOKUP_SIZE) {
+            chunks.add(idList.subList(i, Math.min(i + BATCH_LOOKUP_SIZE, idList.size())));
+        }
+        return chunks;
+    }
 
-        } catch (Exception e) {
-            log.warn("Error during safe enrichment of appointment DTO: {}", e.getMessage());
+    // The committed appointment together with the DTO its outbox event was built from
+    private record SavedAppointment(AppointmentEntity appointment, AppointmentDto dto) {
+    }
+
+    // Saves the appointment and inserts its event into the outbox in one Mongo transaction, so OutboxRelay
+    // publishes the event if and only if the write commits. toDto runs inside the transaction and must not
+    // make remote calls - callers that enrich from other services do so beforehand.
+    private SavedAppointment saveWithEvent(AppointmentEntity appointment,
+                                           Function<AppointmentEntity, AppointmentDto> toDto,
+                                           Function<AppointmentDto, AppointmentEvent> toEvent) {
+        return transactionOperations.execute(status -> {
+            AppointmentEntity saved = appointmentRepository.save(appointment);
+            AppointmentDto dto = toDto.apply(saved);
+            outboxEventRepository.insert(OutboxEventEntity.of(toEvent.apply(dto)));
+            return new SavedAppointment(saved, dto);
+        });
+    }
+
+    // A lifecycle transition that Mongo applied: the appointment as it is now, the status and time it held
+    // before, and - if the transition publishes one - the outbox entry and the DTO it was built from
+    private record Transitioned(AppointmentEntity appointment, AppointmentStatus previousStatus,
+                                BookedInterval previousInterval, AppointmentDto eventDto,
+                                OutboxEventEntity outboxEntry) {
+    }
+
+    // Runs the conditional write of a lifecycle transition (one findAndModify, see AppointmentTransition)
+    // and inserts its outbox event in the same transaction. Empty when the appointment is missing or not
+    // in a status the transition may start from; nothing is written then. toEvent == null means the
+    // transition publishes no event.
+    //
+    // The request returns as soon as Mongo commits. The event goes into the outbox on hold with only the
+    // appointment's own fields; the requester, provider and property details are looked up after the
+    // commit on the enrichment executor and written into the held entry, which releases it to the relay.
+    // If the executor is saturated, the lookups fail or the hold runs out first, the event is published
+    // as inserted - consumers already have the IDs to resolve the rest.
+    private Optional<Transitioned> applyTransition(Supplier<Optional<AppointmentEntity>> conditionalWrite,
+                                                   StatusChange change,
+                                                   Function<AppointmentDto, AppointmentEvent> toEvent) {
+        Optional<Transitioned> transitioned = transactionOperations.execute(status -> conditionalWrite.get()
+                .map(before -> {
+                    AppointmentStatus previousStatus = before.getStatus();
+                    BookedInterval previousInterval = before.getAppointmentDateTime() != null
+                            ? BookedInterval.of(before) : null;
+                    change.applyTo(before);
+                    if (toEvent == null) {
+                        return new Transitioned(before, previousStatus, previousInterval, null, null);
+                    }
+
+                    AppointmentDto eventDto = appointmentMapper.toDto(before);
+                    OutboxEventEntity entry = OutboxEventEntity.held(toEvent.apply(eventDto),
+                            Duration.ofMillis(enrichmentHoldMs));
+                    outboxEventRepository.insert(entry);
+                    return new Transitioned(before, previousStatus, previousInterval, eventDto, entry);
+                }));
+
+        transitioned.filter(applied -> applied.outboxEntry() != null)
+                .ifPresent(applied -> enrichAfterCommit(applied.outboxEntry(), applied.eventDto(), toEvent));
+        return transitioned;
+    }
+
+    private void enrichAfterCommit(OutboxEventEntity entry, AppointmentDto eventDto,
+                                   Function<AppointmentDto, AppointmentEvent> toEvent) {
+        boolean accepted = eventEnrichmentExecutor.submit(() -> {
+            enrichAppointmentDtoSafely(eventDto);
+            AppointmentEvent enriched = toEvent.apply(eventDto);
+            enriched.setEventId(entry.getEventId());
+            enriched.setEventTimestamp(entry.getPayload().getEventTimestamp());
+            if (!outboxEventRepository.releaseEnriched(entry.getId(), enriched)) {
+                log.debug("Outbox event {} was relayed before its enrichment finished", entry.getEventId());
+            }
+        });
+        if (!accepted) {
+            log.debug("Enrichment queue full - event {} will be published unenriched", entry.getEventId());
         }
     }
 
-    private void enrichAppointmentDtoWithFullDetails(AppointmentDto dto) {
-        try {
-            PropertyDto propertyDto = null;
-            if (dto.getPropertyId() != null) {
-                propertyDto = validateAndGetProperty(Long.valueOf(String.valueOf(dto.getPropertyId())));
+    // Bulk counterpart of applyTransition for appointments already read and checked: one transitionAll and
+    // one outbox insert for all events, in a single transaction. Returns the transitions Mongo applied;
+    // appointments changed by someone else since they were read are left out. The events are enriched
+    // after the commit as one task, with the user and property lookups batched as for list pages.
+    private List<Transitioned> applyTransitions(List<AppointmentEntity> expected, StatusChange change,
+                                                Function<AppointmentDto, AppointmentEvent> toEvent) {
+        if (expected.isEmpty()) {
+            return List.of();
+        }
+
+        List<Transitioned> transitioned = transactionOperations.execute(status -> {
+            Set<String> appliedIds = appointmentRepository.transitionAll(expected, change);
+            List<Transitioned> applied = new ArrayList<>();
+            for (AppointmentEntity before : expected) {
+                if (!appliedIds.contains(before.getId())) {
+                    continue;
+                }
+                AppointmentStatus previousStatus = before.getStatus();
+                BookedInterval previousInterval = before.getAppointmentDateTime() != null
+                        ? BookedInterval.of(before) : null;
+                change.applyTo(before);
+                if (toEvent == null) {
+                    applied.add(new Transitioned(before, previousStatus, previousInterval, null, null));
+                    continue;
+                }
+
+                AppointmentDto eventDto = appointmentMapper.toDto(before);
+                OutboxEventEntity entry = OutboxEventEntity.held(toEvent.apply(eventDto),
+                        Duration.ofMillis(enrichmentHoldMs));
+                applied.add(new Transitioned(before, previousStatus, previousInterval, eventDto, entry));
+            }
+
+            List<OutboxEventEntity> entries = applied.stream()
+                    .map(Transitioned::outboxEntry)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (!entries.isEmpty()) {
+                outboxEventRepository.insert(entries);
             }
+            return applied;
+        });
+
+        List<Transitioned> withEvents = transitioned.stream()
+                .filter(applied -> applied.outboxEntry() != null)
+                .toList();
+        if (!withEvents.isEmpty()) {
+            enrichAfterCommit(withEvents, toEvent);
+        }
+        return transitioned;
+    }
 
-            UserDto requesterDto = null;
-            if (dto.getRequesterId() != null) {
-                requesterDto = validateAndGetUserById(Long.valueOf(String.valueOf(dto.getRequesterId())));
+    private void enrichAfterCommit(List<Transitioned> withEvents, Function<AppointmentDto, AppointmentEvent> toEvent) {
+        boolean accepted = eventEnrichmentExecutor.submit(() -> {
+            enrichAppointmentDtosInBatch(withEvents.stream().map(Transitioned::eventDto).toList(), false);
+
+            Map<String, AppointmentEvent> payloadsById = new LinkedHashMap<>();
+            for (Transitioned transitioned : withEvents) {
+                OutboxEventEntity entry = transitioned.outboxEntry();
+                AppointmentEvent enriched = toEvent.apply(transitioned.eventDto());
+                enriched.setEventId(entry.getEventId());
+                enriched.setEventTimestamp(entry.getPayload().getEventTimestamp());
+                payloadsById.put(entry.getId(), enriched);
+            }
+            int released = outboxEventRepository.releaseEnriched(payloadsById);
+            if (released < payloadsById.size()) {
+                log.debug("{} of {} outbox events were relayed before their enrichment finished",
+                        payloadsById.size() - released, payloadsById.size());
             }
+        });
+        if (!accepted) {
+            log.debug("Enrichment queue full - {} events will be published unenriched", withEvents.size());
+        }
+    }
+
+    // A transition that matched nothing: distinguishes a missing appointment from one in the wrong status.
+    // Only this failure path pays for the extra read.
+    private AppointmentResponse rejectTransition(String appointmentId, String invalidStatusMessage) {
+        if (!appointmentRepository.existsById(appointmentId)) {
+            throw new AppointmentNotFoundException(appointmentId, "Appointment not found");
+        }
+        return AppointmentResponse.error(invalidStatusMessage, "INVALID_STATUS");
+    }
+
+    // Response body of a lifecycle write: the committed appointment with its calendar and permission
+    // fields, without the remote participant/property details (GET /appointments/{id} has those)
+    private AppointmentDto toTransitionDto(AppointmentEntity appointment) {
+        AppointmentDto dto = appointmentMapper.toDto(appointment);
+        enrichAppointmentDto(dto, null, null, null);
+        return dto;
+    }
 
-            UserDto providerDto = null;
-            if (dto.getProviderId() != null) {
-                providerDto = validateAndGetUserById(Long.valueOf(String.valueOf(dto.getProviderId())));
+    // Mongo is the authority when a booking is committed. A conflict found here usually means the
+    // in-memory index is missing a booking written by another instance, so that provider is reloaded.
+    private boolean hasConflictAtCommit(Long providerId, LocalDateTime startTime, LocalDateTime endTime,
+                                        String excludeAppointmentId) {
+        try {
+            boolean conflict = appointmentRepository.hasConflictingAppointment(providerId, startTime, endTime, excludeAppointmentId);
+            if (conflict) {
+                providerBookingIndex.invalidate(providerId);
             }
+            return conflict;
+        } catch (Exception e) {
+            log.warn("Error checking appointment conflicts for provider {}: {}", providerId, e.getMessage());
+            return false;
+        }
+    }
 
-            enrichAppointmentDto(dto, requesterDto, providerDto, propertyDto);
+    private void recordTransition(AppointmentEntity appointment, AppointmentStatus from, AppointmentStatus to) {
+        BookedInterval interval = appointment.getAppointmentDateTime() != null ? BookedInterval.of(appointment) : null;
+        recordTransition(appointment, interval, from, to, false);
+    }
+
+    private void recordTransition(Transitioned transitioned) {
+        recordTransition(transitioned, false);
+    }
+
+    private void recordTransition(Transitioned transitioned, boolean bitmapsReserved) {
+        AppointmentEntity appointment = transitioned.appointment();
+        recordTransition(appointment, transitioned.previousInterval(), transitioned.previousStatus(),
+                appointment.getStatus(), bitmapsReserved);
+    }
+
+    // Keeps appointment_counters, the provider booking index and the availability bitmaps in step with a
+    // write; from == null is a create, to == null a delete, previousInterval is the time held before the
+    // write. bitmapsReserved means reserve() already moved the bits. A failed counter update must not fail
+    // the transition itself - AppointmentCounterReconciler corrects the drift.
+    private void recordTransition(AppointmentEntity appointment, BookedInterval previousInterval,
+                                  AppointmentStatus from, AppointmentStatus to, boolean bitmapsReserved) {
+        recordBookings(appointment, previousInterval, from, to, bitmapsReserved);
+
+        try {
+            appointmentCounterRepository.applyTransition(appointment.getRequesterId(), appointment.getProviderId(), from, to);
+        } catch (Exception e) {
+            log.warn("Failed to update counters for appointment {} ({} -> {}): {}",
+                    appointment.getId(), from, to, e.getMessage());
+        }
+    }
 
+    // recordTransition for a bulk write: the in-memory index and bitmaps per appointment, the counters of
+    // the whole batch in one bulk round trip
+    private void recordTransitions(List<Transitioned> transitioned) {
+        if (transitioned.isEmpty()) {
+            return;
+        }
+
+        List<AppointmentCounterRepository.Move> moves = new ArrayList<>();
+        for (Transitioned applied : transitioned) {
+            AppointmentEntity appointment = applied.appointment();
+            recordBookings(appointment, applied.previousInterval(), applied.previousStatus(), appointment.getStatus(), false);
+            moves.add(new AppointmentCounterRepository.Move(appointment.getRequesterId(), appointment.getProviderId(),
+                    applied.previousStatus(), appointment.getStatus()));
+        }
+
+        try {
+            appointmentCounterRepository.applyTransitions(moves);
         } catch (Exception e) {
-            log.warn("Error enriching appointment {} with full details: {}", dto.getId(), e.getMessage());
+            log.warn("Failed to update counters for {} appointments: {}", moves.size(), e.getMessage());
         }
     }
 
+    private void recordBookings(AppointmentEntity appointment, BookedInterval previousInterval,
+                                AppointmentStatus from, AppointmentStatus to, boolean bitmapsReserved) {
+        if (to == null) {
+            providerBookingIndex.remove(appointment.getProviderId(), appointment.getId());
+        } else {
+            providerBookingIndex.record(appointment);
+        }
+
+        BookedInterval released = from != null && BookedInterval.isBooked(from) ? previousInterval : null;
+        BookedInterval occupied = to != null && BookedInterval.isBooked(to) && appointment.getAppointmentDateTime() != null
+                ? BookedInterval.of(appointment) : null;
+        if (!bitmapsReserved && !Objects.equals(released, occupied)) {
+            providerDayBitmaps.move(appointment.getProviderId(), released, occupied);
+        }
+    }
+
+    // Statistics from the user's REQUESTER and PROVIDER counter documents, fetched by _id in one query.
+    // The counters only know statuses, so "upcoming" is counted separately with the same definition as the
+    // aggregation. Empty while the counters are not seeded or the user has none, so callers can fall back.
+    private Optional<AppointmentStatistics> readCounters(Long userId, LocalDateTime now) {
+        if (!countersSeeded()) {
+            return Optional.empty();
+        }
+
+        List<AppointmentCounterEntity> counters = appointmentCounterRepository.findAllById(List.of(
+                AppointmentCounterEntity.idFor(userId, AppointmentCounterEntity.Role.REQUESTER),
+                AppointmentCounterEntity.idFor(userId, AppointmentCounterEntity.Role.PROVIDER)));
+        if (counters.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long total = 0, completed = 0, cancelled = 0, noShow = 0;
+        for (AppointmentCounterEntity counter : counters) {
+            total += counter.getTotal();
+            completed += counter.count(AppointmentStatus.COMPLETED);
+            cancelled += counter.count(AppointmentStatus.CANCELLED);
+            noShow += counter.count(AppointmentStatus.NO_SHOW);
+        }
+        long upcoming = appointmentRepository.countUpcoming(userId, now);
+        return Optional.of(new AppointmentStatistics(total, completed, cancelled, noShow, upcoming));
+    }
+
+    private boolean countersSeeded() {
+        if (countersSeeded) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - nextCounterSeedCheck >= 0) {
+            nextCounterSeedCheck = now + COUNTER_SEED_RECHECK_NANOS;
+            try {
+                countersSeeded = appointmentCounterRepository.isSeeded();
+            } catch (Exception e) {
+                log.debug("Could not check appointment counter seeding: {}", e.getMessage());
+            }
+        }
+        return countersSeeded;
+    }
+
     private boolean canCancelAppointment(AppointmentStatus status) {
         return status != AppointmentStatus.CANCELLED &&
                 status != AppointmentStatus.COMPLETED &&
@@ -1052,48 +1649,6 @@ public class AppointmentServiceImpl implements AppointmentService {
         return dto;
     }
 
-    private List<LocalDateTime> generateAvailableSlots(LocalDate date,
-                                                       List<AppointmentEntity> existingAppointments,
-                                                       Integer durationMinutes) {
-        List<LocalDateTime> availableSlots = new ArrayList<>();
-
-        LocalDateTime startTime = date.atTime(9, 0);
-        LocalDateTime endTime = date.atTime(17, 0);
-        int slotIntervalMinutes = 30;
-
-        LocalDateTime currentSlot = startTime;
-
-        while (currentSlot.plusMinutes(durationMinutes).isBefore(endTime) ||
-                currentSlot.plusMinutes(durationMinutes).isEqual(endTime)) {
-
-            LocalDateTime slotEndTime = currentSlot.plusMinutes(durationMinutes);
-            boolean isAvailable = true;
-
-            for (AppointmentEntity appointment : existingAppointments) {
-                if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
-                    continue;
-                }
-
-                LocalDateTime appointmentEnd = appointment.getAppointmentDateTime()
-                        .plusMinutes(appointment.getDurationMinutes());
-
-                if (!(slotEndTime.isBefore(appointment.getAppointmentDateTime()) ||
-                        currentSlot.isAfter(appointmentEnd))) {
-                    isAvailable = false;
-                    break;
-                }
-            }
-
-            if (isAvailable) {
-                availableSlots.add(currentSlot);
-            }
-
-            currentSlot = currentSlot.plusMinutes(slotIntervalMinutes);
-        }
-
-        return availableSlots;
-    }
-
     // ✅ NEW HELPER METHOD: Create AppointmentEvent from AppointmentDto
     private AppointmentEvent createAppointmentEvent(AppointmentDto dto, String eventType) {
         return AppointmentEvent.builder()
@@ -1,17 +1,25 @@
 package com.example.appointmentservice.business.interfaces;
 
 import com.example.appointmentservice.domain.dto.AppointmentDto;
+import com.example.appointmentservice.domain.dto.ProviderDayAvailabilityDto;
 import com.example.appointmentservice.domain.request.AppointmentRequest;
+import com.example.appointmentservice.domain.request.BulkLifecycleRequest;
 import com.example.appointmentservice.domain.response.AppointmentResponse;
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
 import com.example.appointmentservice.persistence.model.AppointmentStatus;
 import com.example.appointmentservice.persistence.model.AppointmentType;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public interface AppointmentService {
 
+    // List methods return one keyset page: pass the previous response's nextCursor to continue,
+    // a null cursor starts from the beginning, and a null limit uses the default page size
+
 
     AppointmentResponse createAppointment(AppointmentRequest request);
 
@@ -19,28 +27,34 @@ public interface AppointmentService {
     AppointmentResponse getAppointmentById(String appointmentId);
 
 
-    AppointmentResponse getAppointmentsByUserId(String userId);
+    AppointmentResponse getAppointmentsByUserId(String userId, String cursor, Integer limit);
 
 
-    AppointmentResponse getAppointmentsByRequesterId(String requesterId);
+    AppointmentResponse getAppointmentsByRequesterId(String requesterId, String cursor, Integer limit);
 
 
-    AppointmentResponse getAppointmentsByProviderId(String providerId);
+    AppointmentResponse getAppointmentsByProviderId(String providerId, String cursor, Integer limit);
 
 
-    AppointmentResponse getAppointmentsByPropertyId(String propertyId);
+    AppointmentResponse getAppointmentsByPropertyId(String propertyId, String cursor, Integer limit);
 
 
-    AppointmentResponse getAppointmentsByStatus(AppointmentStatus status);
+    AppointmentResponse getAppointmentsByStatus(AppointmentStatus status, String cursor, Integer limit);
 
-    AppointmentResponse getAppointmentsByType(AppointmentType type);
+    AppointmentResponse getAppointmentsByType(AppointmentType type, String cursor, Integer limit);
 
 
-    AppointmentResponse getAppointmentsByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    AppointmentResponse getAppointmentsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                   String cursor, Integer limit);
 
 
     AppointmentResponse getAvailableSlots(String providerId, LocalDate date, Integer durationMinutes);
 
+    // Free slots of several providers over [startDate, endDate], handed to the consumer in provider batches
+    // (one entry per provider and day, grouped by provider); returns the number of provider-days emitted
+    int searchAvailability(List<Long> providerIds, LocalDate startDate, LocalDate endDate,
+                           int durationMinutes, Consumer<List<ProviderDayAvailabilityDto>> chunkConsumer);
+
 
     AppointmentResponse confirmAppointment(String appointmentId);
 
@@ -59,6 +73,10 @@ public interface AppointmentService {
 
     AppointmentResponse markAsNoShow(String appointmentId);
 
+    // Applies one lifecycle action to many appointments: they are loaded in one query, checked against
+    // `permitted`, changed with one bulk write, and the response has one result per appointment ID
+    AppointmentResponse applyBulkLifecycleAction(BulkLifecycleRequest request, Predicate<AppointmentEntity> permitted);
+
 
     AppointmentResponse updateAppointment(String appointmentId, AppointmentRequest request);
 
@@ -81,6 +99,8 @@ public interface AppointmentService {
 
     // Add the new methods I created
     AppointmentResponse getAllAppointmentsWithPropertyDetails();
+    // Streaming variant: hands enriched appointments to the consumer in bounded chunks, returns the total count
+    long streamAllAppointmentsWithPropertyDetails(Consumer<List<AppointmentDto>> chunkConsumer);
     AppointmentResponse getAppointmentsByPropertyIdWithDetails(Long propertyId);
     AppointmentResponse getAppointmentsByRequesterIdWithDetails(Long requesterId);
 }
\ No newline at end of file
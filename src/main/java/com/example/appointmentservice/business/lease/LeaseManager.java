@@ -0,0 +1,165 @@
+package com.example.appointmentservice.business.lease;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+import com.example.appointmentservice.persistence.repository.LeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Mongo-backed leases that let a background job run on one replica at a time, or spread its
+// partitions over the replicas. A lease lasts ttl-seconds; while this instance holds it a heartbeat
+// thread extends it every ttl / 3, so a job may run for longer than the TTL. If the instance dies
+// the lease simply expires and the next acquire elsewhere takes it over (with a higher epoch).
+//
+// Clocks of all replicas are assumed to agree to well within the TTL. holds() already treats a lease
+// as lost one renewal interval before it expires, so a job that checks it between units of work
+// stops before another instance can start.
+@Component
+@Slf4j
+public class LeaseManager {
+
+    private final LeaseRepository leaseRepository;
+    private final Duration ttl;
+    private final Duration renewInterval;
+    private final String owner;
+    private final Map<String, LeaseEntity> held = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    public LeaseManager(LeaseRepository leaseRepository,
+                        @Value("${app.leases.ttl-seconds:30}") long ttlSeconds,
+                        @Value("${HOSTNAME:}") String hostname) {
+        this.leaseRepository = leaseRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.renewInterval = ttl.dividedBy(3);
+        String instance = UUID.randomUUID().toString().substring(0, 8);
+        this.owner = hostname.isBlank() ? instance : hostname + "-" + instance;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            // Expired leases stay around for a day so their last owner and epoch remain visible
+            leaseRepository.ensureIndexes(Duration.ofDays(1));
+        } catch (Exception e) {
+            log.warn("Could not ensure lease indexes: {}", e.getMessage());
+        }
+        running = true;
+        Thread.ofVirtual().name("lease-heartbeat").start(this::heartbeat);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    // Whether this instance holds `name` after the call, acquiring it if it is free or expired
+    public boolean acquire(String name) {
+        if (holds(name)) {
+            return true;
+        }
+        if (held.containsKey(name)) {
+            // Still ours but close to expiry - extend it rather than re-acquire, which would bump the epoch
+            renew(name);
+            if (holds(name)) {
+                return true;
+            }
+        }
+        try {
+            Optional<LeaseEntity> lease = leaseRepository.acquire(name, owner, ttl);
+            lease.ifPresentOrElse(acquired -> {
+                held.put(name, acquired);
+                log.info("Acquired lease {} (epoch {})", name, acquired.getEpoch());
+            }, () -> held.remove(name));
+            return lease.isPresent();
+        } catch (Exception e) {
+            log.warn("Could not acquire lease {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    // Acquires up to maxOwned of the partitions "<job>#0" .. "<job>#<partitions-1>" and returns the
+    // indexes this instance now holds. Each instance starts probing at a different partition, so
+    // replicas with the same maxOwned (e.g. ceil(partitions / replicas)) end up sharing the work.
+    public Set<Integer> acquirePartitions(String job, int partitions, int maxOwned) {
+        Set<Integer> owned = new LinkedHashSet<>();
+        int start = Math.floorMod(owner.hashCode(), partitions);
+        for (int i = 0; i < partitions; i++) {
+            int partition = (start + i) % partitions;
+            String name = partitionName(job, partition);
+            if (owned.size() < maxOwned ? acquire(name) : holds(name)) {
+                owned.add(partition);
+            }
+        }
+        return owned;
+    }
+
+    // Held by this instance with more than one renewal interval left
+    public boolean holds(String name) {
+        LeaseEntity lease = held.get(name);
+        return lease != null && lease.getExpiresAt().isAfter(LocalDateTime.now().plus(renewInterval));
+    }
+
+    public void release(String name) {
+        if (held.remove(name) != null) {
+            try {
+                leaseRepository.release(name, owner);
+            } catch (Exception e) {
+                log.warn("Could not release lease {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    // Leases this instance currently believes it holds
+    public Map<String, LeaseEntity> heldLeases() {
+        return Map.copyOf(held);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        held.keySet().forEach(this::release);
+    }
+
+    private void heartbeat() {
+        while (running) {
+            try {
+                Thread.sleep(renewInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            held.keySet().forEach(this::renew);
+        }
+    }
+
+    private void renew(String name) {
+        try {
+            leaseRepository.renew(name, owner, ttl).ifPresentOrElse(
+                    renewed -> held.put(name, renewed),
+                    () -> {
+                        held.remove(name);
+                        log.warn("Lost lease {} - it expired or was taken over before renewal", name);
+                    });
+        } catch (Exception e) {
+            // Keep the local copy: holds() turns false by itself once too little time is left
+            log.warn("Could not renew lease {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static String partitionName(String job, int partition) {
+        return job + "#" + partition;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.appointmentservice.business.lease;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+import com.example.appointmentservice.persistence.repository.LeaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// GET /actuator/leases: every lease in the collection with its owner, epoch and expiry, plus which
+// of them this instance holds
+@Component
+@Endpoint(id = "leases")
+@RequiredArgsConstructor
+public class LeasesEndpoint {
+
+    private final LeaseRepository leaseRepository;
+    private final LeaseManager leaseManager;
+
+    @ReadOperation
+    public Map<String, Object> leases() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> leases = leaseRepository.findAll().stream()
+                .map(lease -> describe(lease, now))
+                .toList();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("instance", leaseManager.owner());
+        body.put("held", leaseManager.heldLeases().keySet());
+        body.put("leases", leases);
+        return body;
+    }
+
+    private Map<String, Object> describe(LeaseEntity lease, LocalDateTime now) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", lease.getName());
+        description.put("owner", lease.getOwner());
+        description.put("epoch", lease.getEpoch());
+        description.put("acquiredAt", lease.getAcquiredAt());
+        description.put("renewedAt", lease.getRenewedAt());
+        description.put("expiresAt", lease.getExpiresAt());
+        description.put("active", lease.getExpiresAt() != null && lease.getExpiresAt().isAfter(now));
+        return description;
+    }
+}
@@ -70,6 +70,7 @@ public class AppointmentMapperDto {
         entity.setDescription(dto.getDescription());
         entity.setAppointmentDateTime(dto.getAppointmentDateTime());
         entity.setDurationMinutes(dto.getDurationMinutes());
+        entity.setEndDateTime(dto.getEndDateTime());
         entity.setStatus(dto.getStatus());
         entity.setType(dto.getType());
         entity.setPropertyId(dto.getPropertyId());
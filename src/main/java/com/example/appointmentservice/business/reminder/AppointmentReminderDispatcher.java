@@ -0,0 +1,208 @@
+package com.example.appointmentservice.business.reminder;
+
+import com.example.appointmentservice.business.lease.LeaseManager;
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.repository.AppointmentCursor;
+import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import com.example.appointmentservice.producer.AppointmentEvent;
+import com.example.appointmentservice.producer.AppointmentEventProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// Sends APPOINTMENT_REMINDER events for CONFIRMED appointments starting within lead-hours.
+// The window [now, now + lead) is walked in time buckets of bucket-minutes, earliest first, and each
+// bucket in keyset pages of batch-size from pending_reminder_idx. A page is handed to the publisher
+// pipeline in one go, its publisher confirms are awaited together, and reminder_sent is set for the
+// confirmed appointments with a single updateMany. Unconfirmed ones keep reminder_sent=false and are
+// picked up again by the next run, so a reminder is sent at least once.
+//
+// reminders.drift records how long after its ideal send time (appointment start - lead) each reminder
+// was confirmed; reminders.throughput is the rate of the last run in reminders per second.
+//
+// Only the replica holding the appointment-reminders lease dispatches; a run stops between pages
+// if the lease is lost, and the new holder continues from the reminders still pending.
+@Component
+@Slf4j
+public class AppointmentReminderDispatcher {
+
+    private static final String REMINDER_EVENT_TYPE = "APPOINTMENT_REMINDER";
+    private static final String LEASE = "appointment-reminders";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentEventProducer producer;
+    private final LeaseManager leaseManager;
+    private final boolean enabled;
+    private final Duration leadTime;
+    private final Duration bucket;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer runTimer;
+    private final DistributionSummary drift;
+    private final AtomicLong throughput = new AtomicLong();
+
+    public AppointmentReminderDispatcher(AppointmentRepository appointmentRepository,
+                                         AppointmentEventProducer producer,
+                                         LeaseManager leaseManager,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.reminders.enabled:true}") boolean enabled,
+                                         @Value("${app.reminders.lead-hours:24}") long leadHours,
+                                         @Value("${app.reminders.bucket-minutes:60}") long bucketMinutes,
+                                         @Value("${app.reminders.batch-size:500}") int batchSize,
+                                         @Value("${app.reminders.confirm-timeout-ms:10000}") long confirmTimeoutMs) {
+        this.appointmentRepository = appointmentRepository;
+        this.producer = producer;
+        this.leaseManager = leaseManager;
+        this.enabled = enabled;
+        this.leadTime = Duration.ofHours(leadHours);
+        this.bucket = Duration.ofMinutes(bucketMinutes);
+        this.batchSize = batchSize;
+        this.confirmTimeout = Duration.ofMillis(confirmTimeoutMs);
+
+        this.sent = Counter.builder("reminders.sent").register(meterRegistry);
+        this.failed = Counter.builder("reminders.failed")
+                .description("Reminders not confirmed by the broker; retried on the next run")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("reminders.run").register(meterRegistry);
+        this.drift = DistributionSummary.builder("reminders.drift")
+                .baseUnit("seconds")
+                .description("Delay between a reminder's ideal send time and its publisher confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("reminders.throughput", throughput, AtomicLong::get)
+                .baseUnit("reminders/s")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.interval-ms:60000}",
+            initialDelayString = "${app.reminders.initial-delay-ms:30000}")
+    public void dispatchDueReminders() {
+        if (!enabled || !leaseManager.acquire(LEASE)) {
+            return;
+        }
+
+        try {
+            dispatch(LocalDateTime.now());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Reminder dispatch failed - will retry on next run: {}", e.getMessage(), e);
+        }
+    }
+
+    // One pass over the reminder window under the lease; returns the number of reminders confirmed and marked sent
+    public int dispatch(LocalDateTime now) throws InterruptedException {
+        long started = System.nanoTime();
+        LocalDateTime horizon = now.plus(leadTime);
+        int dispatched = 0;
+
+        for (LocalDateTime from = now; from.isBefore(horizon) && leaseManager.holds(LEASE); ) {
+            LocalDateTime to = from.plus(bucket).isBefore(horizon) ? from.plus(bucket) : horizon;
+
+            AppointmentCursor after = null;
+            List<AppointmentEntity> page;
+            do {
+                page = appointmentRepository.findPendingReminderPage(from, to, after, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                dispatched += sendBatch(page);
+                after = AppointmentCursor.of(page.get(page.size() - 1));
+            } while (page.size() == batchSize && leaseManager.holds(LEASE));
+
+            from = to;
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        throughput.set(dispatched * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos));
+        if (dispatched > 0) {
+            log.info("Sent {} appointment reminders in {} ms", dispatched, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        return dispatched;
+    }
+
+    private int sendBatch(List<AppointmentEntity> page) throws InterruptedException {
+        Map<AppointmentEntity, CompletableFuture<CorrelationData.Confirm>> inFlight = new LinkedHashMap<>();
+        for (AppointmentEntity appointment : page) {
+            try {
+                AppointmentEvent reminder = reminderEvent(appointment);
+                inFlight.put(appointment, producer.send(reminder, reminder.getEventId()));
+            } catch (Exception e) {
+                log.warn("Could not queue reminder for appointment {}: {}", appointment.getId(), e.getMessage());
+            }
+        }
+
+        List<String> confirmed = new ArrayList<>();
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (Map.Entry<AppointmentEntity, CompletableFuture<CorrelationData.Confirm>> reminder : inFlight.entrySet()) {
+            try {
+                CorrelationData.Confirm confirm = reminder.getValue()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(reminder.getKey().getId());
+                    recordDrift(reminder.getKey());
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log.debug("Reminder for appointment {} not confirmed: {}", reminder.getKey().getId(), e.getMessage());
+            }
+        }
+
+        appointmentRepository.markRemindersSent(confirmed);
+        sent.increment(confirmed.size());
+        failed.increment(page.size() - confirmed.size());
+        return confirmed.size();
+    }
+
+    private void recordDrift(AppointmentEntity appointment) {
+        LocalDateTime idealSendTime = appointment.getAppointmentDateTime().minus(leadTime);
+        drift.record(Math.max(0, Duration.between(idealSendTime, LocalDateTime.now()).toSeconds()));
+    }
+
+    private static AppointmentEvent reminderEvent(AppointmentEntity appointment) {
+        return AppointmentEvent.builder()
+                .eventType(REMINDER_EVENT_TYPE)
+                .eventTimestamp(LocalDateTime.now())
+                .eventId(UUID.randomUUID().toString())
+                .appointmentId(appointment.getId())
+                .appointmentTitle(appointment.getAppointmentTitle())
+                .appointmentDateTime(appointment.getAppointmentDateTime())
+                .durationMinutes(appointment.getDurationMinutes())
+                .status(appointment.getStatus() != null ? appointment.getStatus().toString() : null)
+                .type(appointment.getType() != null ? appointment.getType().toString() : null)
+                .location(appointment.getLocation())
+                .meetingLink(appointment.getMeetingLink())
+                .requesterId(appointment.getRequesterId())
+                .requesterUsername(appointment.getRequesterUsername())
+                .providerId(appointment.getProviderId())
+                .providerName(appointment.getProviderName())
+                .propertyId(appointment.getPropertyId())
+                .propertyTitle(appointment.getPropertyTitle())
+                .propertyAddress(appointment.getPropertyAddress())
+                .build();
+    }
+}
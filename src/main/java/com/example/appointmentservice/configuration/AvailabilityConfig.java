@@ -0,0 +1,20 @@
+package com.example.appointmentservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class AvailabilityConfig {
+
+    // Slot computation for availability searches is pure CPU work; it gets its own pool so a large
+    // search neither starves nor is starved by other users of the common pool
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool availabilitySearchPool(
+            @Value("${app.availability.search.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+            int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.appointmentservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+        return new MongoTransactionManager(mongoDatabaseFactory);
+    }
+
+    // Appointment writes and their outbox entries commit together. Multi-document transactions need a
+    // replica set; against a standalone server (local development) they can be switched off, which
+    // leaves the two inserts back to back without atomicity.
+    @Bean
+    public TransactionOperations appointmentTransactions(
+            MongoTransactionManager transactionManager,
+            @Value("${app.outbox.transactions.enabled:true}") boolean transactionsEnabled) {
+        return transactionsEnabled ? new TransactionTemplate(transactionManager) : TransactionOperations.withoutTransaction();
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.appointmentservice.configuration;
 
 
+import com.example.appointmentservice.producer.EventEncoding;
+import com.example.appointmentservice.producer.ThresholdGZipPostProcessor;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,7 +21,13 @@ public class RabbitMQConfig {
     public static final String APPOINTMENT_QUEUE = "appointment-queue";
     public static final String BOOKING_QUEUE = "booking-queue";
     public static final String APPOINTMENT_ROUTING_KEY = "appointment.key";
+    // Compact, versioned appointment events (CompactAppointmentEvent)
+    public static final String APPOINTMENT_COMPACT_QUEUE = "appointment-compact-queue";
+    public static final String APPOINTMENT_COMPACT_ROUTING_KEY = "appointment.compact.key";
     public static final String BOOKING_ROUTING_KEY = "booking.key";
+    // Each instance gets its own appointment-user-events-<random> queue (see userEventsQueue)
+    public static final String USER_EVENTS_QUEUE_PREFIX = "appointment-user-events-";
+    public static final String USER_UPDATED_ROUTING_KEY = "user.updated";
 
     @Bean
     public DirectExchange appExchange() {
@@ -28,30 +39,71 @@ public class RabbitMQConfig {
         return new Queue(APPOINTMENT_QUEUE);
     }
 
+    @Bean
+    public Queue appointmentCompactQueue() {
+        return new Queue(APPOINTMENT_COMPACT_QUEUE);
+    }
+
     @Bean
     public Queue bookingQueue() {
         return new Queue(BOOKING_QUEUE);
     }
 
+    // Receives user-updated events from the User Service to invalidate cached user profiles. Every instance
+    // has its own cache, so every instance needs every event: a non-durable, exclusive, auto-delete queue per
+    // instance (redeclared on reconnect) instead of one shared queue whose consumers would split the events.
+    @Bean
+    public Queue userEventsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(USER_EVENTS_QUEUE_PREFIX));
+    }
+
     @Bean
     public Binding appointmentBinding(Queue appointmentQueue, DirectExchange appExchange) {
         return BindingBuilder.bind(appointmentQueue).to(appExchange).with(APPOINTMENT_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding appointmentCompactBinding(Queue appointmentCompactQueue, DirectExchange appExchange) {
+        return BindingBuilder.bind(appointmentCompactQueue).to(appExchange).with(APPOINTMENT_COMPACT_ROUTING_KEY);
+    }
+
     @Bean
     public Binding bookingBinding(Queue bookingQueue, DirectExchange appExchange) {
         return BindingBuilder.bind(bookingQueue).to(appExchange).with(BOOKING_ROUTING_KEY);
     }
 
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public Binding userEventsBinding(Queue userEventsQueue, DirectExchange appExchange) {
+        return BindingBuilder.bind(userEventsQueue).to(appExchange).with(USER_UPDATED_ROUTING_KEY);
+    }
+
+    // Writes app.events.encoding and reads whatever encoding an incoming message's content type names
+    @Bean
+    public MessageConverter eventMessageConverter(@Value("${app.events.encoding:JSON}") EventEncoding encoding) {
+        return EventEncoding.negotiating(encoding);
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
+                                         MessageConverter eventMessageConverter,
+                                         @Value("${app.events.compression.enabled:false}") boolean compress,
+                                         @Value("${app.events.compression.threshold-bytes:1024}") int compressionThreshold) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(eventMessageConverter);
+        if (compress) {
+            template.setBeforePublishPostProcessors(new ThresholdGZipPostProcessor(compressionThreshold));
+        }
+        template.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
         return template;
     }
+
+    // Boot's listener factory (and so the MessageConverter above), plus decompression of gzipped bodies
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
+        return factory;
+    }
 }
@@ -44,9 +44,9 @@ public class RestClientConfig {
     }
 
 
-    // User Service Client Bean
+    // User Service HTTP Client Bean - wrapped by CachingUserServiceClient, which is the @Primary UserServiceClient
     @Bean
-    public UserServiceClient userServiceClient() {
+    public UserServiceClient userServiceHttpClient() {
         RestClient restClient = createRestClientWithAuth(userServiceUrl);
         RestClientAdapter adapter = RestClientAdapter.create(restClient);
         HttpServiceProxyFactory factory = HttpServiceProxyFactory.builderFor(adapter).build();
@@ -54,8 +54,9 @@ public class RestClientConfig {
         return factory.createClient(UserServiceClient.class);
     }
 
+    // Property Service HTTP Client Bean - wrapped by CachingPropertyServiceClient, which is the @Primary PropertyServiceClient
     @Bean
-    public PropertyServiceClient propertyServiceClient() {
+    public PropertyServiceClient propertyServiceHttpClient() {
         RestClient restClient = createRestClientWithAuth(propertyServiceUrl);
         RestClientAdapter adapter = RestClientAdapter.create(restClient);
         HttpServiceProxyFactory factory = HttpServiceProxyFactory.builderFor(adapter).build();
@@ -0,0 +1,10 @@
+package com.example.appointmentservice.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background jobs (e.g. AppointmentCounterReconciler)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
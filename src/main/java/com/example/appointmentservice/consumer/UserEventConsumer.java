@@ -0,0 +1,29 @@
+package com.example.appointmentservice.consumer;
+
+import com.example.appointmentservice.business.client.CachingUserServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for user events from the User Service
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventConsumer {
+
+    private final CachingUserServiceClient cachingUserServiceClient;
+
+    /**
+     * Drops the cached profile so the next lookup fetches the updated user
+     */
+    @RabbitListener(queues = "#{userEventsQueue.name}")
+    public void onUserUpdated(UserUpdatedEvent event) {
+        log.info("Received user event: {} for user ID: {}, username: {}",
+                event.getEventType(), event.getUserId(), event.getUsername());
+
+        cachingUserServiceClient.evict(event.getUserId(), event.getUsername());
+    }
+}
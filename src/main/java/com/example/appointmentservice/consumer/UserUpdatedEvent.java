@@ -0,0 +1,27 @@
+package com.example.appointmentservice.consumer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published by the User Service when a user profile changes or is deleted.
+ * Only the identifying fields are needed here - the cached profile is dropped and
+ * reloaded on the next lookup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserUpdatedEvent {
+
+    private String eventType;
+    private LocalDateTime eventTimestamp;
+    private Long userId;
+    private String username;
+}
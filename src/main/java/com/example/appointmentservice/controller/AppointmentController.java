@@ -3,23 +3,32 @@ package com.example.appointmentservice.controller;
 import com.example.appointmentservice.business.client.AppointmentSecurityService;
 import com.example.appointmentservice.business.interfaces.AppointmentService;
 import com.example.appointmentservice.domain.request.AppointmentRequest;
+import com.example.appointmentservice.domain.request.AvailabilitySearchRequest;
+import com.example.appointmentservice.domain.request.BulkLifecycleRequest;
 import com.example.appointmentservice.domain.response.AppointmentResponse;
 import com.example.appointmentservice.persistence.model.AppointmentStatus;
 import com.example.appointmentservice.persistence.model.AppointmentType;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/appointments")
@@ -31,6 +40,10 @@ public class AppointmentController {
 
     private final AppointmentService appointmentService;
     private final AppointmentSecurityService securityService;
+    private final ObjectMapper objectMapper;
+
+    // Longest date range accepted by the availability search
+    private static final int MAX_SEARCH_DAYS = 31;
 
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
@@ -70,7 +83,9 @@ public class AppointmentController {
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> getAppointmentsByUserId(
-            @PathVariable @NotBlank(message = "User ID cannot be blank") String userId) {
+            @PathVariable @NotBlank(message = "User ID cannot be blank") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments for user: {}", userId);
 
         // Check if user can access appointments for this user ID
@@ -80,14 +95,16 @@ public class AppointmentController {
                     .body(AppointmentResponse.error("Access denied to these appointments", "ACCESS_DENIED"));
         }
 
-        AppointmentResponse response = appointmentService.getAppointmentsByUserId(userId);
+        AppointmentResponse response = appointmentService.getAppointmentsByUserId(userId, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/requester/{requesterId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> getAppointmentsByRequesterId(
-            @PathVariable @NotBlank(message = "Requester ID cannot be blank") String requesterId) {
+            @PathVariable @NotBlank(message = "Requester ID cannot be blank") String requesterId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments for requester: {}", requesterId);
 
         // Check if user can access appointments for this requester
@@ -97,14 +114,16 @@ public class AppointmentController {
                     .body(AppointmentResponse.error("Access denied to these appointments", "ACCESS_DENIED"));
         }
 
-        AppointmentResponse response = appointmentService.getAppointmentsByRequesterId(requesterId);
+        AppointmentResponse response = appointmentService.getAppointmentsByRequesterId(requesterId, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/provider/{providerId}")
     @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> getAppointmentsByProviderId(
-            @PathVariable @NotBlank(message = "Provider ID cannot be blank") String providerId) {
+            @PathVariable @NotBlank(message = "Provider ID cannot be blank") String providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments for provider: {}", providerId);
 
 
@@ -114,35 +133,75 @@ public class AppointmentController {
                     .body(AppointmentResponse.error("Access denied to these appointments", "ACCESS_DENIED"));
         }
 
-        AppointmentResponse response = appointmentService.getAppointmentsByProviderId(providerId);
+        AppointmentResponse response = appointmentService.getAppointmentsByProviderId(providerId, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/property/{propertyId}")
     @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> getAppointmentsByPropertyId(
-            @PathVariable @NotBlank(message = "Property ID cannot be blank") String propertyId) {
+            @PathVariable @NotBlank(message = "Property ID cannot be blank") String propertyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments for property: {}", propertyId);
-        AppointmentResponse response = appointmentService.getAppointmentsByPropertyId(propertyId);
+        AppointmentResponse response = appointmentService.getAppointmentsByPropertyId(propertyId, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<AppointmentResponse> getAppointmentsByStatus(@PathVariable AppointmentStatus status) {
+    public ResponseEntity<AppointmentResponse> getAppointmentsByStatus(
+            @PathVariable AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments by status: {}", status);
-        AppointmentResponse response = appointmentService.getAppointmentsByStatus(status);
+        AppointmentResponse response = appointmentService.getAppointmentsByStatus(status, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/type/{type}")
     @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<AppointmentResponse> getAppointmentsByType(@PathVariable AppointmentType type) {
+    public ResponseEntity<AppointmentResponse> getAppointmentsByType(
+            @PathVariable AppointmentType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments by type: {}", type);
-        AppointmentResponse response = appointmentService.getAppointmentsByType(type);
+        AppointmentResponse response = appointmentService.getAppointmentsByType(type, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
+    // Streams every appointment as newline-delimited JSON, one object per line. Each chunk is
+    // flushed as soon as it is written, and blocking writes to a slow client pause the Mongo cursor.
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAppointmentsWithPropertyDetails() {
+        log.info("Received request to export all appointments with property details");
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                appointmentService.streamAllAppointmentsWithPropertyDetails(chunk -> writeNdjson(chunk, outputStream));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeNdjson(List<?> items, OutputStream outputStream) {
+        try {
+            for (Object item : items) {
+                outputStream.write(objectMapper.writeValueAsBytes(item));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/available-slots")
     @PreAuthorize("hasRole('STUDENT') or hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> getAvailableSlots(
@@ -160,6 +219,39 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    // Availability of many providers over a date range in one call, streamed as newline-delimited JSON:
+    // one line per provider and day, grouped by provider, flushed batch by batch as slots are computed
+    @PostMapping("/available-slots/search")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> searchAvailableSlots(@Valid @RequestBody AvailabilitySearchRequest request) {
+        log.info("Received availability search for {} providers from {} to {}",
+                request.getProviderIds().size(), request.getStartDate(), request.getEndDate());
+
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            return ResponseEntity.badRequest().body(AppointmentResponse.error("Start date cannot be in the past"));
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            return ResponseEntity.badRequest().body(AppointmentResponse.error("End date cannot be before start date"));
+        }
+        if (request.getStartDate().plusDays(MAX_SEARCH_DAYS).isBefore(request.getEndDate().plusDays(1))) {
+            return ResponseEntity.badRequest()
+                    .body(AppointmentResponse.error("Date range cannot exceed " + MAX_SEARCH_DAYS + " days"));
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                appointmentService.searchAvailability(request.getProviderIds(), request.getStartDate(),
+                        request.getEndDate(), request.getDurationMinutes(), chunk -> writeNdjson(chunk, outputStream));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PutMapping("/{appointmentId}/confirm")
     @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> confirmAppointment(
@@ -277,6 +369,27 @@ public class AppointmentController {
         }
     }
 
+    // One lifecycle action on up to 200 appointments in a single exchange. Once the batch is processed the
+    // response is 200 with a result per appointment ID, including the ones that could not be changed.
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<AppointmentResponse> applyBulkLifecycleAction(@Valid @RequestBody BulkLifecycleRequest request) {
+        log.info("Received bulk {} request for {} appointments", request.getAction(), request.getAppointmentIds().size());
+
+        // Same rules as the single-appointment endpoints: confirm and cancel need modify access,
+        // complete and no-show need access to the appointment
+        boolean modify = request.getAction() == BulkLifecycleRequest.Action.CONFIRM
+                || request.getAction() == BulkLifecycleRequest.Action.CANCEL;
+        AppointmentResponse response = appointmentService.applyBulkLifecycleAction(request,
+                securityService.appointmentPermission(modify));
+
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @PutMapping("/{appointmentId}")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<AppointmentResponse> updateAppointment(
@@ -351,7 +464,9 @@ public class AppointmentController {
     @PreAuthorize("hasRole('PROPERTY_MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<AppointmentResponse> getAppointmentsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("Received request to get appointments between {} and {}", startDate, endDate);
 
         if (startDate.isAfter(endDate)) {
@@ -359,7 +474,7 @@ public class AppointmentController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
 
-        AppointmentResponse response = appointmentService.getAppointmentsByDateRange(startDate, endDate);
+        AppointmentResponse response = appointmentService.getAppointmentsByDateRange(startDate, endDate, cursor, limit);
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
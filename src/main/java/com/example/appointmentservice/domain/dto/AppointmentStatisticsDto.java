@@ -0,0 +1,21 @@
+package com.example.appointmentservice.domain.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentStatisticsDto {
+
+    private Long userId;
+    private long totalAppointments;
+    private long completedAppointments;
+    private long cancelledAppointments;
+    private long noShowAppointments;
+    private long upcomingAppointments;
+}
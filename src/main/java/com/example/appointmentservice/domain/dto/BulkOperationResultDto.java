@@ -0,0 +1,38 @@
+package com.example.appointmentservice.domain.dto;
+
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome for one appointment of a bulk lifecycle request; status is the new status when it was applied
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationResultDto {
+
+    private String appointmentId;
+    private boolean success;
+    private AppointmentStatus status;
+    private String errorCode;
+    private String message;
+
+    public static BulkOperationResultDto applied(String appointmentId, AppointmentStatus status) {
+        return BulkOperationResultDto.builder()
+                .appointmentId(appointmentId)
+                .success(true)
+                .status(status)
+                .build();
+    }
+
+    public static BulkOperationResultDto failed(String appointmentId, String errorCode, String message) {
+        return BulkOperationResultDto.builder()
+                .appointmentId(appointmentId)
+                .success(false)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+}
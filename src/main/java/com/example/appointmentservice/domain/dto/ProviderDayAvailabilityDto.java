@@ -0,0 +1,23 @@
+package com.example.appointmentservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One line of an availability search: the free slot start times of one provider on one day
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderDayAvailabilityDto {
+
+    private Long providerId;
+    private LocalDate date;
+    private Integer durationMinutes;
+    private List<LocalDateTime> slots;
+}
@@ -0,0 +1,36 @@
+package com.example.appointmentservice.domain.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilitySearchRequest {
+
+    @NotEmpty(message = "At least one provider ID is required")
+    @Size(max = 200, message = "At most 200 providers can be searched at once")
+    private List<@NotNull Long> providerIds;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @NotNull(message = "Duration is required")
+    @Min(value = 15, message = "Appointment duration must be at least 15 minutes")
+    @Max(value = 480, message = "Appointment duration cannot exceed 8 hours")
+    private Integer durationMinutes;
+}
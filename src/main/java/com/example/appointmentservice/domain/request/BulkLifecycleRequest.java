@@ -0,0 +1,55 @@
+package com.example.appointmentservice.domain.request;
+
+import com.example.appointmentservice.persistence.model.AppointmentTransition;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkLifecycleRequest {
+
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    @NotEmpty(message = "At least one appointment ID is required")
+    @Size(max = 200, message = "At most 200 appointments can be changed at once")
+    private List<@NotBlank String> appointmentIds;
+
+    // Only used by CANCEL
+    private String cancellationReason;
+
+    // The lifecycle transitions that can be applied in bulk and the event each one publishes
+    // (NO_SHOW publishes none, like PUT /{id}/no-show); rescheduling needs a new time per appointment
+    public enum Action {
+        CONFIRM(AppointmentTransition.CONFIRM, "APPOINTMENT_CONFIRMED"),
+        CANCEL(AppointmentTransition.CANCEL, "APPOINTMENT_CANCELLED"),
+        COMPLETE(AppointmentTransition.COMPLETE, "APPOINTMENT_COMPLETED"),
+        NO_SHOW(AppointmentTransition.MARK_NO_SHOW, null);
+
+        private final AppointmentTransition transition;
+        private final String eventType;
+
+        Action(AppointmentTransition transition, String eventType) {
+            this.transition = transition;
+            this.eventType = eventType;
+        }
+
+        public AppointmentTransition transition() {
+            return transition;
+        }
+
+        public String eventType() {
+            return eventType;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.example.appointmentservice.domain.response;
 
 
 import com.example.appointmentservice.domain.dto.AppointmentDto;
+import com.example.appointmentservice.domain.dto.AppointmentStatisticsDto;
+import com.example.appointmentservice.domain.dto.BulkOperationResultDto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,11 +23,16 @@ public class AppointmentResponse {
     private String message;
     private AppointmentDto appointment;
     private List<AppointmentDto> appointments;
+    private AppointmentStatisticsDto statistics;
+    private List<BulkOperationResultDto> results;
     private String errorCode;
     private LocalDateTime timestamp;
     private Integer totalCount;
     private Integer pageNumber;
     private Integer pageSize;
+    // Opaque keyset cursor for the next page; null when this is the last page
+    private String nextCursor;
+    private Boolean hasMore;
 
     // Success response with single appointment
     public static AppointmentResponse success(String message, AppointmentDto appointment) {
@@ -62,6 +69,38 @@ public class AppointmentResponse {
         return response;
     }
 
+    // Success response with a keyset page of appointments
+    public static AppointmentResponse success(String message, List<AppointmentDto> appointments,
+                                              String nextCursor, Integer pageSize) {
+        AppointmentResponse response = success(message, appointments);
+        response.setPageSize(pageSize);
+        response.setNextCursor(nextCursor);
+        response.setHasMore(nextCursor != null);
+        return response;
+    }
+
+    // Success response with appointment statistics
+    public static AppointmentResponse statistics(String message, AppointmentStatisticsDto statistics) {
+        AppointmentResponse response = new AppointmentResponse();
+        response.setSuccess(true);
+        response.setMessage(message);
+        response.setStatistics(statistics);
+        response.setTimestamp(LocalDateTime.now());
+        return response;
+    }
+
+    // Per-appointment outcomes of a bulk lifecycle request; success means the batch was processed,
+    // each result says whether its appointment was changed
+    public static AppointmentResponse bulk(String message, List<BulkOperationResultDto> results) {
+        AppointmentResponse response = new AppointmentResponse();
+        response.setSuccess(true);
+        response.setMessage(message);
+        response.setResults(results);
+        response.setTotalCount(results.size());
+        response.setTimestamp(LocalDateTime.now());
+        return response;
+    }
+
     // Success response with just message
     public static AppointmentResponse success(String message) {
         AppointmentResponse response = new AppointmentResponse();
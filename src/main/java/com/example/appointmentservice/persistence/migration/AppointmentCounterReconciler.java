@@ -0,0 +1,84 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.business.lease.LeaseManager;
+import com.example.appointmentservice.persistence.repository.AppointmentCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Periodically rebuilds the appointment_counters collection from the appointments collection.
+// Counters are updated incrementally on every status transition, but a transition whose counter
+// update failed (or writes that bypass the service) leave them off by a few; this job puts them
+// back in line with the source of truth. It runs at a quiet hour by default, only on the replica
+// holding the appointment-counter-reconciliation lease (kept, not released, so a replica whose cron
+// fires a moment later cannot run it a second time). Until the first rebuild has completed the
+// counters are not read at all, so that one is also run at startup instead of waiting for the cron.
+@Component
+@Slf4j
+public class AppointmentCounterReconciler {
+
+    private static final String LEASE = "appointment-counter-reconciliation";
+    private static final Duration SEED_RETRY_INTERVAL = Duration.ofMinutes(1);
+
+    private final AppointmentCounterRepository counterRepository;
+    private final LeaseManager leaseManager;
+    private final boolean enabled;
+
+    public AppointmentCounterReconciler(AppointmentCounterRepository counterRepository,
+                                        LeaseManager leaseManager,
+                                        @Value("${app.statistics.reconciliation.enabled:true}") boolean enabled) {
+        this.counterRepository = counterRepository;
+        this.leaseManager = leaseManager;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("appointment-counter-seed").start(this::seed);
+        }
+    }
+
+    @Scheduled(cron = "${app.statistics.reconciliation.cron:0 30 3 * * *}")
+    public void reconcile() {
+        if (!enabled || !leaseManager.acquire(LEASE)) {
+            return;
+        }
+        rebuild();
+    }
+
+    // Runs the first rebuild on whichever replica gets the lease, retrying a failed one; the others keep
+    // checking until its marker shows up, and take over once the lease expires if the holder dies
+    void seed() {
+        try {
+            while (!counterRepository.isSeeded()) {
+                if (leaseManager.acquire(LEASE) && rebuild()) {
+                    return;
+                }
+                Thread.sleep(SEED_RETRY_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Appointment counter seeding stopped - the scheduled reconciliation will seed them: {}",
+                    e.getMessage(), e);
+        }
+    }
+
+    private boolean rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            int rebuilt = counterRepository.reconcileAll();
+            log.info("Reconciled {} appointment counters in {} ms", rebuilt, System.currentTimeMillis() - started);
+            return true;
+        } catch (Exception e) {
+            log.error("Appointment counter reconciliation failed - will retry on next run: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+}
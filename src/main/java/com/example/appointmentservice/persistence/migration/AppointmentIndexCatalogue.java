@@ -0,0 +1,131 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+
+// The complete index set of the appointments collection. Every index exists for a specific
+// query in AppointmentRepository / AppointmentRepositoryCustom. Indexes found on the collection
+// that are not listed here are dropped by IndexMigrator, so a new query shape needs a new entry.
+// Keys follow equality -> sort -> range order.
+public final class AppointmentIndexCatalogue {
+
+    public static final String COLLECTION = "appointments";
+
+    public static final String DUPLICATE_CHECK_INDEX = "duplicate_check_idx";
+
+    // Statuses that hold a booking for duplicate detection; CANCELLED and NO_SHOW appointments do not
+    // stop the same requester/provider/property/time from being booked again
+    public static final List<String> LIVE_STATUSES = Stream.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED,
+            AppointmentStatus.RESCHEDULED, AppointmentStatus.COMPLETED).map(Enum::name).toList();
+
+    public static final List<IndexDefinition> INDEXES = List.of(
+            // Requester pages, and the requester branch of the per-user $or page
+            new Index().named("requester_date_id_idx")
+                    .on("requester_id", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .background(),
+
+            // Provider pages, and the provider branch of the per-user $or page
+            new Index().named("provider_date_id_idx")
+                    .on("provider_id", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .background(),
+
+            // hasConflictingAppointment / findProviderBookedSlots: provider equality, start range,
+            // then end and status evaluated on index keys without fetching the documents they reject
+            new Index().named("provider_date_end_status_idx")
+                    .on("provider_id", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("end_date_time", Sort.Direction.ASC)
+                    .on("status", Sort.Direction.ASC)
+                    .background(),
+
+            // Property pages
+            new Index().named("property_date_id_idx")
+                    .on("property_id", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .background(),
+
+            // Status pages
+            new Index().named("status_date_id_idx")
+                    .on("status", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .background(),
+
+            // Type pages
+            new Index().named("type_date_id_idx")
+                    .on("type", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .background(),
+
+            // Date-range pages and the full-collection export cursor
+            new Index().named("date_id_idx")
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .background(),
+
+            // findPendingReminders and the keyset pages of findPendingReminderPage, which sort on
+            // (appointment_date_time, _id): only appointments still waiting for a reminder are indexed,
+            // so the index shrinks as reminders go out
+            new Index().named("pending_reminder_idx")
+                    .on("status", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .partial(PartialIndexFilter.of(Criteria.where("reminder_sent").is(false)))
+                    .background(),
+
+            // Duplicate bookings: unique among live appointments, so a concurrent second insert fails with a
+            // duplicate key instead of racing the existsBy... pre-check (which remains for the pre-backfill
+            // path). $in in a partial filter needs MongoDB 6.0+. Existing live duplicates make the build fail;
+            // IndexMigrator reports them and DuplicateBookingResolutionMigration (opt-in) cancels them.
+            new Index().named(DUPLICATE_CHECK_INDEX)
+                    .on("requester_id", Sort.Direction.ASC)
+                    .on("provider_id", Sort.Direction.ASC)
+                    .on("property_id", Sort.Direction.ASC)
+                    .on("appointment_date_time", Sort.Direction.ASC)
+                    .unique()
+                    .partial(PartialIndexFilter.of(Criteria.where("status").in(LIVE_STATUSES)))
+                    .background(),
+
+            // findByConfirmationToken; partial so documents without a token do not collide on null
+            new Index().named("confirmation_token_unique_idx")
+                    .on("confirmation_token", Sort.Direction.ASC)
+                    .unique()
+                    .partial(PartialIndexFilter.of(Criteria.where("confirmation_token").type(2)))
+                    .background()
+    );
+
+    // Groups of live appointments that would violate DUPLICATE_CHECK_INDEX. ids.0 is the one to keep: a
+    // COMPLETED appointment if there is one (it can no longer be cancelled), otherwise the first created.
+    public static List<Document> duplicateBookingsPipeline() {
+        return List.of(
+                new Document("$match", new Document("status", new Document("$in", LIVE_STATUSES))),
+                new Document("$addFields", new Document("completed",
+                        new Document("$eq", List.of("$status", AppointmentStatus.COMPLETED.name())))),
+                new Document("$sort", new Document("completed", -1).append("created_at", 1).append("_id", 1)),
+                new Document("$group", new Document("_id", new Document("requester_id", "$requester_id")
+                        .append("provider_id", "$provider_id")
+                        .append("property_id", "$property_id")
+                        .append("appointment_date_time", "$appointment_date_time"))
+                        .append("ids", new Document("$push", "$_id"))
+                        .append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1))));
+    }
+
+    private AppointmentIndexCatalogue() {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.business.interfaces.AppointmentService;
+import com.example.appointmentservice.business.lease.LeaseManager;
+import com.example.appointmentservice.domain.dto.BulkOperationResultDto;
+import com.example.appointmentservice.domain.request.BulkLifecycleRequest;
+import com.example.appointmentservice.domain.response.AppointmentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+// Opt-in cleanup of the live duplicate bookings that keep IndexMigrator from building duplicate_check_idx.
+// Of each group with the same requester, provider, property and start, the completed or else the first
+// created appointment is kept and the others are cancelled through the regular bulk cancel, so every one gets its transition,
+// APPOINTMENT_CANCELLED outbox event and counter update like a user cancellation. The kept appointment
+// holds the same time, so the availability bitmaps are unaffected. It runs on the replica holding the
+// duplicate-booking-resolution lease and then re-runs the index migration; a group with more than one
+// completed appointment cannot be cancelled this way and is left for manual resolution.
+@Component
+@Slf4j
+public class DuplicateBookingResolutionMigration {
+
+    private static final String CANCELLATION_REASON = "Duplicate booking";
+
+    private static final String LEASE = "duplicate-booking-resolution";
+    private static final int BATCH_SIZE = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentService appointmentService;
+    private final LeaseManager leaseManager;
+    private final IndexMigrator indexMigrator;
+    private final boolean enabled;
+
+    public DuplicateBookingResolutionMigration(MongoTemplate mongoTemplate,
+                                               AppointmentService appointmentService,
+                                               LeaseManager leaseManager,
+                                               IndexMigrator indexMigrator,
+                                               @Value("${app.mongodb.duplicate-resolution.enabled:false}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentService = appointmentService;
+        this.leaseManager = leaseManager;
+        this.indexMigrator = indexMigrator;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("duplicate-booking-resolution").start(this::migrate);
+        }
+    }
+
+    public void migrate() {
+        if (!leaseManager.acquire(LEASE)) {
+            log.info("Duplicate booking resolution is running on another replica");
+            return;
+        }
+        try {
+            List<String> duplicates = new ArrayList<>();
+            for (Document group : mongoTemplate.getCollection(AppointmentIndexCatalogue.COLLECTION)
+                    .aggregate(AppointmentIndexCatalogue.duplicateBookingsPipeline()).allowDiskUse(true)) {
+                List<Object> ids = group.getList("ids", Object.class);
+                ids.subList(1, ids.size()).forEach(id -> duplicates.add(id.toString()));
+            }
+            if (duplicates.isEmpty()) {
+                log.info("No duplicate bookings to resolve");
+                return;
+            }
+
+            int cancelled = 0;
+            for (int from = 0; from < duplicates.size(); from += BATCH_SIZE) {
+                if (!leaseManager.holds(LEASE)) {
+                    log.warn("Lost the {} lease - stopping after cancelling {} duplicate appointments", LEASE, cancelled);
+                    return;
+                }
+                List<String> batch = duplicates.subList(from, Math.min(from + BATCH_SIZE, duplicates.size()));
+                AppointmentResponse response = appointmentService.applyBulkLifecycleAction(BulkLifecycleRequest.builder()
+                        .action(BulkLifecycleRequest.Action.CANCEL)
+                        .appointmentIds(batch)
+                        .cancellationReason(CANCELLATION_REASON)
+                        .build(), appointment -> true);
+                if (!response.isSuccess()) {
+                    log.error("Duplicate booking resolution stopped: {}", response.getMessage());
+                    return;
+                }
+                for (BulkOperationResultDto result : response.getResults()) {
+                    if (result.isSuccess()) {
+                        cancelled++;
+                    } else {
+                        log.warn("Duplicate appointment {} not cancelled: {}", result.getAppointmentId(), result.getMessage());
+                    }
+                }
+            }
+            log.warn("Cancelled {} of {} duplicate appointments", cancelled, duplicates.size());
+
+            indexMigrator.migrate();
+        } catch (Exception e) {
+            log.error("Duplicate booking resolution failed - will retry on next startup: {}", e.getMessage(), e);
+        } finally {
+            leaseManager.release(LEASE);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.business.lease.LeaseManager;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+
+// One-off backfill of end_date_time for appointments written before the field existed.
+// The computation runs server-side as a single pipeline update (start + duration * 60000 ms),
+// and completion is recorded in the schema_migrations collection so later startups skip it.
+// Re-running is harmless: only documents still missing the field are touched. Only the replica holding
+// the end-date-time-backfill lease runs it, and a marker another replica wrote first counts as done.
+@Component
+@Slf4j
+public class EndDateTimeBackfillMigration {
+
+    static final String MIGRATIONS_COLLECTION = "schema_migrations";
+    static final String MIGRATION_ID = "appointments-end-date-time-backfill";
+
+    private static final String LEASE = "end-date-time-backfill";
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaseManager leaseManager;
+    private final boolean enabled;
+
+    public EndDateTimeBackfillMigration(MongoTemplate mongoTemplate,
+                                        LeaseManager leaseManager,
+                                        @Value("${app.mongodb.data-migration.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseManager = leaseManager;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("end-date-time-backfill").start(this::migrate);
+        }
+    }
+
+    public void migrate() {
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MIGRATION_ID)), MIGRATIONS_COLLECTION)) {
+                log.debug("Migration {} already applied", MIGRATION_ID);
+                return;
+            }
+            if (!leaseManager.acquire(LEASE)) {
+                log.info("Migration {} is running on another replica", MIGRATION_ID);
+                return;
+            }
+
+            Query missingEndTime = Query.query(Criteria.where("end_date_time").exists(false)
+                    .and("appointment_date_time").type(Type.dateType())
+                    .and("duration_minutes").type(Type.intType(), Type.longType(), Type.doubleType()));
+
+            AggregationUpdate computeEndTime = AggregationUpdate.update()
+                    .set("end_date_time").toValue(ArithmeticOperators.Add.valueOf("appointment_date_time")
+                            .add(ArithmeticOperators.Multiply.valueOf("duration_minutes").multiplyBy(60_000)));
+
+            long updated = mongoTemplate.updateMulti(missingEndTime, computeEndTime, AppointmentIndexCatalogue.COLLECTION)
+                    .getModifiedCount();
+
+            mongoTemplate.insert(new Document("_id", MIGRATION_ID)
+                    .append("applied_at", new Date())
+                    .append("documents_updated", updated), MIGRATIONS_COLLECTION);
+
+            log.info("Migration {} applied - backfilled end_date_time on {} appointments", MIGRATION_ID, updated);
+        } catch (DuplicateKeyException e) {
+            log.debug("Migration {} already applied by another replica", MIGRATION_ID);
+        } catch (Exception e) {
+            log.error("Migration {} failed - will retry on next startup: {}", MIGRATION_ID, e.getMessage(), e);
+        } finally {
+            leaseManager.release(LEASE);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.business.lease.LeaseManager;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+
+// Brings the appointments collection in line with AppointmentIndexCatalogue once the
+// application is ready. This replaces spring.data.mongodb.auto-index-creation.
+// - Missing indexes are created (background builds on servers that still honour the flag;
+//   4.2+ always uses the non-blocking hybrid build).
+// - Indexes whose keys or options changed are rebuilt.
+// - Indexes not in the catalogue are dropped afterwards, so a replacement always exists first.
+// The migration runs on its own thread and never delays startup or fails the application. Only the
+// replica holding the index-migration lease runs it, so replicas starting together do not race each
+// other's drop/create of the same index; the lease is released when it finishes.
+@Component
+@Slf4j
+public class IndexMigrator {
+
+    private static final String ID_INDEX = "_id_";
+    private static final String LEASE = "index-migration";
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaseManager leaseManager;
+    private final boolean enabled;
+    private final boolean dropUnused;
+
+    public IndexMigrator(MongoTemplate mongoTemplate,
+                         LeaseManager leaseManager,
+                         @Value("${app.mongodb.index-migration.enabled:true}") boolean enabled,
+                         @Value("${app.mongodb.index-migration.drop-unused:true}") boolean dropUnused) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseManager = leaseManager;
+        this.enabled = enabled;
+        this.dropUnused = dropUnused;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Index migration disabled");
+            return;
+        }
+        Thread.ofVirtual().name("index-migrator").start(this::migrate);
+    }
+
+    public void migrate() {
+        if (!leaseManager.acquire(LEASE)) {
+            log.info("Index migration for '{}' is running on another replica", AppointmentIndexCatalogue.COLLECTION);
+            return;
+        }
+        try {
+            migrateIndexes();
+        } finally {
+            leaseManager.release(LEASE);
+        }
+    }
+
+    private void migrateIndexes() {
+        IndexOperations indexOps;
+        Map<String, IndexInfo> existing = new HashMap<>();
+        try {
+            indexOps = mongoTemplate.indexOps(AppointmentIndexCatalogue.COLLECTION);
+            indexOps.getIndexInfo().forEach(info -> existing.put(info.getName(), info));
+        } catch (Exception e) {
+            log.error("Index migration for '{}' failed: {}", AppointmentIndexCatalogue.COLLECTION, e.getMessage(), e);
+            return;
+        }
+
+        // Each index is migrated on its own: one that fails (e.g. a unique index over existing duplicates)
+        // is logged and left for the next start, the others still go ahead
+        List<String> created = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (IndexDefinition definition : AppointmentIndexCatalogue.INDEXES) {
+            String name = nameOf(definition);
+            try {
+                if (migrate(indexOps, existing, definition)) {
+                    created.add(name);
+                }
+            } catch (Exception e) {
+                failed.add(name);
+                log.error("Could not create index {} on '{}': {}", name, AppointmentIndexCatalogue.COLLECTION, e.getMessage(), e);
+            }
+        }
+
+        List<String> dropped = new ArrayList<>();
+        if (dropUnused) {
+            Set<String> catalogued = AppointmentIndexCatalogue.INDEXES.stream()
+                    .map(IndexMigrator::nameOf)
+                    .collect(Collectors.toSet());
+            List<IndexInfo> current;
+            try {
+                current = indexOps.getIndexInfo();
+            } catch (Exception e) {
+                log.error("Could not list indexes of '{}': {}", AppointmentIndexCatalogue.COLLECTION, e.getMessage(), e);
+                current = List.of();
+            }
+            for (IndexInfo info : current) {
+                if (ID_INDEX.equals(info.getName()) || catalogued.contains(info.getName())) {
+                    continue;
+                }
+                try {
+                    indexOps.dropIndex(info.getName());
+                    dropped.add(info.getName());
+                } catch (Exception e) {
+                    log.error("Could not drop index {} on '{}': {}", info.getName(), AppointmentIndexCatalogue.COLLECTION, e.getMessage(), e);
+                }
+            }
+        }
+
+        log.info("Index migration for '{}' finished - created: {}, dropped: {}, failed: {}",
+                AppointmentIndexCatalogue.COLLECTION, created, dropped, failed);
+    }
+
+    // Creates or rebuilds one catalogued index; returns false if it was already up to date
+    private boolean migrate(IndexOperations indexOps, Map<String, IndexInfo> existing, IndexDefinition definition) {
+        String name = nameOf(definition);
+        IndexInfo current = existing.get(name);
+
+        if (current != null && matches(current, definition)) {
+            return false;
+        }
+        if (current != null) {
+            log.info("Index {} changed - rebuilding", name);
+            indexOps.dropIndex(name);
+            existing.remove(name);
+        }
+        // An uncatalogued index on the same keys would make the create fail
+        List<String> sameKeys = existing.values().stream()
+                .filter(info -> !ID_INDEX.equals(info.getName()))
+                .filter(info -> keysOf(info).equals(keysOf(definition)))
+                .map(IndexInfo::getName)
+                .toList();
+        for (String superseded : sameKeys) {
+            log.info("Dropping index {} - superseded by {}", superseded, name);
+            indexOps.dropIndex(superseded);
+            existing.remove(superseded);
+        }
+
+        if (AppointmentIndexCatalogue.DUPLICATE_CHECK_INDEX.equals(name)) {
+            reportDuplicateBookings();
+        }
+        indexOps.ensureIndex(definition);
+        return true;
+    }
+
+    // The unique duplicate_check_idx cannot be built while live duplicates exist. They are only reported
+    // here - the build then fails and is retried on the next start; cancelling them is left to the opt-in
+    // DuplicateBookingResolutionMigration (app.mongodb.duplicate-resolution.enabled).
+    private void reportDuplicateBookings() {
+        int groups = 0;
+        for (Document group : mongoTemplate.getCollection(AppointmentIndexCatalogue.COLLECTION)
+                .aggregate(AppointmentIndexCatalogue.duplicateBookingsPipeline()).allowDiskUse(true)) {
+            groups++;
+            log.warn("Duplicate live appointments {} for {}", group.getList("ids", Object.class),
+                    group.get("_id", Document.class).toJson());
+        }
+        if (groups > 0) {
+            log.error("{} groups of duplicate live appointments block {} - resolve them or enable "
+                    + "app.mongodb.duplicate-resolution.enabled", groups, AppointmentIndexCatalogue.DUPLICATE_CHECK_INDEX);
+        }
+    }
+
+    private static String nameOf(IndexDefinition definition) {
+        return (String) definition.getIndexOptions().get("name");
+    }
+
+    static boolean matches(IndexInfo current, IndexDefinition definition) {
+        Document options = definition.getIndexOptions();
+        boolean unique = Boolean.TRUE.equals(options.get("unique"));
+        boolean sparse = Boolean.TRUE.equals(options.get("sparse"));
+        Optional<Long> expireAfterSeconds = Optional.ofNullable((Number) options.get("expireAfterSeconds"))
+                .map(Number::longValue);
+
+        return keysOf(current).equals(keysOf(definition))
+                && current.isUnique() == unique
+                && current.isSparse() == sparse
+                && current.getExpireAfter().map(Duration::getSeconds).equals(expireAfterSeconds)
+                && Objects.equals(partialFilterOf(current), partialFilterOf(definition));
+    }
+
+    // Both sides go through extended JSON, so a filter read back from the server (numbers as Int32/Int64,
+    // arrays as ArrayList) compares equal to the one built by the catalogue; Document equality ignores key order
+    private static Document partialFilterOf(IndexInfo info) {
+        String filter = info.getPartialFilterExpression();
+        return filter == null ? null : Document.parse(filter);
+    }
+
+    private static Document partialFilterOf(IndexDefinition definition) {
+        Document filter = definition.getIndexOptions().get("partialFilterExpression", Document.class);
+        return filter == null ? null : Document.parse(filter.toJson());
+    }
+
+    // Ordered "field:direction" list - key order matters for compound indexes
+    private static List<String> keysOf(IndexDefinition definition) {
+        List<String> keys = new ArrayList<>();
+        definition.getIndexKeys().forEach((key, direction) -> keys.add(key + ":" + ((Number) direction).intValue()));
+        return keys;
+    }
+
+    private static List<String> keysOf(IndexInfo info) {
+        List<String> keys = new ArrayList<>();
+        for (IndexField field : info.getIndexFields()) {
+            keys.add(field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1));
+        }
+        return keys;
+    }
+}
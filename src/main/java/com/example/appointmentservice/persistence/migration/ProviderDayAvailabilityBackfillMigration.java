@@ -0,0 +1,71 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.persistence.repository.ProviderDayAvailabilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static com.example.appointmentservice.persistence.migration.EndDateTimeBackfillMigration.MIGRATIONS_COLLECTION;
+import static com.example.appointmentservice.persistence.repository.ProviderDayAvailabilityRepositoryCustom.BACKFILL_MIGRATION_ID;
+
+
+// One-off build of provider_day_availability from the bookings that existed before the bitmaps did.
+// Every provider-day from yesterday on is rebuilt from a fresh query of its bookings (see
+// ProviderDayAvailabilityReconciler), so a booking cancelled while the backfill runs is not written
+// back. Nothing reserves before the marker exists, so days are rebuilt without waiting for them to
+// settle; a day that loses to a concurrent live write is left to the repair pass. Completion is
+// recorded in schema_migrations, which is what lets ProviderDayBitmaps start answering reads.
+@Component
+@Slf4j
+public class ProviderDayAvailabilityBackfillMigration {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProviderDayAvailabilityRepository availabilityRepository;
+    private final ProviderDayAvailabilityReconciler reconciler;
+    private final boolean enabled;
+
+    public ProviderDayAvailabilityBackfillMigration(MongoTemplate mongoTemplate,
+                                                    ProviderDayAvailabilityRepository availabilityRepository,
+                                                    ProviderDayAvailabilityReconciler reconciler,
+                                                    @Value("${app.mongodb.data-migration.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.availabilityRepository = availabilityRepository;
+        this.reconciler = reconciler;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("provider-day-availability-backfill").start(this::migrate);
+        }
+    }
+
+    public void migrate() {
+        try {
+            if (availabilityRepository.isBackfilled()) {
+                log.debug("Migration {} already applied", BACKFILL_MIGRATION_ID);
+                return;
+            }
+
+            int deferred = reconciler.rebuildFrom(LocalDate.now().minusDays(1), Duration.ZERO, () -> true);
+
+            mongoTemplate.insert(new Document("_id", BACKFILL_MIGRATION_ID)
+                    .append("applied_at", new Date())
+                    .append("days_deferred", deferred), MIGRATIONS_COLLECTION);
+
+            log.info("Migration {} applied - availability bitmaps rebuilt from bookings, {} days deferred to the repair pass",
+                    BACKFILL_MIGRATION_ID, deferred);
+        } catch (Exception e) {
+            log.error("Migration {} failed - will retry on next startup: {}", BACKFILL_MIGRATION_ID, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.business.availability.AvailabilityBitmap;
+import com.example.appointmentservice.business.availability.BookedInterval;
+import com.example.appointmentservice.business.availability.ProviderDayBitmaps;
+import com.example.appointmentservice.business.availability.ProviderDayBitmaps.ProviderDay;
+import com.example.appointmentservice.business.lease.LeaseManager;
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import com.example.appointmentservice.persistence.model.ProviderDayAvailabilityEntity;
+import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+
+// Keeps provider_day_availability in line with the appointments collection. A live bitmap update can
+// fail after its appointment was saved, and writes that bypass the service never reach the bitmaps, so
+// every provider-day from yesterday on is rebuilt from its bookings at a quiet hour, on the replica
+// holding the provider-day-availability-rebuild lease (kept, not released, like the counter
+// reconciliation's). Days whose live update failed on this instance are repaired sooner by the repair
+// pass; each day is a compare-and-set, so that needs no lease.
+@Component
+@Slf4j
+public class ProviderDayAvailabilityReconciler {
+
+    private static final String LEASE = "provider-day-availability-rebuild";
+    private static final int CURSOR_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProviderDayBitmaps providerDayBitmaps;
+    private final LeaseManager leaseManager;
+    private final boolean enabled;
+
+    public ProviderDayAvailabilityReconciler(MongoTemplate mongoTemplate,
+                                             ProviderDayBitmaps providerDayBitmaps,
+                                             LeaseManager leaseManager,
+                                             @Value("${app.availability.reconciliation.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.providerDayBitmaps = providerDayBitmaps;
+        this.leaseManager = leaseManager;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability.repair.interval-ms:60000}")
+    public void repairFailedUpdates() {
+        if (!enabled) {
+            return;
+        }
+        int pending = providerDayBitmaps.rebuildPending();
+        if (pending > 0) {
+            log.debug("{} availability bitmap days still waiting for a rebuild", pending);
+        }
+    }
+
+    @Scheduled(cron = "${app.availability.reconciliation.cron:0 0 4 * * *}")
+    public void reconcile() {
+        if (!enabled || !leaseManager.acquire(LEASE)) {
+            return;
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            int deferred = rebuildFrom(LocalDate.now().minusDays(1), null, () -> leaseManager.holds(LEASE));
+            log.info("Reconciled availability bitmaps in {} ms, {} days deferred to the repair pass",
+                    System.currentTimeMillis() - started, deferred);
+        } catch (Exception e) {
+            log.error("Availability bitmap reconciliation failed - will retry on next run: {}", e.getMessage(), e);
+        }
+    }
+
+    // Rebuilds every provider-day from `from` on that has a bitmap document or a booking, until keepGoing
+    // turns false. A null settleTime uses ProviderDayBitmaps' default for days live traffic may be writing.
+    // Returns the number of days not rebuilt; the ones attempted are queued for the repair pass.
+    public int rebuildFrom(LocalDate from, Duration settleTime, BooleanSupplier keepGoing) {
+        Set<ProviderDay> days = new LinkedHashSet<>();
+
+        Query stored = Query.query(Criteria.where("date").gte(from)).cursorBatchSize(CURSOR_BATCH_SIZE);
+        stored.fields().include("providerId", "date");
+        try (Stream<ProviderDayAvailabilityEntity> documents = mongoTemplate.stream(stored, ProviderDayAvailabilityEntity.class)) {
+            documents.forEach(day -> days.add(new ProviderDay(day.getProviderId(), day.getDate())));
+        }
+
+        Query booked = Query.query(Criteria.where("appointmentDateTime")
+                        .gte(from.atStartOfDay().minus(AppointmentRepository.MAX_APPOINTMENT_DURATION))
+                        .and("status").nin(AppointmentStatus.CANCELLED, AppointmentStatus.NO_SHOW))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+        booked.fields().include("id", "providerId", "appointmentDateTime", "endDateTime", "durationMinutes");
+        try (Stream<AppointmentEntity> appointments = mongoTemplate.stream(booked, AppointmentEntity.class)) {
+            for (AppointmentEntity appointment : (Iterable<AppointmentEntity>) appointments::iterator) {
+                if (appointment.getProviderId() == null || appointment.getAppointmentDateTime() == null) {
+                    continue;
+                }
+                BookedInterval interval = BookedInterval.of(appointment);
+                for (LocalDate day : AvailabilityBitmap.masksByDay(interval.start(), interval.end()).keySet()) {
+                    if (!day.isBefore(from)) {
+                        days.add(new ProviderDay(appointment.getProviderId(), day));
+                    }
+                }
+            }
+        }
+
+        int notRebuilt = 0;
+        int attempted = 0;
+        for (ProviderDay day : days) {
+            if (!keepGoing.getAsBoolean()) {
+                log.warn("Stopped rebuilding availability bitmaps with {} of {} days left", days.size() - attempted, days.size());
+                return notRebuilt + days.size() - attempted;
+            }
+            attempted++;
+            boolean rebuilt = settleTime == null
+                    ? providerDayBitmaps.rebuild(day.providerId(), day.date())
+                    : providerDayBitmaps.rebuild(day.providerId(), day.date(), settleTime);
+            if (!rebuilt) {
+                notRebuilt++;
+            }
+        }
+        return notRebuilt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.appointmentservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Running appointment counts for one user in one role, keyed "<userId>:<ROLE>".
+// Maintained with $inc on every status transition (see AppointmentCounterRepositoryCustom)
+// and periodically rebuilt from the appointments collection to correct drift.
+@Document(collection = "appointment_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentCounterEntity {
+
+    public enum Role {
+        REQUESTER, PROVIDER
+    }
+
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private Long userId;
+
+    @Field("role")
+    private Role role;
+
+    @Field("total")
+    private long total;
+
+    // AppointmentStatus name -> number of this user's appointments currently in that status
+    @Field("status_counts")
+    @Builder.Default
+    private Map<String, Long> statusCounts = new HashMap<>();
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    public static String idFor(Long userId, Role role) {
+        return userId + ":" + role.name();
+    }
+
+    public long count(AppointmentStatus status) {
+        return statusCounts == null ? 0 : statusCounts.getOrDefault(status.name(), 0L);
+    }
+}
@@ -7,7 +7,6 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
-import org.springframework.data.mongodb.core.index.Indexed;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,6 +14,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Document(collection = "appointments")
+// Indexes are declared in persistence.migration.AppointmentIndexCatalogue and applied by IndexMigrator
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,37 +25,35 @@ public class AppointmentEntity {
     private String id;
 
     @Field("appointment_title")
-    @Indexed
     private String appointmentTitle;
 
     @Field("description")
     private String description;
 
     @Field("appointment_date_time")
-    @Indexed
     private LocalDateTime appointmentDateTime;
 
     @Field("duration_minutes")
     private Integer durationMinutes;
 
+    // Stored appointment_date_time + duration_minutes, so overlap checks are plain index range queries.
+    // Must be kept in sync whenever the start time or duration changes.
+    @Field("end_date_time")
+    private LocalDateTime endDateTime;
+
     @Field("status")
-    @Indexed
     private AppointmentStatus status;
 
     @Field("type")
-    @Indexed
     private AppointmentType type;
 
     @Field("property_id")
-    @Indexed
     private Long propertyId;
 
     @Field("requester_id")
-    @Indexed
     private Long requesterId;
 
     @Field("provider_id")
-    @Indexed
     private Long providerId;
 
     @Field("location")
@@ -85,7 +83,6 @@ public class AppointmentEntity {
     private Boolean reminderSent = false;
 
     @Field("confirmation_token")
-    @Indexed(unique = true)
     private String confirmationToken;
 
     // Additional fields for enhanced functionality
@@ -0,0 +1,44 @@
+package com.example.appointmentservice.persistence.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.example.appointmentservice.persistence.model.AppointmentStatus.CANCELLED;
+import static com.example.appointmentservice.persistence.model.AppointmentStatus.COMPLETED;
+import static com.example.appointmentservice.persistence.model.AppointmentStatus.CONFIRMED;
+import static com.example.appointmentservice.persistence.model.AppointmentStatus.NO_SHOW;
+import static com.example.appointmentservice.persistence.model.AppointmentStatus.PENDING;
+import static com.example.appointmentservice.persistence.model.AppointmentStatus.RESCHEDULED;
+
+// The legal appointment lifecycle transitions: the status each one moves to and the statuses it may
+// start from. The `from` set becomes the status predicate of the conditional write (see
+// AppointmentRepositoryCustom#transition), so Mongo checks and applies a transition atomically.
+public enum AppointmentTransition {
+
+    CONFIRM(CONFIRMED, EnumSet.of(PENDING)),
+    CANCEL(CANCELLED, EnumSet.of(PENDING, CONFIRMED, RESCHEDULED, NO_SHOW)),
+    RESCHEDULE(RESCHEDULED, EnumSet.of(PENDING, CONFIRMED, RESCHEDULED, NO_SHOW)),
+    COMPLETE(COMPLETED, EnumSet.of(CONFIRMED, RESCHEDULED)),
+    MARK_NO_SHOW(NO_SHOW, EnumSet.allOf(AppointmentStatus.class));
+
+    private final AppointmentStatus target;
+    private final Set<AppointmentStatus> from;
+
+    AppointmentTransition(AppointmentStatus target, Set<AppointmentStatus> from) {
+        this.target = target;
+        this.from = Collections.unmodifiableSet(from);
+    }
+
+    public AppointmentStatus target() {
+        return target;
+    }
+
+    public Set<AppointmentStatus> from() {
+        return from;
+    }
+
+    public boolean allowedFrom(AppointmentStatus status) {
+        return status != null && from.contains(status);
+    }
+}
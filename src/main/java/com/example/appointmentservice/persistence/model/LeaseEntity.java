@@ -0,0 +1,41 @@
+package com.example.appointmentservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+// A named lease held by one service instance until expires_at, keyed by the lease name.
+// The holder extends it with a conditional findAndModify; any instance may take it over once it has
+// expired, which bumps the epoch. A TTL index removes leases nobody has renewed for a while.
+@Document(collection = "leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaseEntity {
+
+    @Id
+    private String name;
+
+    @Field("owner")
+    private String owner;
+
+    // Incremented on every change of owner; a fencing token for work done under the lease
+    @Field("epoch")
+    private long epoch;
+
+    @Field("acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Field("renewed_at")
+    private LocalDateTime renewedAt;
+
+    @Field("expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,85 @@
+package com.example.appointmentservice.persistence.model;
+
+import com.example.appointmentservice.producer.AppointmentEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// An appointment event waiting to be published, inserted in the same Mongo transaction as the
+// appointment write that caused it. OutboxRelay claims pending entries in batches, publishes them
+// and deletes them once the broker has confirmed; entries that keep failing are parked as FAILED.
+// An entry inserted on hold (available_at in the future) is still being enriched after the commit;
+// the enrichment releases it early, otherwise the relay publishes it as inserted when the hold ends.
+@Document(collection = "appointment_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEventEntity {
+
+    public enum Status {
+        PENDING, FAILED
+    }
+
+    @Id
+    private String id;
+
+    @Field("event_id")
+    private String eventId;
+
+    @Field("event_type")
+    private String eventType;
+
+    @Field("appointment_id")
+    private String appointmentId;
+
+    @Field("payload")
+    private AppointmentEvent payload;
+
+    @Field("status")
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Field("attempts")
+    private int attempts;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    // Not relayed before this time; pushed back after every failed attempt
+    @Field("available_at")
+    private LocalDateTime availableAt;
+
+    // Relay instance holding the entry, and until when - an expired claim can be taken over
+    @Field("claimed_by")
+    private String claimedBy;
+
+    @Field("claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Field("last_error")
+    private String lastError;
+
+    public static OutboxEventEntity of(AppointmentEvent event) {
+        return held(event, Duration.ZERO);
+    }
+
+    public static OutboxEventEntity held(AppointmentEvent event, Duration hold) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxEventEntity.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .appointmentId(event.getAppointmentId())
+                .payload(event)
+                .createdAt(now)
+                .availableAt(now.plus(hold))
+                .build();
+    }
+}
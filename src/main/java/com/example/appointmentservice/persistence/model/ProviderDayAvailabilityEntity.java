@@ -0,0 +1,52 @@
+package com.example.appointmentservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Occupancy of one provider on one day, keyed "<providerId>:<yyyy-MM-dd>".
+// `words` is a bitset of 5-minute buckets (see business.availability.AvailabilityBitmap);
+// live writes only change bits in place with $bit; the whole array is only rewritten when the day is
+// rebuilt from its bookings, as a compare-and-set on updated_at.
+@Document(collection = "provider_day_availability")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderDayAvailabilityEntity {
+
+    @Id
+    private String id;
+
+    @Field("provider_id")
+    private Long providerId;
+
+    @Field("date")
+    private LocalDate date;
+
+    @Field("words")
+    private List<Long> words;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    public static String idFor(Long providerId, LocalDate date) {
+        return providerId + ":" + date;
+    }
+
+    public long[] toWords() {
+        long[] bits = new long[words == null ? 0 : words.size()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = words.get(i) == null ? 0 : words.get(i);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentCounterEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentCounterRepository extends MongoRepository<AppointmentCounterEntity, String>,
+        AppointmentCounterRepositoryCustom {
+}
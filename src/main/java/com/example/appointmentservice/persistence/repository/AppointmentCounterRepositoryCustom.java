@@ -0,0 +1,35 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+
+import java.util.Collection;
+
+// Write side of the appointment_counters collection.
+public interface AppointmentCounterRepositoryCustom {
+
+    // schema_migrations marker written by reconcileAll; until it exists the counters have never been
+    // rebuilt from the appointments collection and only reflect transitions since they were introduced
+    String SEED_MIGRATION_ID = "appointment-counters-seed";
+
+    // Moves one appointment from status `from` to status `to` in the requester's and the provider's
+    // counters with a single bulk round trip of $inc upserts. from == null records a new appointment,
+    // to == null a deleted one. When requester and provider are the same user the appointment is
+    // counted once, under REQUESTER, so summing both roles never double counts.
+    void applyTransition(Long requesterId, Long providerId, AppointmentStatus from, AppointmentStatus to);
+
+    // applyTransition for a batch of appointments. The $inc deltas are summed per counter document first,
+    // so the whole batch is one bulk round trip with at most one upsert per user and role.
+    void applyTransitions(Collection<Move> moves);
+
+    // One appointment's status change as counted by applyTransitions
+    record Move(Long requesterId, Long providerId, AppointmentStatus from, AppointmentStatus to) {
+    }
+
+    // Rebuilds every counter document from the appointments collection and removes counters for
+    // users that no longer have appointments, then records SEED_MIGRATION_ID. Returns the number of
+    // counter documents written.
+    int reconcileAll();
+
+    // Whether reconcileAll has completed at least once, i.e. the counters can be read instead of aggregating
+    boolean isSeeded();
+}
@@ -0,0 +1,174 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentCounterEntity;
+import com.example.appointmentservice.persistence.model.AppointmentCounterEntity.Role;
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+public class AppointmentCounterRepositoryCustomImpl implements AppointmentCounterRepositoryCustom {
+
+    private static final String MIGRATIONS_COLLECTION = "schema_migrations";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void applyTransition(Long requesterId, Long providerId, AppointmentStatus from, AppointmentStatus to) {
+        applyTransitions(List.of(new Move(requesterId, providerId, from, to)));
+    }
+
+    @Override
+    public void applyTransitions(Collection<Move> moves) {
+        Map<String, CounterDelta> deltas = new LinkedHashMap<>();
+        for (Move move : moves) {
+            if (move.from() == move.to()) {
+                continue;
+            }
+            addMove(deltas, move.requesterId(), Role.REQUESTER, move);
+            if (!Objects.equals(move.requesterId(), move.providerId())) {
+                addMove(deltas, move.providerId(), Role.PROVIDER, move);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentCounterEntity.class);
+        for (CounterDelta delta : deltas.values()) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(delta.id)), delta.toUpdate(now));
+        }
+        bulk.execute();
+    }
+
+    private static void addMove(Map<String, CounterDelta> deltas, Long userId, Role role, Move move) {
+        if (userId != null) {
+            deltas.computeIfAbsent(AppointmentCounterEntity.idFor(userId, role), id -> new CounterDelta(id, userId, role))
+                    .add(move.from(), move.to());
+        }
+    }
+
+    // The summed $inc for one counter document
+    private static final class CounterDelta {
+
+        private final String id;
+        private final Long userId;
+        private final Role role;
+        private final Map<String, Integer> increments = new LinkedHashMap<>();
+
+        private CounterDelta(String id, Long userId, Role role) {
+            this.id = id;
+            this.userId = userId;
+            this.role = role;
+        }
+
+        private void add(AppointmentStatus from, AppointmentStatus to) {
+            if (from == null) {
+                increments.merge("total", 1, Integer::sum);
+            } else {
+                increments.merge("status_counts." + from.name(), -1, Integer::sum);
+            }
+            if (to == null) {
+                increments.merge("total", -1, Integer::sum);
+            } else {
+                increments.merge("status_counts." + to.name(), 1, Integer::sum);
+            }
+        }
+
+        private Update toUpdate(LocalDateTime now) {
+            Update update = new Update()
+                    .setOnInsert("user_id", userId)
+                    .setOnInsert("role", role.name())
+                    .set("updated_at", now);
+            increments.forEach((field, delta) -> {
+                if (delta != 0) {
+                    update.inc(field, delta);
+                }
+            });
+            return update;
+        }
+    }
+
+    @Override
+    public int reconcileAll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<String, AppointmentCounterEntity> counters = new HashMap<>();
+
+        countByUserAndStatus("requesterId", Role.REQUESTER, null, counters);
+        // Mirrors applyTransition: self-booked appointments are only counted under REQUESTER
+        countByUserAndStatus("providerId", Role.PROVIDER,
+                Criteria.expr(ComparisonOperators.Ne.valueOf("requesterId").notEqualTo("providerId")), counters);
+
+        LocalDateTime rebuiltAt = LocalDateTime.now();
+        if (!counters.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentCounterEntity.class);
+            for (AppointmentCounterEntity counter : counters.values()) {
+                counter.setUpdatedAt(rebuiltAt);
+                bulk.replaceOne(Query.query(Criteria.where("_id").is(counter.getId())), counter,
+                        FindAndReplaceOptions.options().upsert());
+            }
+            bulk.execute();
+        }
+
+        // Anything not rebuilt (and not touched by a live transition since) belongs to users with no appointments left
+        mongoTemplate.remove(Query.query(Criteria.where("updated_at").lt(startedAt)), AppointmentCounterEntity.class);
+
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(SEED_MIGRATION_ID)),
+                new Update().setOnInsert("applied_at", rebuiltAt).set("last_reconciled_at", rebuiltAt),
+                MIGRATIONS_COLLECTION);
+        return counters.size();
+    }
+
+    @Override
+    public boolean isSeeded() {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(SEED_MIGRATION_ID)), MIGRATIONS_COLLECTION);
+    }
+
+    private void countByUserAndStatus(String userField, Role role, Criteria filter,
+                                      Map<String, AppointmentCounterEntity> counters) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (filter != null) {
+            operations.add(Aggregation.match(filter));
+        }
+        operations.add(Aggregation.group(userField, "status").count().as("count"));
+
+        List<Document> rows = mongoTemplate.aggregate(
+                Aggregation.newAggregation(AppointmentEntity.class, operations), Document.class).getMappedResults();
+
+        for (Document row : rows) {
+            Document key = row.get("_id", Document.class);
+            Object userId = key.get(userField);
+            Object status = key.get("status");
+            if (!(userId instanceof Number) || status == null) {
+                continue;
+            }
+
+            long id = ((Number) userId).longValue();
+            long count = ((Number) row.get("count")).longValue();
+            AppointmentCounterEntity counter = counters.computeIfAbsent(AppointmentCounterEntity.idFor(id, role),
+                    counterId -> AppointmentCounterEntity.builder().id(counterId).userId(id).role(role).build());
+            counter.getStatusCounts().merge(status.toString(), count, Long::sum);
+            counter.setTotal(counter.getTotal() + count);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+
+// Position in the (appointment_date_time, _id) order used by all paged list queries.
+// Clients only see the opaque, URL-safe encoded form and pass it back unchanged.
+public record AppointmentCursor(LocalDateTime appointmentDateTime, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static AppointmentCursor of(AppointmentEntity appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDateTime(), appointment.getId());
+    }
+
+    public String encode() {
+        String raw = appointmentDateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor (first page)
+    public static AppointmentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid pagination cursor");
+            }
+            return new AppointmentCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+    }
+}
@@ -6,12 +6,13 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AppointmentRepository extends MongoRepository<AppointmentEntity, String> {
+public interface AppointmentRepository extends MongoRepository<AppointmentEntity, String>, AppointmentRepositoryCustom {
 
     List<AppointmentEntity> findByStatus(AppointmentStatus status);
 
@@ -34,7 +35,9 @@ public interface AppointmentRepository extends MongoRepository<AppointmentEntity
     List<AppointmentEntity> findByUserId(Long userId);
 
     // FIXED: Added exists = true
-    @Query(value = "{ 'requester_id': ?0, 'provider_id': ?1, 'property_id': ?2, 'appointment_date_time': ?3 }",
+    // Same scope as duplicate_check_idx: cancelled and no-show appointments are not duplicates
+    @Query(value = "{ 'requester_id': ?0, 'provider_id': ?1, 'property_id': ?2, 'appointment_date_time': ?3, " +
+            "'status': { $in: ['PENDING', 'CONFIRMED', 'RESCHEDULED', 'COMPLETED'] } }",
             exists = true)
     boolean existsByRequesterIdAndProviderIdAndPropertyIdAndAppointmentDateTime(
             Long requesterId, Long providerId, Long propertyId, LocalDateTime appointmentDateTime);
@@ -45,21 +48,26 @@ public interface AppointmentRepository extends MongoRepository<AppointmentEntity
     @Query("{ 'provider_id': ?0, 'appointment_date_time': { $gte: ?1, $lte: ?2 }, 'status': { $nin: ['CANCELLED', 'NO_SHOW'] } }")
     List<AppointmentEntity> findProviderBookedSlots(Long providerId, LocalDateTime startOfDay, LocalDateTime endOfDay);
 
+    // Longest bookable appointment (AppointmentRequest @Max on durationMinutes)
+    Duration MAX_APPOINTMENT_DURATION = Duration.ofMinutes(480);
+
+    // Half-open overlap: existing.start < newEnd AND existing.end > newStart. Anything that can
+    // still be running at newStart started after newStart - MAX_APPOINTMENT_DURATION, which bounds
+    // the scan on the (provider_id, appointment_date_time, end_date_time, status) index from both sides.
     @Query(value = "{ " +
             "'provider_id': ?0, " +
+            "'appointment_date_time': { $gt: ?1, $lt: ?3 }, " +
+            "'end_date_time': { $gt: ?2 }, " +
             "'status': { $nin: ['CANCELLED', 'NO_SHOW'] }, " +
-            "'_id': { $ne: ?3 }, " +
-            "$or: [ " +
-            "  { $and: [ " +
-            "    { 'appointment_date_time': { $lt: ?2 } }, " +
-            "    { $expr: { $gt: [ { $add: ['$appointment_date_time', { $multiply: ['$duration_minutes', 60000] }] }, ?1 ] } } " +
-            "  ] }, " +
-            "  { $and: [ " +
-            "    { 'appointment_date_time': { $gte: ?1 } }, " +
-            "    { 'appointment_date_time': { $lt: ?2 } } " +
-            "  ] } " +
-            "] " +
+            "'_id': { $ne: ?4 } " +
             "}",
             exists = true)
-    boolean hasConflictingAppointment(Long providerId, LocalDateTime startTime, LocalDateTime endTime, String excludeAppointmentId);
+    boolean existsOverlappingAppointment(Long providerId, LocalDateTime earliestStart, LocalDateTime startTime,
+                                         LocalDateTime endTime, String excludeAppointmentId);
+
+    default boolean hasConflictingAppointment(Long providerId, LocalDateTime startTime, LocalDateTime endTime,
+                                              String excludeAppointmentId) {
+        return existsOverlappingAppointment(providerId, startTime.minus(MAX_APPOINTMENT_DURATION),
+                startTime, endTime, excludeAppointmentId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import com.example.appointmentservice.persistence.model.AppointmentType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Keyset-paginated finders: each returns at most `limit` appointments ordered by
+// (appointment_date_time, _id), starting strictly after `after` (null = first page).
+// Page finders return list projections - only the fields needed to render a list row are
+// loaded; description, notes, meeting link, cancellation reason, confirmation token and
+// audit timestamps stay null. Use findById for the full document.
+public interface AppointmentRepositoryCustom {
+
+    List<AppointmentEntity> findPageByUserId(Long userId, AppointmentCursor after, int limit);
+
+    List<AppointmentEntity> findPageByRequesterId(Long requesterId, AppointmentCursor after, int limit);
+
+    List<AppointmentEntity> findPageByProviderId(Long providerId, AppointmentCursor after, int limit);
+
+    List<AppointmentEntity> findPageByPropertyId(Long propertyId, AppointmentCursor after, int limit);
+
+    List<AppointmentEntity> findPageByStatus(AppointmentStatus status, AppointmentCursor after, int limit);
+
+    List<AppointmentEntity> findPageByType(AppointmentType type, AppointmentCursor after, int limit);
+
+    List<AppointmentEntity> findPageByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                AppointmentCursor after, int limit);
+
+    // Cursor-backed stream over the whole collection; documents are fetched from the server
+    // in batches of cursorBatchSize as the stream is consumed. Callers must close the stream.
+    Stream<AppointmentEntity> streamAll(int cursorBatchSize);
+
+    // Booked (not CANCELLED / NO_SHOW) appointments of several providers starting in [startFrom, startBefore),
+    // in one $in range query; only the fields needed to build booked intervals are loaded
+    List<AppointmentEntity> findBookedSlotsForProviders(Collection<Long> providerIds,
+                                                        LocalDateTime startFrom, LocalDateTime startBefore);
+
+    // One keyset page (same order and cursor as the list finders) of CONFIRMED appointments starting in
+    // [startFrom, startBefore) whose reminder has not gone out yet. Served by pending_reminder_idx; only
+    // the fields a reminder event carries are loaded.
+    List<AppointmentEntity> findPendingReminderPage(LocalDateTime startFrom, LocalDateTime startBefore,
+                                                    AppointmentCursor after, int limit);
+
+    // Sets reminder_sent on all given appointments with one updateMany; returns the number changed
+    long markRemindersSent(Collection<String> appointmentIds);
+
+    // Applies change.transition() in one findAndModify: the filter requires the appointment's status to be
+    // one the transition starts from (and, if expectedStart is not null, its start time to be unchanged);
+    // the update $sets only the fields of the change. Returns the full document as it was before the
+    // write, or empty if it does not exist or no longer qualifies. Apply the change to it for the new state.
+    Optional<AppointmentEntity> transition(String appointmentId, LocalDateTime expectedStart, StatusChange change);
+
+    // As transition, for the appointment carrying this confirmation token
+    Optional<AppointmentEntity> transitionByConfirmationToken(String confirmationToken, StatusChange change);
+
+    // Applies change.transition() to many appointments in one unordered bulk write. Each updateOne is guarded
+    // by the status and start time the caller read (`expected`), so an appointment that moved on since is
+    // skipped instead of overwritten. Returns the IDs that were changed; only a partially applied batch
+    // costs a second query to tell them apart.
+    Set<String> transitionAll(Collection<AppointmentEntity> expected, StatusChange change);
+
+    // Counts a user's appointments (as requester or provider) in one aggregation round trip;
+    // "upcoming" means PENDING or CONFIRMED and starting after `now`
+    AppointmentStatistics aggregateStatistics(Long userId, LocalDateTime now);
+
+    // The "upcoming" figure of aggregateStatistics on its own, for statistics served from the counters,
+    // which only know statuses. Each branch of the $or is a range scan on the user's (date, _id) index.
+    long countUpcoming(Long userId, LocalDateTime now);
+}
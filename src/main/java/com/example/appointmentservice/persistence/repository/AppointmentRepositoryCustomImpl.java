@@ -0,0 +1,258 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import com.example.appointmentservice.persistence.model.AppointmentType;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    private static final Sort PAGE_ORDER = Sort.by(Sort.Order.asc("appointmentDateTime"), Sort.Order.asc("id"));
+
+    // Fields loaded for list rows (see AppointmentRepositoryCustom)
+    private static final String[] LIST_FIELDS = {
+            "id", "appointmentTitle", "appointmentDateTime", "durationMinutes", "status", "type",
+            "propertyId", "requesterId", "providerId", "location", "isRecurring", "reminderSent",
+            "requesterUsername", "providerName", "propertyTitle", "propertyAddress"
+    };
+
+    // Fields needed to turn an appointment into a booked interval
+    private static final String[] BOOKING_FIELDS = {
+            "id", "providerId", "appointmentDateTime", "endDateTime", "durationMinutes", "status"
+    };
+
+    // Fields a reminder event is built from
+    private static final String[] REMINDER_FIELDS = {
+            "id", "appointmentTitle", "appointmentDateTime", "durationMinutes", "status", "type",
+            "location", "meetingLink", "propertyId", "requesterId", "providerId",
+            "requesterUsername", "providerName", "propertyTitle", "propertyAddress"
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<AppointmentEntity> findPageByUserId(Long userId, AppointmentCursor after, int limit) {
+        // Served by merging the requester and provider index ranges, both already in page order
+        return findPage(new Criteria().orOperator(
+                Criteria.where("requesterId").is(userId),
+                Criteria.where("providerId").is(userId)), after, limit);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPageByRequesterId(Long requesterId, AppointmentCursor after, int limit) {
+        return findPage(Criteria.where("requesterId").is(requesterId), after, limit);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPageByProviderId(Long providerId, AppointmentCursor after, int limit) {
+        return findPage(Criteria.where("providerId").is(providerId), after, limit);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPageByPropertyId(Long propertyId, AppointmentCursor after, int limit) {
+        return findPage(Criteria.where("propertyId").is(propertyId), after, limit);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPageByStatus(AppointmentStatus status, AppointmentCursor after, int limit) {
+        return findPage(Criteria.where("status").is(status), after, limit);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPageByType(AppointmentType type, AppointmentCursor after, int limit) {
+        return findPage(Criteria.where("type").is(type), after, limit);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPageByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                       AppointmentCursor after, int limit) {
+        return findPage(Criteria.where("appointmentDateTime").gte(startDate).lte(endDate), after, limit);
+    }
+
+    @Override
+    public Stream<AppointmentEntity> streamAll(int cursorBatchSize) {
+        Query query = new Query().with(PAGE_ORDER).cursorBatchSize(cursorBatchSize);
+        return mongoTemplate.stream(query, AppointmentEntity.class);
+    }
+
+    @Override
+    public List<AppointmentEntity> findBookedSlotsForProviders(Collection<Long> providerIds,
+                                                               LocalDateTime startFrom, LocalDateTime startBefore) {
+        Query query = Query.query(Criteria.where("providerId").in(providerIds)
+                .and("appointmentDateTime").gte(startFrom).lt(startBefore)
+                .and("status").nin(AppointmentStatus.CANCELLED, AppointmentStatus.NO_SHOW));
+        query.fields().include(BOOKING_FIELDS);
+        return mongoTemplate.find(query, AppointmentEntity.class);
+    }
+
+    @Override
+    public List<AppointmentEntity> findPendingReminderPage(LocalDateTime startFrom, LocalDateTime startBefore,
+                                                           AppointmentCursor after, int limit) {
+        Criteria pending = Criteria.where("status").is(AppointmentStatus.CONFIRMED)
+                .and("reminderSent").is(false)
+                .and("appointmentDateTime").gte(startFrom).lt(startBefore);
+        Criteria criteria = after == null ? pending : new Criteria().andOperator(pending, startingAfter(after));
+        Query query = new Query(criteria).with(PAGE_ORDER).limit(limit);
+        query.fields().include(REMINDER_FIELDS);
+        return mongoTemplate.find(query, AppointmentEntity.class);
+    }
+
+    @Override
+    public Optional<AppointmentEntity> transition(String appointmentId, LocalDateTime expectedStart, StatusChange change) {
+        Criteria filter = expectedStart == null
+                ? Criteria.where("id").is(appointmentId)
+                : Criteria.where("id").is(appointmentId).and("appointmentDateTime").is(expectedStart);
+        return applyTransition(filter, change);
+    }
+
+    @Override
+    public Optional<AppointmentEntity> transitionByConfirmationToken(String confirmationToken, StatusChange change) {
+        return applyTransition(Criteria.where("confirmationToken").is(confirmationToken), change);
+    }
+
+    // Returns the pre-image so the caller still knows the status and time the appointment moved away from
+    private Optional<AppointmentEntity> applyTransition(Criteria filter, StatusChange change) {
+        Query query = Query.query(filter.and("status").in(change.transition().from()));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, change.toUpdate(),
+                FindAndModifyOptions.options().returnNew(false), AppointmentEntity.class));
+    }
+
+    @Override
+    public Set<String> transitionAll(Collection<AppointmentEntity> expected, StatusChange change) {
+        if (expected.isEmpty()) {
+            return Set.of();
+        }
+
+        Update update = change.toUpdate();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentEntity.class);
+        Set<String> ids = new LinkedHashSet<>();
+        for (AppointmentEntity appointment : expected) {
+            ids.add(appointment.getId());
+            bulk.updateOne(Query.query(Criteria.where("id").is(appointment.getId())
+                    .and("status").is(appointment.getStatus())
+                    .and("appointmentDateTime").is(appointment.getAppointmentDateTime())), update);
+        }
+        if (bulk.execute().getMatchedCount() == ids.size()) {
+            return ids;
+        }
+
+        // Every write of this batch carries the change's updatedAt, which tells its documents apart
+        Query applied = Query.query(Criteria.where("id").in(ids)
+                .and("status").is(change.transition().target())
+                .and("updatedAt").is(change.updatedAt()));
+        applied.fields().include("id");
+        return mongoTemplate.find(applied, AppointmentEntity.class).stream()
+                .map(AppointmentEntity::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public long markRemindersSent(Collection<String> appointmentIds) {
+        if (appointmentIds.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(appointmentIds).and("reminderSent").is(false)),
+                new Update().set("reminderSent", true).set("updatedAt", LocalDateTime.now()),
+                AppointmentEntity.class).getModifiedCount();
+    }
+
+    // $match on the requester/provider index prefixes, then a single $group that counts every
+    // bucket with conditional sums - one result document comes back regardless of history size
+    @Override
+    public AppointmentStatistics aggregateStatistics(Long userId, LocalDateTime now) {
+        // Compared as BSON dates inside the pipeline, matching how LocalDateTime is stored
+        Date nowAsDate = Date.from(now.atZone(ZoneId.systemDefault()).toInstant());
+
+        TypedAggregation<AppointmentEntity> aggregation = Aggregation.newAggregation(AppointmentEntity.class,
+                Aggregation.match(new Criteria().orOperator(
+                        Criteria.where("requesterId").is(userId),
+                        Criteria.where("providerId").is(userId))),
+                Aggregation.group()
+                        .count().as("total")
+                        .sum(countIf(statusIs(AppointmentStatus.COMPLETED))).as("completed")
+                        .sum(countIf(statusIs(AppointmentStatus.CANCELLED))).as("cancelled")
+                        .sum(countIf(statusIs(AppointmentStatus.NO_SHOW))).as("noShow")
+                        .sum(countIf(BooleanOperators.And.and(
+                                ComparisonOperators.Gt.valueOf("appointmentDateTime").greaterThanValue(nowAsDate),
+                                BooleanOperators.Or.or(
+                                        statusIs(AppointmentStatus.PENDING),
+                                        statusIs(AppointmentStatus.CONFIRMED))))).as("upcoming"));
+
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return AppointmentStatistics.EMPTY;
+        }
+
+        return new AppointmentStatistics(
+                longValue(result, "total"),
+                longValue(result, "completed"),
+                longValue(result, "cancelled"),
+                longValue(result, "noShow"),
+                longValue(result, "upcoming"));
+    }
+
+    @Override
+    public long countUpcoming(Long userId, LocalDateTime now) {
+        List<AppointmentStatus> upcoming = List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+        return mongoTemplate.count(Query.query(new Criteria().orOperator(
+                Criteria.where("requesterId").is(userId).and("appointmentDateTime").gt(now).and("status").in(upcoming),
+                Criteria.where("providerId").is(userId).and("appointmentDateTime").gt(now).and("status").in(upcoming))),
+                AppointmentEntity.class);
+    }
+
+    private static AggregationExpression statusIs(AppointmentStatus status) {
+        return ComparisonOperators.Eq.valueOf("status").equalToValue(status.name());
+    }
+
+    private static AggregationExpression countIf(AggregationExpression condition) {
+        return ConditionalOperators.when(condition).then(1).otherwise(0);
+    }
+
+    private static long longValue(Document result, String field) {
+        Number value = result.get(field, Number.class);
+        return value != null ? value.longValue() : 0L;
+    }
+
+    private List<AppointmentEntity> findPage(Criteria filter, AppointmentCursor after, int limit) {
+        Criteria criteria = after == null ? filter : new Criteria().andOperator(filter, startingAfter(after));
+        Query query = new Query(criteria).with(PAGE_ORDER).limit(limit);
+        query.fields().include(LIST_FIELDS);
+        return mongoTemplate.find(query, AppointmentEntity.class);
+    }
+
+    // (date > cursor.date) OR (date = cursor.date AND _id > cursor._id) - no skip, no offset scan
+    private Criteria startingAfter(AppointmentCursor after) {
+        return new Criteria().orOperator(
+                Criteria.where("appointmentDateTime").gt(after.appointmentDateTime()),
+                new Criteria().andOperator(
+                        Criteria.where("appointmentDateTime").is(after.appointmentDateTime()),
+                        Criteria.where("id").gt(after.id())));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.appointmentservice.persistence.repository;
+
+// Per-user appointment counts computed server-side by AppointmentRepositoryCustom#aggregateStatistics
+public record AppointmentStatistics(long total, long completed, long cancelled, long noShow, long upcoming) {
+
+    public static final AppointmentStatistics EMPTY = new AppointmentStatistics(0, 0, 0, 0, 0);
+}
@@ -0,0 +1,9 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LeaseRepository extends MongoRepository<LeaseEntity, String>, LeaseRepositoryCustom {
+}
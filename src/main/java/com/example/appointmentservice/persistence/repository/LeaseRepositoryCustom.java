@@ -0,0 +1,23 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Atomic operations on the leases collection; each is a single conditional write.
+public interface LeaseRepositoryCustom {
+
+    // Takes the lease for `owner` until now + ttl if it is free, expired or already held by `owner`,
+    // creating it on first use. Returns the lease as written, or empty if another owner holds it.
+    Optional<LeaseEntity> acquire(String name, String owner, Duration ttl);
+
+    // Extends a lease `owner` still holds to now + ttl. Empty if it expired or changed hands meanwhile.
+    Optional<LeaseEntity> renew(String name, String owner, Duration ttl);
+
+    // Gives the lease up so another instance can take it without waiting for it to expire
+    void release(String name, String owner);
+
+    // TTL index on expires_at; leases unrenewed for `retention` are deleted by Mongo
+    void ensureIndexes(Duration retention);
+}
@@ -0,0 +1,73 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class LeaseRepositoryCustomImpl implements LeaseRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<LeaseEntity> acquire(String name, String owner, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        Query takeable = Query.query(Criteria.where("_id").is(name).orOperator(
+                Criteria.where("owner").is(owner),
+                Criteria.where("expires_at").lte(now)));
+
+        Update take = new Update()
+                .set("owner", owner)
+                .set("acquired_at", now)
+                .set("renewed_at", now)
+                .set("expires_at", now.plus(ttl))
+                .inc("epoch", 1);
+
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(takeable, take,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), LeaseEntity.class));
+        } catch (DuplicateKeyException e) {
+            // The lease exists and is held by someone else, so the filter missed and the upsert collided
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<LeaseEntity> renew(String name, String owner, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        Query held = Query.query(Criteria.where("_id").is(name)
+                .and("owner").is(owner)
+                .and("expires_at").gt(now));
+
+        Update extend = new Update()
+                .set("renewed_at", now)
+                .set("expires_at", now.plus(ttl));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(held, extend,
+                FindAndModifyOptions.options().returnNew(true), LeaseEntity.class));
+    }
+
+    @Override
+    public void release(String name, String owner) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(name).and("owner").is(owner)),
+                new Update().set("expires_at", LocalDateTime.now()), LeaseEntity.class);
+    }
+
+    @Override
+    public void ensureIndexes(Duration retention) {
+        mongoTemplate.indexOps(LeaseEntity.class).ensureIndex(new Index().named("lease_expiry_ttl_idx")
+                .on("expires_at", Sort.Direction.ASC)
+                .expire(retention));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.OutboxEventEntity;
+import com.example.appointmentservice.producer.AppointmentEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Relay side of the appointment_outbox collection.
+public interface OutboxEventRepositoryCustom {
+
+    // Replaces the payload of an entry still on hold and makes it due now. Returns false if the entry
+    // is gone or a relay has already claimed it, i.e. the hold ran out before enrichment finished.
+    boolean releaseEnriched(String id, AppointmentEvent payload);
+
+    // releaseEnriched for many entries (keyed by entry id) in one bulk round trip; returns how many were
+    // still on hold and got released
+    int releaseEnriched(Map<String, AppointmentEvent> payloadsById);
+
+    // Claims up to batchSize due, unclaimed (or expired-claim) PENDING entries for `owner` until
+    // now + lease and returns them oldest first. The claim is one updateMany guarded by the same
+    // filter, so two relays never both get an entry.
+    List<OutboxEventEntity> claimBatch(String owner, int batchSize, Duration lease);
+
+    // Removes entries the broker has confirmed
+    void deletePublished(Collection<String> ids);
+
+    // Writes back attempts, status, available_at and last_error of failed entries and drops their claim,
+    // in one bulk round trip
+    void releaseFailed(Collection<OutboxEventEntity> failed);
+
+    long countPending();
+
+    // created_at of the oldest PENDING entry, i.e. how far the relay is behind
+    Optional<LocalDateTime> oldestPendingCreatedAt();
+
+    // Creates the relay's polling index if it does not exist yet
+    void ensureIndexes();
+}
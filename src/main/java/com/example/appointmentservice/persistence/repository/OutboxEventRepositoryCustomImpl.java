@@ -0,0 +1,137 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.OutboxEventEntity;
+import com.example.appointmentservice.persistence.model.OutboxEventEntity.Status;
+import com.example.appointmentservice.producer.AppointmentEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean releaseEnriched(String id, AppointmentEvent payload) {
+        if (id == null) {
+            return false;
+        }
+        return mongoTemplate.updateFirst(held(id), release(payload), OutboxEventEntity.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public int releaseEnriched(Map<String, AppointmentEvent> payloadsById) {
+        if (payloadsById.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEventEntity.class);
+        payloadsById.forEach((id, payload) -> bulk.updateOne(held(id), release(payload)));
+        return bulk.execute().getModifiedCount();
+    }
+
+    private static Query held(String id) {
+        return Query.query(Criteria.where("_id").is(id)
+                .and("status").is(Status.PENDING.name())
+                .and("claimed_by").is(null));
+    }
+
+    private static Update release(AppointmentEvent payload) {
+        return new Update()
+                .set("payload", payload)
+                .set("available_at", LocalDateTime.now());
+    }
+
+    @Override
+    public List<OutboxEventEntity> claimBatch(String owner, int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Query due = Query.query(claimable(now))
+                .with(Sort.by(Sort.Direction.ASC, "created_at"))
+                .limit(batchSize);
+        due.fields().include("_id");
+        List<String> ids = mongoTemplate.find(due, OutboxEventEntity.class).stream()
+                .map(OutboxEventEntity::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Re-applying the filter makes the claim lose cleanly against another relay that got there first
+        mongoTemplate.updateMulti(Query.query(claimable(now).and("_id").in(ids)),
+                new Update().set("claimed_by", owner).set("claimed_until", now.plus(lease)),
+                OutboxEventEntity.class);
+
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(ids).and("claimed_by").is(owner))
+                        .with(Sort.by(Sort.Direction.ASC, "created_at")),
+                OutboxEventEntity.class);
+    }
+
+    private static Criteria claimable(LocalDateTime now) {
+        return Criteria.where("status").is(Status.PENDING.name())
+                .and("available_at").lte(now)
+                .orOperator(Criteria.where("claimed_until").is(null), Criteria.where("claimed_until").lt(now));
+    }
+
+    @Override
+    public void deletePublished(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), OutboxEventEntity.class);
+        }
+    }
+
+    @Override
+    public void releaseFailed(Collection<OutboxEventEntity> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEventEntity.class);
+        for (OutboxEventEntity entry : failed) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(entry.getId())), new Update()
+                    .set("status", entry.getStatus().name())
+                    .set("attempts", entry.getAttempts())
+                    .set("available_at", entry.getAvailableAt())
+                    .set("last_error", entry.getLastError())
+                    .unset("claimed_by")
+                    .unset("claimed_until"));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public long countPending() {
+        return mongoTemplate.count(Query.query(Criteria.where("status").is(Status.PENDING.name())), OutboxEventEntity.class);
+    }
+
+    @Override
+    public Optional<LocalDateTime> oldestPendingCreatedAt() {
+        Query oldest = Query.query(Criteria.where("status").is(Status.PENDING.name()))
+                .with(Sort.by(Sort.Direction.ASC, "created_at"))
+                .limit(1);
+        oldest.fields().include("created_at");
+        return Optional.ofNullable(mongoTemplate.findOne(oldest, OutboxEventEntity.class))
+                .map(OutboxEventEntity::getCreatedAt);
+    }
+
+    @Override
+    public void ensureIndexes() {
+        // Serves claimBatch, countPending and oldestPendingCreatedAt
+        mongoTemplate.indexOps(OutboxEventEntity.class).ensureIndex(new Index().named("outbox_pending_idx")
+                .on("status", Sort.Direction.ASC)
+                .on("created_at", Sort.Direction.ASC));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.ProviderDayAvailabilityEntity;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Write side of the provider_day_availability collection.
+public interface ProviderDayAvailabilityRepositoryCustom {
+
+    // Recorded in schema_migrations once existing bookings have been written into the bitmaps
+    String BACKFILL_MIGRATION_ID = "provider-day-availability-backfill";
+
+    // Sets (occupy = true) or clears (occupy = false) the masked buckets of each given day with $bit,
+    // creating missing day documents first; all days go to the server in one ordered bulk write
+    void applyMasks(Long providerId, Map<LocalDate, long[]> masksByDay, boolean occupy);
+
+    // Atomically sets the `occupy` buckets of one day, provided every `mustBeClear` bucket is still clear:
+    // a single findAndModify whose filter is $bitsAllClear on each word. Returns false if a bucket was taken.
+    boolean reserve(Long providerId, LocalDate day, long[] mustBeClear, long[] occupy);
+
+    // Overwrites one day's buckets with `words`, provided the document is still as `read` (null: absent)
+    // left it - compared on updated_at, which every write sets. Returns false if another write got there first.
+    boolean compareAndSetWords(Long providerId, LocalDate day, ProviderDayAvailabilityEntity read, long[] words);
+
+    // Whether the bitmaps hold every booking, i.e. the backfill migration has completed
+    boolean isBackfilled();
+}
@@ -0,0 +1,138 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.ProviderDayAvailabilityEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ProviderDayAvailabilityRepositoryCustomImpl implements ProviderDayAvailabilityRepositoryCustom {
+
+    private static final String MIGRATIONS_COLLECTION = "schema_migrations";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void applyMasks(Long providerId, Map<LocalDate, long[]> masksByDay, boolean occupy) {
+        if (masksByDay.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, ProviderDayAvailabilityEntity.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        masksByDay.forEach((day, mask) -> {
+            Query dayDocument = Query.query(Criteria.where("_id").is(ProviderDayAvailabilityEntity.idFor(providerId, day)));
+
+            // $bit cannot create array elements, so a missing day is first inserted with all buckets clear
+            bulk.upsert(dayDocument, new Update()
+                    .setOnInsert("provider_id", providerId)
+                    .setOnInsert("date", day)
+                    .setOnInsert("words", zeroWords(mask.length)));
+
+            Update bits = new Update().set("updated_at", now);
+            for (int i = 0; i < mask.length; i++) {
+                if (mask[i] == 0) {
+                    continue;
+                }
+                if (occupy) {
+                    bits.bitwise("words." + i).or(mask[i]);
+                } else {
+                    bits.bitwise("words." + i).and(~mask[i]);
+                }
+            }
+            bulk.updateOne(dayDocument, bits);
+        });
+
+        bulk.execute();
+    }
+
+    @Override
+    public boolean reserve(Long providerId, LocalDate day, long[] mustBeClear, long[] occupy) {
+        Query dayDocument = Query.query(Criteria.where("_id").is(ProviderDayAvailabilityEntity.idFor(providerId, day)));
+        Query free = Query.query(Criteria.where("_id").is(ProviderDayAvailabilityEntity.idFor(providerId, day)));
+        for (int i = 0; i < mustBeClear.length; i++) {
+            if (mustBeClear[i] != 0) {
+                free.addCriteria(Criteria.where("words." + i).bits().allClear(bitPositions(mustBeClear[i])));
+            }
+        }
+
+        Update bits = new Update().set("updated_at", LocalDateTime.now());
+        for (int i = 0; i < occupy.length; i++) {
+            if (occupy[i] != 0) {
+                bits.bitwise("words." + i).or(occupy[i]);
+            }
+        }
+
+        if (mongoTemplate.findAndModify(free, bits, ProviderDayAvailabilityEntity.class) != null) {
+            return true;
+        }
+
+        // No match means a bucket is taken - or that nobody has booked this provider-day yet
+        if (mongoTemplate.exists(dayDocument, ProviderDayAvailabilityEntity.class)) {
+            return false;
+        }
+        mongoTemplate.upsert(dayDocument, new Update()
+                .setOnInsert("provider_id", providerId)
+                .setOnInsert("date", day)
+                .setOnInsert("words", zeroWords(occupy.length)), ProviderDayAvailabilityEntity.class);
+        return mongoTemplate.findAndModify(free, bits, ProviderDayAvailabilityEntity.class) != null;
+    }
+
+    @Override
+    public boolean compareAndSetWords(Long providerId, LocalDate day, ProviderDayAvailabilityEntity read, long[] words) {
+        List<Long> boxed = new ArrayList<>(words.length);
+        for (long word : words) {
+            boxed.add(word);
+        }
+
+        if (read == null) {
+            try {
+                mongoTemplate.insert(ProviderDayAvailabilityEntity.builder()
+                        .id(ProviderDayAvailabilityEntity.idFor(providerId, day))
+                        .providerId(providerId)
+                        .date(day)
+                        .words(boxed)
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+
+        // A document created by reserve()'s upsert has no updated_at until its first $bit update
+        Query unchanged = Query.query(Criteria.where("_id").is(read.getId()).and("updated_at").is(read.getUpdatedAt()));
+        Update replace = new Update().set("words", boxed).set("updated_at", LocalDateTime.now());
+        return mongoTemplate.updateFirst(unchanged, replace, ProviderDayAvailabilityEntity.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public boolean isBackfilled() {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(BACKFILL_MIGRATION_ID)), MIGRATIONS_COLLECTION);
+    }
+
+    // $bitsAllClear takes an int mask at most, so a 64-bit word is guarded by the positions of its set bits
+    private static List<Integer> bitPositions(long mask) {
+        List<Integer> positions = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            positions.add(Long.numberOfTrailingZeros(remaining));
+        }
+        return positions;
+    }
+
+    private static List<Long> zeroWords(int count) {
+        return new ArrayList<>(Collections.nCopies(count, 0L));
+    }
+}
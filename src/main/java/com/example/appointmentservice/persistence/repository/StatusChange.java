@@ -0,0 +1,74 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentTransition;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+
+// One transition about to be applied: status, updated_at and the fields that transition changes
+// (cancellation reason, new start/end). toUpdate() $sets exactly these and nothing else; applyTo()
+// makes the same change to an in-memory copy, so callers see what Mongo wrote without reading it back.
+public final class StatusChange {
+
+    private final AppointmentTransition transition;
+    private final LocalDateTime updatedAt = LocalDateTime.now();
+    private boolean setsCancellationReason;
+    private String cancellationReason;
+    private LocalDateTime appointmentDateTime;
+    private LocalDateTime endDateTime;
+
+    private StatusChange(AppointmentTransition transition) {
+        this.transition = transition;
+    }
+
+    public static StatusChange of(AppointmentTransition transition) {
+        return new StatusChange(transition);
+    }
+
+    public StatusChange withCancellationReason(String reason) {
+        this.setsCancellationReason = true;
+        this.cancellationReason = reason;
+        return this;
+    }
+
+    public StatusChange withTimes(LocalDateTime start, LocalDateTime end) {
+        this.appointmentDateTime = start;
+        this.endDateTime = end;
+        return this;
+    }
+
+    public AppointmentTransition transition() {
+        return transition;
+    }
+
+    LocalDateTime updatedAt() {
+        return updatedAt;
+    }
+
+    Update toUpdate() {
+        Update update = new Update()
+                .set("status", transition.target())
+                .set("updatedAt", updatedAt);
+        if (setsCancellationReason) {
+            update.set("cancellationReason", cancellationReason);
+        }
+        if (appointmentDateTime != null) {
+            update.set("appointmentDateTime", appointmentDateTime).set("endDateTime", endDateTime);
+        }
+        return update;
+    }
+
+    public void applyTo(AppointmentEntity appointment) {
+        appointment.setStatus(transition.target());
+        appointment.setUpdatedAt(updatedAt);
+        if (setsCancellationReason) {
+            appointment.setCancellationReason(cancellationReason);
+        }
+        if (appointmentDateTime != null) {
+            appointment.setAppointmentDateTime(appointmentDateTime);
+            appointment.setEndDateTime(endDateTime);
+        }
+    }
+}
@@ -1,40 +1,157 @@
 package com.example.appointmentservice.producer;
 
 import com.example.appointmentservice.configuration.RabbitMQConfig;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * Producer for sending appointment events to RabbitMQ
+ * Producer for sending appointment events to RabbitMQ.
+ *
+ * Events are not sent on the caller's thread: they go into a bounded queue that a small pool of
+ * publisher threads drains in batches. Each batch is sent on one cached channel (RabbitTemplate#invoke)
+ * without waiting in between, and every message carries a CorrelationData whose publisher confirm
+ * completes the caller's future. A nacked message is re-queued up to max-retries times before the
+ * nack is reported. When the queue is full the returned future fails at once, so callers (the outbox
+ * relay) back off instead of piling up memory.
+ *
+ * Every event is published once per configured EventFormat (app.events.formats), each on its own
+ * routing key and tagged with its schema version, so consumers of the full event and of the compact
+ * one can be migrated independently. The returned future only acks when every format was acked.
+ *
+ * On shutdown the publisher threads get a few seconds to finish the batch in hand; whatever is still
+ * queued after that fails with RejectedExecutionException, so no caller is left waiting on a future
+ * that never completes.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AppointmentEventProducer {
 
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(5);
+
     private final RabbitTemplate rabbitTemplate;
+    private final BlockingQueue<PendingPublish> queue;
+    private final ExecutorService publishers;
+    private final int publisherThreads;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Set<EventFormat> formats;
+
+    private final Timer confirmLatency;
+    private final Counter nacks;
+    private final Counter rejected;
+
+    private volatile boolean running = true;
+
+    public AppointmentEventProducer(RabbitTemplate rabbitTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.events.publisher.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${app.events.publisher.threads:2}") int publisherThreads,
+                                    @Value("${app.events.publisher.batch-size:50}") int batchSize,
+                                    @Value("${app.events.publisher.max-retries:3}") int maxRetries,
+                                    @Value("${app.events.formats:FAT}") Set<EventFormat> formats) {
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("app.events.formats must name at least one event format");
+        }
+        this.rabbitTemplate = rabbitTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.publisherThreads = publisherThreads;
+        this.publishers = Executors.newFixedThreadPool(publisherThreads,
+                Thread.ofPlatform().name("event-publisher-", 0).daemon().factory());
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.formats = EnumSet.copyOf(formats);
+
+        this.confirmLatency = Timer.builder("rabbitmq.publisher.confirm.latency")
+                .description("Time from enqueue to the broker's publisher confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.nacks = Counter.builder("rabbitmq.publisher.nacks").register(meterRegistry);
+        this.rejected = Counter.builder("rabbitmq.publisher.rejected")
+                .description("Events refused because the publish queue was full")
+                .register(meterRegistry);
+        Gauge.builder("rabbitmq.publisher.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < publisherThreads; i++) {
+            publishers.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        publishers.shutdown();
+        try {
+            if (!publishers.awaitTermination(SHUTDOWN_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+                publishers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            publishers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingPublish> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        if (!unsent.isEmpty()) {
+            log.warn("Event publisher stopped with {} events unsent", unsent.size());
+            unsent.forEach(pending -> pending.result.completeExceptionally(
+                    new RejectedExecutionException("Event publisher stopped")));
+        }
+    }
 
     /**
-     * Publishes appointment event to the exchange
+     * Queues an event for publishing. The returned future completes with the broker's publisher
+     * confirm for correlationId (an ack, or the last nack once retries are used up) and fails if
+     * the event could not be queued or sent. Requires publisher-confirm-type=correlated.
      */
-    public void publishAppointmentEvent(AppointmentEvent event) {
-        try {
-            log.info("Publishing appointment event: {} for appointment ID: {}",
-                    event.getEventType(), event.getAppointmentId());
-
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.EXCHANGE_NAME,
-                    RabbitMQConfig.APPOINTMENT_ROUTING_KEY,
-                    event
-            );
-
-            log.info("Successfully published appointment event: {}", event.getEventType());
-        } catch (Exception e) {
-            log.error("Failed to publish appointment event: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to publish event to RabbitMQ", e);
+    public CompletableFuture<CorrelationData.Confirm> send(AppointmentEvent event, String correlationId) {
+        CompletableFuture<CorrelationData.Confirm> combined = null;
+        for (EventFormat format : formats) {
+            PendingPublish pending = new PendingPublish(format.payload(event), format, correlationId + ":" + format);
+            enqueue(pending);
+            combined = combined == null ? pending.result : combined.thenCombine(pending.result,
+                    (first, second) -> first.isAck() ? second : first);
         }
+        return combined;
+    }
+
+    /**
+     * Publishes appointment event to the exchange
+     */
+    public CompletableFuture<CorrelationData.Confirm> publishAppointmentEvent(AppointmentEvent event) {
+        log.debug("Queueing appointment event: {} for appointment ID: {}", event.getEventType(), event.getAppointmentId());
+        return send(event, event.getEventId()).whenComplete((confirm, error) -> {
+            if (error != null) {
+                log.error("Failed to publish appointment event {}: {}", event.getEventType(), error.getMessage());
+            } else if (!confirm.isAck()) {
+                log.error("Broker rejected appointment event {}: {}", event.getEventType(), confirm.getReason());
+            }
+        });
     }
 
     /**
@@ -76,4 +193,103 @@ public class AppointmentEventProducer {
         event.setEventType("APPOINTMENT_COMPLETED");
         publishAppointmentEvent(event);
     }
-}
\ No newline at end of file
+
+    private void enqueue(PendingPublish pending) {
+        if (!running) {
+            pending.result.completeExceptionally(new RejectedExecutionException("Event publisher stopped"));
+        } else if (!queue.offer(pending)) {
+            rejected.increment();
+            pending.result.completeExceptionally(new RejectedExecutionException("Event publish queue is full"));
+        }
+    }
+
+    // Publisher thread loop: waits for one event, then takes whatever else is queued up to batchSize
+    private void drain() {
+        List<PendingPublish> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingPublish first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Event publisher batch failed: {}", e.getMessage());
+                batch.forEach(pending -> retryOrFail(pending, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // All messages of the batch go out on one channel; confirms arrive asynchronously per message
+    private void sendBatch(List<PendingPublish> batch) {
+        rabbitTemplate.invoke(operations -> {
+            for (PendingPublish pending : batch) {
+                CorrelationData correlation = new CorrelationData(pending.correlationId);
+                correlation.getFuture().whenComplete((confirm, error) -> onConfirm(pending, confirm, error));
+                operations.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, pending.format.routingKey(), pending.payload,
+                        message -> {
+                            message.getMessageProperties().setHeader(EventFormat.SCHEMA_VERSION_HEADER,
+                                    pending.format.schemaVersion());
+                            return message;
+                        }, correlation);
+            }
+            return null;
+        });
+    }
+
+    private void onConfirm(PendingPublish pending, CorrelationData.Confirm confirm, Throwable error) {
+        if (error != null) {
+            retryOrFail(pending, error);
+            return;
+        }
+        if (confirm.isAck()) {
+            confirmLatency.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+            pending.result.complete(confirm);
+            return;
+        }
+
+        nacks.increment();
+        if (pending.attempts.getAndIncrement() < maxRetries) {
+            log.debug("Event {} nacked ({}), retrying", pending.correlationId, confirm.getReason());
+            enqueue(pending);
+        } else {
+            pending.result.complete(confirm);
+        }
+    }
+
+    private void retryOrFail(PendingPublish pending, Throwable error) {
+        if (pending.result.isDone()) {
+            return;
+        }
+        if (pending.attempts.getAndIncrement() < maxRetries) {
+            enqueue(pending);
+        } else {
+            pending.result.completeExceptionally(error);
+        }
+    }
+
+    // One event in one format on its way through the pipeline. attempts is bumped by publisher threads on a
+    // failed batch and by the connection's confirm callbacks on a nack, so it is atomic.
+    private static final class PendingPublish {
+
+        private final Object payload;
+        private final EventFormat format;
+        private final String correlationId;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<CorrelationData.Confirm> result = new CompletableFuture<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private PendingPublish(Object payload, EventFormat format, String correlationId) {
+            this.payload = payload;
+            this.format = format;
+            this.correlationId = correlationId;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.appointmentservice.producer;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Message converter for Jackson's binary formats (CBOR, Smile).
+ *
+ * Bodies are written and read as raw bytes - never through a String, which would corrupt them.
+ * The target type is the listener's parameter type when there is one, otherwise the __TypeId__
+ * header if it names one of this service's classes; anything else is read as a Map.
+ */
+public class BinaryJacksonMessageConverter implements MessageConverter {
+
+    public static final String TYPE_ID_HEADER = "__TypeId__";
+    private static final String TRUSTED_PACKAGE = "com.example.appointmentservice.";
+
+    private final ObjectMapper objectMapper;
+    private final String contentType;
+
+    public BinaryJacksonMessageConverter(ObjectMapper objectMapper, String contentType) {
+        this.objectMapper = objectMapper;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(object);
+            messageProperties.setContentType(contentType);
+            messageProperties.setContentLength(body.length);
+            messageProperties.setHeader(TYPE_ID_HEADER, object.getClass().getName());
+            return new Message(body, messageProperties);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to encode " + object.getClass().getSimpleName() + " as " + contentType, e);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        try {
+            return objectMapper.readValue(message.getBody(), targetType(message.getMessageProperties()));
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decode " + contentType + " message", e);
+        }
+    }
+
+    private JavaType targetType(MessageProperties properties) {
+        Type inferred = properties.getInferredArgumentType();
+        if (inferred != null) {
+            return objectMapper.constructType(inferred);
+        }
+
+        Object typeId = properties.getHeaders().get(TYPE_ID_HEADER);
+        if (typeId instanceof String className && className.startsWith(TRUSTED_PACKAGE)) {
+            try {
+                return objectMapper.constructType(Class.forName(className));
+            } catch (ClassNotFoundException e) {
+                // Sent by a newer producer - fall through to a generic map
+            }
+        }
+        return objectMapper.constructType(Map.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.appointmentservice.producer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Versioned, compact form of an appointment lifecycle event.
+ *
+ * Carries the ids of everything involved, the appointment's current status and time, and only the
+ * fields the transition changed (listed in changedFields). Consumers that need names, e-mail
+ * addresses or property details expand the event themselves from the User and Property Services or
+ * GET /api/appointments/{appointmentId}. Null fields are left out of the message.
+ *
+ * Adding optional fields keeps schemaVersion; removing or re-typing a field requires a new version.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactAppointmentEvent {
+
+    public static final int SCHEMA_VERSION = 2;
+
+    @Builder.Default
+    private int schemaVersion = SCHEMA_VERSION;
+
+    private String eventId;
+    private String eventType;
+    private LocalDateTime eventTimestamp;
+
+    private String appointmentId;
+    private Long requesterId;
+    private Long providerId;
+    private Long propertyId;
+
+    private String status;
+    private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
+
+    // Present only on the event types that change them
+    private String type;
+    private String cancellationReason;
+    private LocalDateTime previousDateTime;
+
+    private List<String> changedFields;
+
+    public static CompactAppointmentEvent from(AppointmentEvent event) {
+        CompactAppointmentEventBuilder compact = CompactAppointmentEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .eventTimestamp(event.getEventTimestamp())
+                .appointmentId(event.getAppointmentId())
+                .requesterId(event.getRequesterId())
+                .providerId(event.getProviderId())
+                .propertyId(event.getPropertyId())
+                .status(event.getStatus())
+                .appointmentDateTime(event.getAppointmentDateTime())
+                .durationMinutes(event.getDurationMinutes());
+
+        switch (String.valueOf(event.getEventType())) {
+            case "APPOINTMENT_CREATED" -> compact
+                    .type(event.getType())
+                    .changedFields(List.of("status", "appointmentDateTime", "durationMinutes", "type"));
+            case "APPOINTMENT_CANCELLED" -> compact
+                    .cancellationReason(event.getCancellationReason())
+                    .changedFields(List.of("status", "cancellationReason"));
+            case "APPOINTMENT_RESCHEDULED" -> compact
+                    .previousDateTime(event.getPreviousDateTime())
+                    .changedFields(List.of("status", "appointmentDateTime"));
+            default -> compact.changedFields(List.of("status"));
+        }
+        return compact.build();
+    }
+}
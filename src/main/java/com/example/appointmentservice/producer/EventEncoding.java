@@ -0,0 +1,53 @@
+package com.example.appointmentservice.producer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+// Body encodings for RabbitMQ messages, identified by the content-type header.
+// Outgoing messages use the configured encoding (app.events.encoding); incoming ones are decoded
+// by whichever encoding their content type names, so producers can switch without breaking consumers.
+public enum EventEncoding {
+
+    JSON(MessageProperties.CONTENT_TYPE_JSON),
+    CBOR("application/cbor"),
+    SMILE("application/x-jackson-smile");
+
+    private final String contentType;
+
+    EventEncoding(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public MessageConverter converter() {
+        return switch (this) {
+            case JSON -> new Jackson2JsonMessageConverter();
+            case CBOR -> new BinaryJacksonMessageConverter(configure(new CBORMapper()), contentType);
+            case SMILE -> new BinaryJacksonMessageConverter(configure(new SmileMapper()), contentType);
+        };
+    }
+
+    // Encodes with `outbound` and decodes any of the encodings by content type; messages without
+    // a known content type are treated as `outbound`
+    public static MessageConverter negotiating(EventEncoding outbound) {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(outbound.converter());
+        for (EventEncoding encoding : values()) {
+            converter.addDelegate(encoding.contentType, encoding.converter());
+        }
+        return converter;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
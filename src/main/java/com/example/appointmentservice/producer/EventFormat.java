@@ -0,0 +1,37 @@
+package com.example.appointmentservice.producer;
+
+import com.example.appointmentservice.configuration.RabbitMQConfig;
+
+// Wire formats an appointment event can be published in. Each format has its own routing key, so
+// existing consumers keep the full AppointmentEvent while new ones bind to the compact stream;
+// app.events.formats lists the ones currently produced.
+public enum EventFormat {
+
+    // AppointmentEvent with requester, provider and property details (schema version 1)
+    FAT(RabbitMQConfig.APPOINTMENT_ROUTING_KEY, 1),
+
+    // CompactAppointmentEvent: ids and changed fields only; details are fetched on demand
+    COMPACT(RabbitMQConfig.APPOINTMENT_COMPACT_ROUTING_KEY, CompactAppointmentEvent.SCHEMA_VERSION);
+
+    public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+
+    private final String routingKey;
+    private final int schemaVersion;
+
+    EventFormat(String routingKey, int schemaVersion) {
+        this.routingKey = routingKey;
+        this.schemaVersion = schemaVersion;
+    }
+
+    public String routingKey() {
+        return routingKey;
+    }
+
+    public int schemaVersion() {
+        return schemaVersion;
+    }
+
+    public Object payload(AppointmentEvent event) {
+        return this == COMPACT ? CompactAppointmentEvent.from(event) : event;
+    }
+}
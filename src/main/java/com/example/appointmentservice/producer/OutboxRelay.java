@@ -0,0 +1,224 @@
+package com.example.appointmentservice.producer;
+
+import com.example.appointmentservice.persistence.model.OutboxEventEntity;
+import com.example.appointmentservice.persistence.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// Drains appointment_outbox to RabbitMQ on a background virtual thread.
+// Each cycle claims a batch, sends every event without waiting, then waits once for all publisher
+// confirms. Acked entries are deleted in one query; nacked, timed-out or unsendable ones are retried
+// with exponential backoff and parked as FAILED after max-attempts. Delivery is at-least-once and a
+// retried event can overtake a later one for the same appointment - consumers dedupe on eventId.
+//
+// A full batch is followed immediately by the next one; otherwise the relay sleeps poll-interval-ms.
+// Claims expire after lease-seconds, so entries held by a relay that died are picked up by another.
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final long LAG_REFRESH_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final OutboxEventRepository outboxRepository;
+    private final AppointmentEventProducer producer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final Duration confirmTimeout;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final String owner = "relay-" + UUID.randomUUID();
+
+    private final Counter published;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private volatile boolean running;
+    private long nextLagRefresh;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       AppointmentEventProducer producer,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.relay.poll-interval-ms:500}") long pollIntervalMs,
+                       @Value("${app.outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${app.outbox.relay.lease-seconds:30}") long leaseSeconds,
+                       @Value("${app.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.relay.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.outboxRepository = outboxRepository;
+        this.producer = producer;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.confirmTimeout = Duration.ofMillis(confirmTimeoutMs);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+
+        this.published = Counter.builder("outbox.events.published").register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed")
+                .description("Publish attempts that were nacked, timed out or could not be sent")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Claim, send and confirm of one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest event still waiting to be published")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Outbox relay disabled");
+            return;
+        }
+        try {
+            outboxRepository.ensureIndexes();
+        } catch (Exception e) {
+            log.warn("Could not ensure outbox indexes: {}", e.getMessage());
+        }
+        running = true;
+        Thread.ofVirtual().name("outbox-relay").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int relayed = relayBatch();
+                if (relayed < batchSize) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Outbox relay cycle failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // One claim-send-confirm cycle; returns the number of entries claimed
+    public int relayBatch() throws InterruptedException {
+        long started = System.nanoTime();
+        List<OutboxEventEntity> batch = outboxRepository.claimBatch(owner, batchSize, lease);
+        if (batch.isEmpty()) {
+            refreshLag();
+            return 0;
+        }
+
+        Map<OutboxEventEntity, CompletableFuture<CorrelationData.Confirm>> inFlight = new LinkedHashMap<>();
+        List<OutboxEventEntity> retry = new ArrayList<>();
+        for (OutboxEventEntity entry : batch) {
+            try {
+                inFlight.put(entry, producer.send(entry.getPayload(), entry.getId()));
+            } catch (Exception e) {
+                retry.add(failedAttempt(entry, e.getMessage()));
+            }
+        }
+
+        List<String> confirmed = new ArrayList<>();
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (Map.Entry<OutboxEventEntity, CompletableFuture<CorrelationData.Confirm>> sent : inFlight.entrySet()) {
+            try {
+                CorrelationData.Confirm confirm = sent.getValue()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(sent.getKey().getId());
+                } else {
+                    retry.add(failedAttempt(sent.getKey(), "nack: " + confirm.getReason()));
+                }
+            } catch (TimeoutException e) {
+                retry.add(failedAttempt(sent.getKey(), "no publisher confirm within " + confirmTimeout.toMillis() + " ms"));
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                retry.add(failedAttempt(sent.getKey(), e.getMessage()));
+            }
+        }
+
+        outboxRepository.deletePublished(confirmed);
+        outboxRepository.releaseFailed(retry);
+        published.increment(confirmed.size());
+        failed.increment(retry.size());
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        refreshLag();
+
+        log.debug("Relayed outbox batch of {}: {} confirmed, {} to retry", batch.size(), confirmed.size(), retry.size());
+        return batch.size();
+    }
+
+    private OutboxEventEntity failedAttempt(OutboxEventEntity entry, String reason) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(reason);
+        entry.setAvailableAt(LocalDateTime.now().plus(backoff(attempts)));
+        if (attempts >= maxAttempts) {
+            entry.setStatus(OutboxEventEntity.Status.FAILED);
+            log.error("Giving up on outbox event {} ({}) after {} attempts: {}",
+                    entry.getEventId(), entry.getEventType(), attempts, reason);
+        }
+        return entry;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    // The pending gauges cost two indexed queries, so they are refreshed at most every few seconds
+    private void refreshLag() {
+        long now = System.nanoTime();
+        if (now - nextLagRefresh < 0) {
+            return;
+        }
+        nextLagRefresh = now + LAG_REFRESH_NANOS;
+        try {
+            pending.set(outboxRepository.countPending());
+            lagSeconds.set(outboxRepository.oldestPendingCreatedAt()
+                    .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.debug("Could not refresh outbox lag: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.appointmentservice.producer;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+
+/**
+ * Gzips outgoing message bodies of at least thresholdBytes and leaves smaller ones alone, where
+ * the gzip header and CPU cost outweigh the saving. Compressed messages carry content-encoding
+ * "gzip", which DelegatingDecompressingPostProcessor undoes on the receiving side.
+ */
+public class ThresholdGZipPostProcessor implements MessagePostProcessor {
+
+    private final GZipPostProcessor gzip = new GZipPostProcessor();
+    private final int thresholdBytes;
+
+    public ThresholdGZipPostProcessor(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) {
+        return message.getBody().length >= thresholdBytes ? gzip.postProcessMessage(message) : message;
+    }
+}
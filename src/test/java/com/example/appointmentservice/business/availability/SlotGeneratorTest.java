@@ -0,0 +1,138 @@
+package com.example.appointmentservice.business.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotGeneratorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 5);
+
+    private final SlotGenerator slotGenerator = new SlotGenerator(LocalTime.of(9, 0), LocalTime.of(17, 0), 30, 0);
+
+    @Test
+    void generate_NoBookings_SlotsFillWorkingHoursExactly() {
+        // Act
+        List<LocalDateTime> halfHour = slotGenerator.generate(DAY, 1, List.of(), 30);
+        List<LocalDateTime> hour = slotGenerator.generate(DAY, 1, List.of(), 60);
+
+        // Assert
+        assertEquals(16, halfHour.size());
+        assertEquals(at(DAY, 9, 0), halfHour.get(0));
+        assertEquals(at(DAY, 16, 30), halfHour.get(halfHour.size() - 1));
+
+        // The last slot ends exactly at closing time
+        assertEquals(15, hour.size());
+        assertEquals(at(DAY, 16, 0), hour.get(hour.size() - 1));
+    }
+
+    @Test
+    void generate_BackToBackBookings_AdjacentSlotsStayFree() {
+        // Arrange
+        List<BookedInterval> bookings = List.of(
+                booking("2", at(DAY, 10, 30), at(DAY, 11, 0)),
+                booking("1", at(DAY, 10, 0), at(DAY, 10, 30)));
+
+        // Act
+        List<LocalDateTime> slots = slotGenerator.generate(DAY, 1, bookings, 30);
+
+        // Assert
+        assertTrue(slots.contains(at(DAY, 9, 30)));
+        assertFalse(slots.contains(at(DAY, 10, 0)));
+        assertFalse(slots.contains(at(DAY, 10, 30)));
+        assertTrue(slots.contains(at(DAY, 11, 0)));
+        assertEquals(14, slots.size());
+    }
+
+    @Test
+    void generate_WithBuffer_KeepsFreeTimeAroundBookings() {
+        // Arrange
+        SlotGenerator buffered = new SlotGenerator(LocalTime.of(9, 0), LocalTime.of(17, 0), 30, 15);
+        List<BookedInterval> bookings = List.of(booking("1", at(DAY, 10, 0), at(DAY, 10, 30)));
+
+        // Act
+        List<LocalDateTime> slots = buffered.generate(DAY, 1, bookings, 30);
+
+        // Assert - the booking blocks 09:45 to 10:45
+        assertTrue(slots.contains(at(DAY, 9, 0)));
+        assertFalse(slots.contains(at(DAY, 9, 30)));
+        assertFalse(slots.contains(at(DAY, 10, 0)));
+        assertFalse(slots.contains(at(DAY, 10, 30)));
+        assertTrue(slots.contains(at(DAY, 11, 0)));
+    }
+
+    @Test
+    void generate_BookingOffTheGrid_NextSlotIsFirstGridPointAfterIt() {
+        // Arrange
+        List<BookedInterval> bookings = List.of(booking("1", at(DAY, 10, 10), at(DAY, 11, 20)));
+
+        // Act
+        List<LocalDateTime> slots = slotGenerator.generate(DAY, 1, bookings, 30);
+
+        // Assert
+        assertEquals(List.of(at(DAY, 9, 0), at(DAY, 9, 30), at(DAY, 11, 30), at(DAY, 12, 0)), slots.subList(0, 4));
+    }
+
+    @Test
+    void generate_SecondPrecisionEnd_RoundsUpToTheNextMinute() {
+        // Arrange
+        List<BookedInterval> bookings = List.of(booking("1", at(DAY, 9, 0), at(DAY, 9, 30).plusSeconds(1)));
+
+        // Act
+        List<LocalDateTime> slots = slotGenerator.generate(DAY, 1, bookings, 30);
+
+        // Assert
+        assertEquals(at(DAY, 10, 0), slots.get(0));
+    }
+
+    @Test
+    void generate_BookingsOutsideWorkingHours_DoNotBlockSlots() {
+        // Arrange
+        List<BookedInterval> bookings = List.of(
+                booking("1", at(DAY, 7, 0), at(DAY, 9, 0)),
+                booking("2", at(DAY, 17, 0), at(DAY, 19, 0)));
+
+        // Act
+        List<LocalDateTime> slots = slotGenerator.generate(DAY, 1, bookings, 30);
+
+        // Assert
+        assertEquals(16, slots.size());
+    }
+
+    @Test
+    void generate_MultipleDays_OvernightBookingBlocksBothDays() {
+        // Arrange
+        LocalDate nextDay = DAY.plusDays(1);
+        List<BookedInterval> bookings = List.of(
+                booking("3", at(DAY.plusDays(5), 9, 0), at(DAY.plusDays(5), 17, 0)),
+                booking("1", at(DAY, 16, 30), at(nextDay, 9, 30)));
+
+        // Act
+        List<LocalDateTime> slots = slotGenerator.generate(DAY, 2, bookings, 30);
+
+        // Assert
+        assertEquals(30, slots.size());
+        assertEquals(at(DAY, 16, 0), slots.get(14));
+        assertEquals(at(nextDay, 9, 30), slots.get(15));
+        assertEquals(at(nextDay, 16, 30), slots.get(29));
+    }
+
+    @Test
+    void constructor_ClosingBeforeOpening_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlotGenerator(LocalTime.of(17, 0), LocalTime.of(9, 0), 30, 0));
+    }
+
+    private static LocalDateTime at(LocalDate day, int hour, int minute) {
+        return day.atTime(hour, minute);
+    }
+
+    private static BookedInterval booking(String id, LocalDateTime start, LocalDateTime end) {
+        return new BookedInterval(id, start, end);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.appointmentservice.business.client;
+
+import com.example.appointmentservice.domain.response.PropertyServiceResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingPropertyServiceClientTest {
+
+    @Mock
+    private PropertyServiceClient delegate;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingPropertyServiceClient client;
+
+    private PropertyServiceResponse original;
+    private PropertyServiceResponse updated;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        meterRegistry = new SimpleMeterRegistry();
+        original = PropertyServiceResponse.builder().propertyId(1L).success(true).title("Flat").build();
+        updated = PropertyServiceResponse.builder().propertyId(1L).success(true).title("Renovated flat").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void getPropertyById_SoftExpired_ServedStaleWithOneRefresh() throws Exception {
+        // Arrange - stale as soon as it is cached; the refresh is held until both stale reads are done
+        client = client(0, 3600, 60);
+        CountDownLatch refreshMayFinish = new CountDownLatch(1);
+        when(delegate.getPropertyById(1L)).thenReturn(original).thenAnswer(invocation -> {
+            refreshMayFinish.await(5, TimeUnit.SECONDS);
+            return updated;
+        });
+        client.getPropertyById(1L);
+
+        // Act
+        PropertyServiceResponse first = client.getPropertyById(1L);
+        PropertyServiceResponse second = client.getPropertyById(1L);
+        refreshMayFinish.countDown();
+
+        // Assert
+        assertSame(original, first);
+        assertSame(original, second);
+        verify(delegate, timeout(1000).times(2)).getPropertyById(1L);
+        verify(delegate, after(200).times(2)).getPropertyById(1L);
+        assertEquals(2.0, meterRegistry.counter("property.cache.stale.served").count());
+    }
+
+    @Test
+    void getPropertyById_HardExpired_FetchedInsteadOfServed() {
+        // Arrange
+        client = client(0, 0, 60);
+        when(delegate.getPropertyById(1L)).thenReturn(original, updated);
+        client.getPropertyById(1L);
+
+        // Act
+        PropertyServiceResponse response = client.getPropertyById(1L);
+
+        // Assert
+        assertSame(updated, response);
+        verify(delegate, times(2)).getPropertyById(1L);
+        assertEquals(0.0, meterRegistry.counter("property.cache.stale.served").count());
+    }
+
+    @Test
+    void getPropertyById_BreakerOpen_ServesExpiredEntryWithoutRefresh() {
+        // Arrange
+        client = client(0, 0, 60);
+        when(delegate.getPropertyById(1L)).thenReturn(original);
+        client.getPropertyById(1L);
+        circuitBreakerRegistry.circuitBreaker("propertyService").transitionToOpenState();
+
+        // Act
+        PropertyServiceResponse response = client.getPropertyById(1L);
+
+        // Assert
+        assertSame(original, response);
+        verify(delegate, after(200).times(1)).getPropertyById(1L);
+        assertEquals(1.0, meterRegistry.counter("property.cache.stale.served").count());
+    }
+
+    @Test
+    void getPropertyById_RefreshFailed_NotRetriedWithinBackoff() throws Exception {
+        // Arrange
+        client = client(0, 3600, 60);
+        when(delegate.getPropertyById(1L)).thenReturn(original)
+                .thenThrow(new RuntimeException("Property Service unavailable"));
+        client.getPropertyById(1L);
+        client.getPropertyById(1L);
+        awaitRefreshFailures(1);
+
+        // Act
+        PropertyServiceResponse response = client.getPropertyById(1L);
+
+        // Assert
+        assertSame(original, response);
+        verify(delegate, after(200).times(2)).getPropertyById(1L);
+        assertEquals(1.0, meterRegistry.counter("property.cache.stale.served").count());
+    }
+
+    // One attempt per refresh, so a failure is recorded without waiting out the retry backoff
+    private CachingPropertyServiceClient client(long softTtlSeconds, long hardTtlSeconds, long refreshBackoffSeconds) {
+        return new CachingPropertyServiceClient(delegate, circuitBreakerRegistry,
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), meterRegistry,
+                100, softTtlSeconds, hardTtlSeconds, refreshBackoffSeconds);
+    }
+
+    // The backoff is stamped right after the failure is counted, on the refresh thread
+    private void awaitRefreshFailures(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("property.cache.refresh.failures").count() < expected) {
+            assertTrue(System.nanoTime() < deadline, "Refresh did not fail in time");
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+    }
+}
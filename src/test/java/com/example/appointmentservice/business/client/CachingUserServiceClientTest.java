@@ -0,0 +1,99 @@
+package com.example.appointmentservice.business.client;
+
+import com.example.appointmentservice.consumer.UserEventConsumer;
+import com.example.appointmentservice.consumer.UserUpdatedEvent;
+import com.example.appointmentservice.domain.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingUserServiceClientTest {
+
+    @Mock
+    private UserServiceClient delegate;
+
+    private CachingUserServiceClient cachingUserServiceClient;
+
+    private UserDto alice;
+    private UserDto bob;
+
+    @BeforeEach
+    void setUp() {
+        cachingUserServiceClient = new CachingUserServiceClient(delegate, new SimpleMeterRegistry(), 100, 600);
+        alice = UserDto.builder().id(1L).username("alice").build();
+        bob = UserDto.builder().id(2L).username("bob").build();
+    }
+
+    @Test
+    void getUserById_Miss_FetchesOnceThenServesFromCache() {
+        // Arrange
+        when(delegate.getUserById(1L)).thenReturn(alice);
+
+        // Act
+        UserDto first = cachingUserServiceClient.getUserById(1L);
+        UserDto second = cachingUserServiceClient.getUserById(1L);
+
+        // Assert
+        assertSame(alice, first);
+        assertSame(alice, second);
+        verify(delegate, times(1)).getUserById(1L);
+    }
+
+    @Test
+    void getUserByUsername_AfterLookupById_IsCacheHit() {
+        // Arrange
+        when(delegate.getUserById(1L)).thenReturn(alice);
+        cachingUserServiceClient.getUserById(1L);
+
+        // Act
+        UserDto user = cachingUserServiceClient.getUserByUsername("alice");
+
+        // Assert
+        assertSame(alice, user);
+        verify(delegate, never()).getUserByUsername(anyString());
+    }
+
+    @Test
+    void getUsersByIds_OnlyUncachedIdsGoOverTheWire() {
+        // Arrange
+        when(delegate.getUserById(1L)).thenReturn(alice);
+        cachingUserServiceClient.getUserById(1L);
+        when(delegate.getUsersByIds(List.of(2L))).thenReturn(List.of(bob));
+
+        // Act
+        List<UserDto> users = cachingUserServiceClient.getUsersByIds(List.of(2L, 1L, 2L));
+
+        // Assert
+        assertEquals(List.of(bob, alice), users);
+        verify(delegate).getUsersByIds(List.of(2L));
+    }
+
+    @Test
+    void onUserUpdated_EvictsBothKeys() {
+        // Arrange
+        UserDto renamed = UserDto.builder().id(1L).username("alice.smith").build();
+        when(delegate.getUserById(1L)).thenReturn(alice, renamed);
+        when(delegate.getUserByUsername("alice")).thenReturn(null);
+        cachingUserServiceClient.getUserById(1L);
+
+        UserEventConsumer consumer = new UserEventConsumer(cachingUserServiceClient);
+
+        // Act
+        consumer.onUserUpdated(UserUpdatedEvent.builder().eventType("USER_UPDATED").userId(1L).build());
+
+        // Assert - the id lookup is fetched again, and the old username no longer resolves from cache
+        assertSame(renamed, cachingUserServiceClient.getUserById(1L));
+        assertNull(cachingUserServiceClient.getUserByUsername("alice"));
+        verify(delegate, times(2)).getUserById(1L);
+        verify(delegate).getUserByUsername("alice");
+    }
+}
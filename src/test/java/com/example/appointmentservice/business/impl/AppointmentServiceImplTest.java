@@ -3,33 +3,66 @@ package com.example.appointmentservice.business.impl;
 import static org.junit.jupiter.api.Assertions.*;
 
 
+import com.example.appointmentservice.business.availability.BookedInterval;
+import com.example.appointmentservice.business.availability.ProviderBookingIndex;
+import com.example.appointmentservice.business.availability.ProviderDayBitmaps;
+import com.example.appointmentservice.business.availability.SlotGenerator;
+import com.example.appointmentservice.business.client.EventEnrichmentExecutor;
 import com.example.appointmentservice.business.client.PropertyServiceClient;
+import com.example.appointmentservice.business.client.RemoteLookupExecutor;
 import com.example.appointmentservice.business.client.UserServiceClient;
 import com.example.appointmentservice.business.mapper.AppointmentMapperDto;
 import com.example.appointmentservice.domain.dto.AppointmentDto;
+import com.example.appointmentservice.domain.dto.BulkOperationResultDto;
 import com.example.appointmentservice.domain.dto.PropertyDto;
+import com.example.appointmentservice.domain.dto.ProviderDayAvailabilityDto;
 import com.example.appointmentservice.domain.response.PropertyServiceResponse;
 import com.example.appointmentservice.domain.dto.UserDto;
 import com.example.appointmentservice.domain.request.AppointmentRequest;
+import com.example.appointmentservice.domain.request.BulkLifecycleRequest;
 import com.example.appointmentservice.domain.response.AppointmentResponse;
+import com.example.appointmentservice.persistence.model.AppointmentCounterEntity;
 import com.example.appointmentservice.persistence.model.AppointmentEntity;
 import com.example.appointmentservice.persistence.model.AppointmentStatus;
 import com.example.appointmentservice.persistence.model.AppointmentType;
+import com.example.appointmentservice.persistence.model.OutboxEventEntity;
+import com.example.appointmentservice.persistence.repository.AppointmentCounterRepository;
+import com.example.appointmentservice.persistence.repository.AppointmentCursor;
 import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import com.example.appointmentservice.persistence.repository.AppointmentStatistics;
+import com.example.appointmentservice.persistence.repository.OutboxEventRepository;
+import com.example.appointmentservice.persistence.repository.StatusChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -49,6 +82,33 @@ public class AppointmentServiceImplTest {
     @Mock
     private PropertyServiceClient propertyServiceClient;
 
+    @Mock
+    private AppointmentCounterRepository appointmentCounterRepository;
+
+    @Mock
+    private ProviderBookingIndex providerBookingIndex;
+
+    @Mock
+    private ProviderDayBitmaps providerDayBitmaps;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    private RemoteLookupExecutor remoteLookupExecutor =
+            new RemoteLookupExecutor(Executors.newVirtualThreadPerTaskExecutor(), Duration.ofSeconds(5));
+
+    // Runs post-commit enrichment inline so its effects can be verified deterministically
+    @Spy
+    private EventEnrichmentExecutor eventEnrichmentExecutor =
+            new EventEnrichmentExecutor(new ExecutorServiceAdapter(new SyncTaskExecutor()), new SimpleMeterRegistry());
+
+    @Spy
+    private SlotGenerator slotGenerator = new SlotGenerator(LocalTime.of(9, 0), LocalTime.of(17, 0), 30, 0);
+
     @InjectMocks
     private AppointmentServiceImpl appointmentService;
 
@@ -238,6 +298,64 @@ public class AppointmentServiceImplTest {
         verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
     }
 
+    @Test
+    void createAppointment_Reserved_SkipsPreCheckQueries() {
+        // Arrange
+        when(userServiceClient.getUserByUsername("testuser")).thenReturn(userDto);
+        when(propertyServiceClient.getPropertyById(1L)).thenReturn(propertyServiceResponse);
+        when(providerDayBitmaps.reserve(eq(2L), any(BookedInterval.class), isNull())).thenReturn(Optional.of(true));
+        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+
+        // Act
+        AppointmentResponse response = appointmentService.createAppointment(appointmentRequest);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(appointmentRepository, never()).existsByRequesterIdAndProviderIdAndPropertyIdAndAppointmentDateTime(
+                anyLong(), anyLong(), anyLong(), any(LocalDateTime.class));
+        verify(appointmentRepository, never()).hasConflictingAppointment(
+                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any());
+        // reserve() already set the bits
+        verify(providerDayBitmaps, never()).move(any(), any(), any());
+    }
+
+    @Test
+    void createAppointment_ReservationRefused_ReturnsConflict() {
+        // Arrange
+        when(userServiceClient.getUserByUsername("testuser")).thenReturn(userDto);
+        when(propertyServiceClient.getPropertyById(1L)).thenReturn(propertyServiceResponse);
+        when(providerDayBitmaps.reserve(eq(2L), any(BookedInterval.class), isNull())).thenReturn(Optional.of(false));
+
+        // Act
+        AppointmentResponse response = appointmentService.createAppointment(appointmentRequest);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("TIME_CONFLICT", response.getErrorCode());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+    }
+
+    @Test
+    void createAppointment_DuplicateKeyOnInsert_ReleasesReservation() {
+        // Arrange
+        when(userServiceClient.getUserByUsername("testuser")).thenReturn(userDto);
+        when(propertyServiceClient.getPropertyById(1L)).thenReturn(propertyServiceResponse);
+        when(providerDayBitmaps.reserve(eq(2L), any(BookedInterval.class), isNull())).thenReturn(Optional.of(true));
+        when(appointmentRepository.save(any(AppointmentEntity.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: duplicate_check_idx"));
+
+        // Act
+        AppointmentResponse response = appointmentService.createAppointment(appointmentRequest);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("Duplicate appointment already exists", response.getMessage());
+        assertEquals("DUPLICATE_APPOINTMENT", response.getErrorCode());
+        verify(providerDayBitmaps).cancelReservation(eq(2L), any(BookedInterval.class), isNull());
+        verifyNoInteractions(appointmentCounterRepository);
+    }
+
     @Test
     void getAppointmentById_Success() {
         // Arrange
@@ -282,11 +400,11 @@ public class AppointmentServiceImplTest {
     void getAppointmentsByUserId_Success() {
         // Arrange
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
-        when(appointmentRepository.findByUserId(1L)).thenReturn(appointments);
+        when(appointmentRepository.findPageByUserId(1L, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByUserId("1");
+        AppointmentResponse response = appointmentService.getAppointmentsByUserId("1", null, null);
 
         // Assert
         assertNotNull(response);
@@ -294,19 +412,21 @@ public class AppointmentServiceImplTest {
         assertEquals("Retrieved 1 appointments for user", response.getMessage());
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
+        assertFalse(response.getHasMore());
+        assertNull(response.getNextCursor());
 
-        verify(appointmentRepository).findByUserId(1L);
+        verify(appointmentRepository).findPageByUserId(1L, null, 51);
     }
 
     @Test
     void getAppointmentsByRequesterId_Success() {
         // Arrange
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
-        when(appointmentRepository.findByRequesterId(1L)).thenReturn(appointments);
+        when(appointmentRepository.findPageByRequesterId(1L, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByRequesterId("1");
+        AppointmentResponse response = appointmentService.getAppointmentsByRequesterId("1", null, null);
 
         // Assert
         assertNotNull(response);
@@ -315,18 +435,18 @@ public class AppointmentServiceImplTest {
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
 
-        verify(appointmentRepository).findByRequesterId(1L);
+        verify(appointmentRepository).findPageByRequesterId(1L, null, 51);
     }
 
     @Test
     void getAppointmentsByProviderId_Success() {
         // Arrange
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
-        when(appointmentRepository.findByProviderId(2L)).thenReturn(appointments);
+        when(appointmentRepository.findPageByProviderId(2L, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByProviderId("2");
+        AppointmentResponse response = appointmentService.getAppointmentsByProviderId("2", null, null);
 
         // Assert
         assertNotNull(response);
@@ -335,18 +455,62 @@ public class AppointmentServiceImplTest {
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
 
-        verify(appointmentRepository).findByProviderId(2L);
+        verify(appointmentRepository).findPageByProviderId(2L, null, 51);
+    }
+
+    @Test
+    void getAppointmentsByProviderId_EnrichesPageWithOneBatchCallPerService() {
+        // Arrange
+        AppointmentEntity secondEntity = AppointmentEntity.builder()
+                .id("appointment456")
+                .requesterId(3L)
+                .providerId(2L)
+                .propertyId(1L)
+                .status(AppointmentStatus.PENDING)
+                .build();
+        AppointmentDto secondDto = AppointmentDto.builder()
+                .id("appointment456")
+                .requesterId(3L)
+                .providerId(2L)
+                .propertyId(1L)
+                .status(AppointmentStatus.PENDING)
+                .build();
+        UserDto providerDto = UserDto.builder().id(2L).username("provider").build();
+        UserDto secondRequesterDto = UserDto.builder().id(3L).username("student").build();
+
+        when(appointmentRepository.findPageByProviderId(2L, null, 51)).thenReturn(Arrays.asList(appointmentEntity, secondEntity));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+        when(appointmentMapper.toDto(secondEntity)).thenReturn(secondDto);
+        when(userServiceClient.getUsersByIds(List.of(1L, 2L, 3L)))
+                .thenReturn(Arrays.asList(userDto, providerDto, secondRequesterDto));
+        when(propertyServiceClient.getPropertiesByIds(List.of(1L))).thenReturn(List.of(propertyServiceResponse));
+
+        // Act
+        AppointmentResponse response = appointmentService.getAppointmentsByProviderId("2", null, null);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals(2, response.getAppointments().size());
+        assertEquals("testuser", response.getAppointments().get(0).getRequesterUsername());
+        assertEquals("student", response.getAppointments().get(1).getRequesterUsername());
+        assertEquals("provider", response.getAppointments().get(1).getProviderUsername());
+        assertEquals("Test Property", response.getAppointments().get(1).getPropertyTitle());
+
+        verify(userServiceClient).getUsersByIds(anyList());
+        verify(propertyServiceClient).getPropertiesByIds(anyList());
+        verify(userServiceClient, never()).getUserById(anyLong());
+        verify(propertyServiceClient, never()).getPropertyById(anyLong());
     }
 
     @Test
     void getAppointmentsByPropertyId_Success() {
         // Arrange
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
-        when(appointmentRepository.findByPropertyId(1L)).thenReturn(appointments);
+        when(appointmentRepository.findPageByPropertyId(1L, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByPropertyId("1");
+        AppointmentResponse response = appointmentService.getAppointmentsByPropertyId("1", null, null);
 
         // Assert
         assertNotNull(response);
@@ -355,18 +519,18 @@ public class AppointmentServiceImplTest {
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
 
-        verify(appointmentRepository).findByPropertyId(1L);
+        verify(appointmentRepository).findPageByPropertyId(1L, null, 51);
     }
 
     @Test
     void getAppointmentsByStatus_Success() {
         // Arrange
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
-        when(appointmentRepository.findByStatus(AppointmentStatus.PENDING)).thenReturn(appointments);
+        when(appointmentRepository.findPageByStatus(AppointmentStatus.PENDING, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByStatus(AppointmentStatus.PENDING);
+        AppointmentResponse response = appointmentService.getAppointmentsByStatus(AppointmentStatus.PENDING, null, null);
 
         // Assert
         assertNotNull(response);
@@ -375,18 +539,63 @@ public class AppointmentServiceImplTest {
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
 
-        verify(appointmentRepository).findByStatus(AppointmentStatus.PENDING);
+        verify(appointmentRepository).findPageByStatus(AppointmentStatus.PENDING, null, 51);
+    }
+
+    @Test
+    void getAppointmentsByStatus_FullPage_ReturnsCursorForNextPage() {
+        // Arrange
+        AppointmentEntity laterEntity = AppointmentEntity.builder()
+                .id("appointment456")
+                .appointmentDateTime(appointmentEntity.getAppointmentDateTime().plusHours(1))
+                .status(AppointmentStatus.PENDING)
+                .build();
+        AppointmentCursor expectedCursor = AppointmentCursor.of(appointmentEntity);
+
+        when(appointmentRepository.findPageByStatus(AppointmentStatus.PENDING, null, 2))
+                .thenReturn(Arrays.asList(appointmentEntity, laterEntity));
+        when(appointmentRepository.findPageByStatus(AppointmentStatus.PENDING, expectedCursor, 2))
+                .thenReturn(List.of(laterEntity));
+        when(appointmentMapper.toDto(any(AppointmentEntity.class))).thenReturn(appointmentDto);
+
+        // Act
+        AppointmentResponse firstPage = appointmentService.getAppointmentsByStatus(AppointmentStatus.PENDING, null, 1);
+        AppointmentResponse secondPage = appointmentService.getAppointmentsByStatus(
+                AppointmentStatus.PENDING, firstPage.getNextCursor(), 1);
+
+        // Assert
+        assertTrue(firstPage.isSuccess());
+        assertEquals(1, firstPage.getAppointments().size());
+        assertEquals(1, firstPage.getPageSize());
+        assertTrue(firstPage.getHasMore());
+        assertEquals(expectedCursor, AppointmentCursor.decode(firstPage.getNextCursor()));
+
+        assertTrue(secondPage.isSuccess());
+        assertEquals(1, secondPage.getAppointments().size());
+        assertFalse(secondPage.getHasMore());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getAppointmentsByStatus_InvalidCursor_ReturnsError() {
+        // Act
+        AppointmentResponse response = appointmentService.getAppointmentsByStatus(
+                AppointmentStatus.PENDING, "not-a-cursor", null);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        verify(appointmentRepository, never()).findPageByStatus(any(), any(), anyInt());
     }
 
     @Test
     void getAppointmentsByType_Success() {
         // Arrange
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
-        when(appointmentRepository.findByType(AppointmentType.PROPERTY_VIEWING)).thenReturn(appointments);
+        when(appointmentRepository.findPageByType(AppointmentType.PROPERTY_VIEWING, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByType(AppointmentType.PROPERTY_VIEWING);
+        AppointmentResponse response = appointmentService.getAppointmentsByType(AppointmentType.PROPERTY_VIEWING, null, null);
 
         // Assert
         assertNotNull(response);
@@ -395,14 +604,14 @@ public class AppointmentServiceImplTest {
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
 
-        verify(appointmentRepository).findByType(AppointmentType.PROPERTY_VIEWING);
+        verify(appointmentRepository).findPageByType(AppointmentType.PROPERTY_VIEWING, null, 51);
     }
 
     @Test
     void confirmAppointment_Success() {
         // Arrange
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
@@ -412,16 +621,66 @@ public class AppointmentServiceImplTest {
         assertNotNull(response);
         assertTrue(response.isSuccess());
         assertEquals("Appointment confirmed successfully", response.getMessage());
+        assertEquals(AppointmentStatus.CONFIRMED, appointmentEntity.getStatus());
 
-        verify(appointmentRepository).findById("appointment123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        verify(appointmentRepository).transition(eq("appointment123"), isNull(), any(StatusChange.class));
+        verify(appointmentRepository, never()).findById(anyString());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+        verify(appointmentCounterRepository).applyTransition(1L, 2L, AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+        verify(outboxEventRepository).insert(argThat((OutboxEventEntity entry) ->
+                "APPOINTMENT_CONFIRMED".equals(entry.getEventType())
+                        && entry.getStatus() == OutboxEventEntity.Status.PENDING));
+    }
+
+    @Test
+    void confirmAppointment_EnrichesEventOnlyAfterCommit() {
+        // Arrange
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+        when(userServiceClient.getUserById(1L)).thenReturn(userDto);
+        when(outboxEventRepository.releaseEnriched(any(), any())).thenReturn(true);
+
+        // Act
+        AppointmentResponse response = appointmentService.confirmAppointment("appointment123");
+
+        // Assert - the entry is inserted on hold without remote data, then released with it
+        assertTrue(response.isSuccess());
+        InOrder inOrder = inOrder(outboxEventRepository, userServiceClient);
+        inOrder.verify(outboxEventRepository).insert(argThat((OutboxEventEntity entry) ->
+                entry.getAvailableAt().isAfter(LocalDateTime.now())
+                        && entry.getPayload().getRequesterEmail() == null));
+        inOrder.verify(userServiceClient).getUserById(1L);
+        inOrder.verify(outboxEventRepository).releaseEnriched(any(), argThat(event ->
+                "APPOINTMENT_CONFIRMED".equals(event.getEventType())
+                        && "john.doe@example.com".equals(event.getRequesterEmail())));
+    }
+
+    @Test
+    void confirmAppointment_EnrichmentRejected_StillSucceeds() {
+        // Arrange
+        doReturn(false).when(eventEnrichmentExecutor).submit(any());
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+
+        // Act
+        AppointmentResponse response = appointmentService.confirmAppointment("appointment123");
+
+        // Assert - the held entry is left for the relay to publish as inserted
+        assertTrue(response.isSuccess());
+        verify(outboxEventRepository).insert(any(OutboxEventEntity.class));
+        verify(outboxEventRepository, never()).releaseEnriched(any(), any());
+        verifyNoInteractions(userServiceClient, propertyServiceClient);
     }
 
     @Test
     void confirmAppointment_NotPending_ReturnsError() {
         // Arrange
         appointmentEntity.setStatus(AppointmentStatus.CONFIRMED);
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.empty());
+        when(appointmentRepository.existsById("appointment123")).thenReturn(true);
 
         // Act
         AppointmentResponse response = appointmentService.confirmAppointment("appointment123");
@@ -433,13 +692,15 @@ public class AppointmentServiceImplTest {
         assertEquals("INVALID_STATUS", response.getErrorCode());
 
         verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+        verify(outboxEventRepository, never()).insert(any(OutboxEventEntity.class));
+        verifyNoInteractions(appointmentCounterRepository);
     }
 
     @Test
     void confirmAppointmentByToken_Success() {
         // Arrange
-        when(appointmentRepository.findByConfirmationToken("token123")).thenReturn(Optional.of(appointmentEntity));
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.transitionByConfirmationToken(eq("token123"), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
@@ -450,8 +711,9 @@ public class AppointmentServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("Appointment confirmed successfully", response.getMessage());
 
-        verify(appointmentRepository).findByConfirmationToken("token123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        verify(appointmentRepository).transitionByConfirmationToken(eq("token123"), any(StatusChange.class));
+        verify(appointmentRepository, never()).findByConfirmationToken(anyString());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
     }
 
     @Test
@@ -475,8 +737,8 @@ public class AppointmentServiceImplTest {
     @Test
     void cancelAppointment_Success() {
         // Arrange
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
@@ -487,15 +749,38 @@ public class AppointmentServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("Appointment cancelled successfully", response.getMessage());
 
-        verify(appointmentRepository).findById("appointment123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        verify(appointmentRepository).transition(eq("appointment123"), isNull(), any(StatusChange.class));
+        verify(appointmentRepository, never()).findById(anyString());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+        verify(outboxEventRepository).insert(argThat((OutboxEventEntity entry) ->
+                "User cancelled".equals(entry.getPayload().getCancellationReason())));
+    }
+
+    @Test
+    void cancelAppointment_OutboxInsertFails_ReturnsErrorWithoutTransition() {
+        // Arrange
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+        when(outboxEventRepository.insert(any(OutboxEventEntity.class))).thenThrow(new IllegalStateException("write conflict"));
+
+        // Act
+        AppointmentResponse response = appointmentService.cancelAppointment("appointment123", "User cancelled");
+
+        // Assert - the transaction rolled the appointment back, so nothing downstream may see the change
+        assertFalse(response.isSuccess());
+        verify(transactionOperations).execute(any());
+        verifyNoInteractions(appointmentCounterRepository);
+        verify(providerDayBitmaps, never()).move(any(), any(), any());
     }
 
     @Test
     void cancelAppointment_AlreadyCancelled_ReturnsError() {
         // Arrange
         appointmentEntity.setStatus(AppointmentStatus.CANCELLED);
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.empty());
+        when(appointmentRepository.existsById("appointment123")).thenReturn(true);
 
         // Act
         AppointmentResponse response = appointmentService.cancelAppointment("appointment123", "User cancelled");
@@ -507,6 +792,8 @@ public class AppointmentServiceImplTest {
         assertEquals("INVALID_STATUS", response.getErrorCode());
 
         verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+        verify(outboxEventRepository, never()).insert(any(OutboxEventEntity.class));
+        verifyNoInteractions(appointmentCounterRepository);
     }
 
     @Test
@@ -516,7 +803,8 @@ public class AppointmentServiceImplTest {
         when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
         when(appointmentRepository.hasConflictingAppointment(
                 anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), eq("appointment123"))).thenReturn(false);
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.transition(eq("appointment123"), eq(appointmentEntity.getAppointmentDateTime()),
+                any(StatusChange.class))).thenReturn(Optional.of(appointmentEntity));
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
@@ -528,7 +816,36 @@ public class AppointmentServiceImplTest {
         assertEquals("Appointment rescheduled successfully", response.getMessage());
 
         verify(appointmentRepository).findById("appointment123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+        assertEquals(AppointmentStatus.RESCHEDULED, appointmentEntity.getStatus());
+        assertEquals(newDateTime.plusMinutes(60), appointmentEntity.getEndDateTime());
+        verify(providerDayBitmaps).move(eq(2L),
+                argThat(released -> released != null && !released.start().equals(newDateTime)),
+                argThat(occupied -> occupied != null && occupied.start().equals(newDateTime)));
+    }
+
+    @Test
+    void rescheduleAppointment_Reserved_ReleasesOnlyTheOldRemainder() {
+        // Arrange
+        LocalDateTime newDateTime = LocalDateTime.now().plusDays(2);
+        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
+        when(providerDayBitmaps.reserve(eq(2L), argThat(wanted -> wanted.start().equals(newDateTime)), notNull()))
+                .thenReturn(Optional.of(true));
+        when(appointmentRepository.transition(eq("appointment123"), eq(appointmentEntity.getAppointmentDateTime()),
+                any(StatusChange.class))).thenReturn(Optional.of(appointmentEntity));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+
+        // Act
+        AppointmentResponse response = appointmentService.rescheduleAppointment("appointment123", newDateTime);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(appointmentRepository, never()).hasConflictingAppointment(
+                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any());
+        verify(providerDayBitmaps).releaseRemainder(eq(2L),
+                argThat(held -> !held.start().equals(newDateTime)),
+                argThat(wanted -> wanted.start().equals(newDateTime)));
+        verify(providerDayBitmaps, never()).move(any(), any(), any());
     }
 
     @Test
@@ -553,8 +870,8 @@ public class AppointmentServiceImplTest {
     void completeAppointment_Success() {
         // Arrange
         appointmentEntity.setStatus(AppointmentStatus.CONFIRMED);
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
@@ -565,15 +882,18 @@ public class AppointmentServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("Appointment marked as completed", response.getMessage());
 
-        verify(appointmentRepository).findById("appointment123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        verify(appointmentRepository).transition(eq("appointment123"), isNull(), any(StatusChange.class));
+        verify(appointmentRepository, never()).findById(anyString());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
     }
 
     @Test
     void completeAppointment_InvalidStatus_ReturnsError() {
         // Arrange
         appointmentEntity.setStatus(AppointmentStatus.PENDING);
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.empty());
+        when(appointmentRepository.existsById("appointment123")).thenReturn(true);
 
         // Act
         AppointmentResponse response = appointmentService.completeAppointment("appointment123");
@@ -585,13 +905,51 @@ public class AppointmentServiceImplTest {
         assertEquals("INVALID_STATUS", response.getErrorCode());
 
         verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+        verify(outboxEventRepository, never()).insert(any(OutboxEventEntity.class));
+        verifyNoInteractions(appointmentCounterRepository);
+    }
+
+    @Test
+    void completeAppointment_NotFound_ReturnsError() {
+        // Arrange - the conditional write matches nothing and the appointment does not exist
+        when(appointmentRepository.transition(eq("missing"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.empty());
+        when(appointmentRepository.existsById("missing")).thenReturn(false);
+
+        // Act
+        AppointmentResponse response = appointmentService.completeAppointment("missing");
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("APPOINTMENT_NOT_FOUND", response.getErrorCode());
+        verify(outboxEventRepository, never()).insert(any(OutboxEventEntity.class));
+    }
+
+    @Test
+    void rescheduleAppointment_ChangedConcurrently_ReleasesReservation() {
+        // Arrange - another request moved or cancelled the appointment between the read and the write
+        LocalDateTime newDateTime = LocalDateTime.now().plusDays(2);
+        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
+        when(providerDayBitmaps.reserve(eq(2L), any(BookedInterval.class), notNull())).thenReturn(Optional.of(true));
+        when(appointmentRepository.transition(eq("appointment123"), eq(appointmentEntity.getAppointmentDateTime()),
+                any(StatusChange.class))).thenReturn(Optional.empty());
+
+        // Act
+        AppointmentResponse response = appointmentService.rescheduleAppointment("appointment123", newDateTime);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("CONCURRENT_MODIFICATION", response.getErrorCode());
+        verify(providerDayBitmaps).cancelReservation(eq(2L), any(BookedInterval.class), notNull());
+        verify(providerDayBitmaps, never()).releaseRemainder(any(), any(), any());
+        verifyNoInteractions(appointmentCounterRepository);
     }
 
     @Test
     void markAsNoShow_Success() {
         // Arrange
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.transition(eq("appointment123"), isNull(), any(StatusChange.class)))
+                .thenReturn(Optional.of(appointmentEntity));
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
@@ -602,8 +960,75 @@ public class AppointmentServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("Appointment marked as no-show", response.getMessage());
 
-        verify(appointmentRepository).findById("appointment123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        verify(appointmentRepository).transition(eq("appointment123"), isNull(), any(StatusChange.class));
+        verify(appointmentRepository, never()).findById(anyString());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
+    }
+
+    @Test
+    void applyBulkLifecycleAction_Confirm_ReportsResultPerAppointment() {
+        // Arrange
+        AppointmentEntity completed = AppointmentEntity.builder()
+                .id("completed123").status(AppointmentStatus.COMPLETED).requesterId(1L).providerId(2L).build();
+        BulkLifecycleRequest request = BulkLifecycleRequest.builder()
+                .action(BulkLifecycleRequest.Action.CONFIRM)
+                .appointmentIds(List.of("appointment123", "missing", "completed123", "appointment123"))
+                .build();
+        when(appointmentRepository.findAllById(List.of("appointment123", "missing", "completed123")))
+                .thenReturn(List.of(appointmentEntity, completed));
+        when(appointmentRepository.transitionAll(eq(List.of(appointmentEntity)), any(StatusChange.class)))
+                .thenReturn(Set.of("appointment123"));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+
+        // Act
+        AppointmentResponse response = appointmentService.applyBulkLifecycleAction(request, appointment -> true);
+
+        // Assert - one read, one bulk write, one outbox insert and one counter update for the whole batch
+        assertTrue(response.isSuccess());
+        assertEquals(3, response.getTotalCount());
+        assertEquals(List.of("appointment123", "missing", "completed123"),
+                response.getResults().stream().map(BulkOperationResultDto::getAppointmentId).toList());
+        assertEquals(AppointmentStatus.CONFIRMED, response.getResults().get(0).getStatus());
+        assertEquals("APPOINTMENT_NOT_FOUND", response.getResults().get(1).getErrorCode());
+        assertEquals("INVALID_STATUS", response.getResults().get(2).getErrorCode());
+
+        verify(appointmentRepository, never()).findById(anyString());
+        verify(appointmentRepository, never()).transition(anyString(), any(), any(StatusChange.class));
+        verify(outboxEventRepository).insert(argThat((List<OutboxEventEntity> entries) -> entries.size() == 1
+                && "APPOINTMENT_CONFIRMED".equals(entries.get(0).getEventType())));
+        verify(outboxEventRepository).releaseEnriched(anyMap());
+        verify(appointmentCounterRepository).applyTransitions(List.of(new AppointmentCounterRepository.Move(
+                1L, 2L, AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED)));
+        verify(appointmentCounterRepository, never()).applyTransition(any(), any(), any(), any());
+    }
+
+    @Test
+    void applyBulkLifecycleAction_ChangedConcurrentlyOrDenied_NothingRecorded() {
+        // Arrange
+        AppointmentEntity othersAppointment = AppointmentEntity.builder()
+                .id("other123").status(AppointmentStatus.PENDING).requesterId(9L).providerId(2L).build();
+        BulkLifecycleRequest request = BulkLifecycleRequest.builder()
+                .action(BulkLifecycleRequest.Action.CANCEL)
+                .appointmentIds(List.of("appointment123", "other123"))
+                .cancellationReason("Property let")
+                .build();
+        when(appointmentRepository.findAllById(List.of("appointment123", "other123")))
+                .thenReturn(List.of(appointmentEntity, othersAppointment));
+        when(appointmentRepository.transitionAll(eq(List.of(appointmentEntity)), any(StatusChange.class)))
+                .thenReturn(Set.of());
+
+        // Act
+        AppointmentResponse response = appointmentService.applyBulkLifecycleAction(request,
+                appointment -> appointment.getRequesterId() == 1L);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals("CONCURRENT_MODIFICATION", response.getResults().get(0).getErrorCode());
+        assertEquals("ACCESS_DENIED", response.getResults().get(1).getErrorCode());
+        assertEquals(AppointmentStatus.PENDING, appointmentEntity.getStatus());
+
+        verify(outboxEventRepository, never()).insert(anyList());
+        verifyNoInteractions(appointmentCounterRepository, providerBookingIndex, providerDayBitmaps);
     }
 
     @Test
@@ -648,6 +1073,7 @@ public class AppointmentServiceImplTest {
 
         verify(appointmentRepository).findById("appointment123");
         verify(appointmentRepository).delete(appointmentEntity);
+        verify(appointmentCounterRepository).applyTransition(1L, 2L, AppointmentStatus.PENDING, null);
     }
 
     @Test
@@ -665,6 +1091,21 @@ public class AppointmentServiceImplTest {
         verify(appointmentRepository).hasConflictingAppointment(2L, startTime, endTime, null);
     }
 
+    @Test
+    void hasConflictingAppointment_AnsweredByIndex() {
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.now().plusHours(1);
+        LocalDateTime endTime = startTime.plusHours(1);
+        when(providerBookingIndex.hasOverlap(2L, startTime, endTime, null)).thenReturn(Optional.of(true));
+
+        // Act
+        boolean hasConflict = appointmentService.hasConflictingAppointment("2", startTime, endTime, null);
+
+        // Assert
+        assertTrue(hasConflict);
+        verify(appointmentRepository, never()).hasConflictingAppointment(anyLong(), any(), any(), any());
+    }
+
     @Test
     void hasConflictingAppointment_False() {
         // Arrange
@@ -700,6 +1141,76 @@ public class AppointmentServiceImplTest {
         verify(appointmentRepository).findProviderBookedSlots(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
+    @Test
+    void getAvailableSlots_FromDayBitmap_SkipsIndexAndMongo() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        BookedInterval afternoon = new BookedInterval("bitmap", date.atTime(13, 0), date.atTime(17, 0));
+        when(providerDayBitmaps.bookedIntervals(2L, date)).thenReturn(Optional.of(List.of(afternoon)));
+
+        // Act
+        AppointmentResponse response = appointmentService.getAvailableSlots("2", date, 60);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals(7, response.getAppointments().size());
+        assertEquals(date.atTime(12, 0), response.getAppointments().get(6).getAppointmentDateTime());
+
+        verifyNoInteractions(providerBookingIndex);
+        verify(appointmentRepository, never()).findProviderBookedSlots(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getAvailableSlots_WithinIndexHorizon_SkipsMongo() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        BookedInterval morning = new BookedInterval("booked1", date.atTime(9, 0), date.atTime(12, 0));
+        when(providerBookingIndex.bookedIntervals(2L, date.atStartOfDay(), date.plusDays(1).atStartOfDay()))
+                .thenReturn(Optional.of(List.of(morning)));
+
+        // Act
+        AppointmentResponse response = appointmentService.getAvailableSlots("2", date, 60);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertFalse(response.getAppointments().isEmpty());
+        assertTrue(response.getAppointments().stream()
+                .noneMatch(slot -> slot.getAppointmentDateTime().isBefore(date.atTime(12, 0))));
+        // Intervals are half-open, so a slot may start exactly when the booking ends
+        assertEquals(date.atTime(12, 0), response.getAppointments().get(0).getAppointmentDateTime());
+
+        verify(appointmentRepository, never()).findProviderBookedSlots(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void searchAvailability_OneQueryPerBatch_EmitsEveryProviderDay() {
+        // Arrange
+        ReflectionTestUtils.setField(appointmentService, "availabilitySearchPool", ForkJoinPool.commonPool());
+        LocalDate day = LocalDate.now().plusDays(1);
+        AppointmentEntity fullDay = AppointmentEntity.builder()
+                .id("booked1")
+                .providerId(2L)
+                .appointmentDateTime(day.atTime(9, 0))
+                .endDateTime(day.atTime(17, 0))
+                .durationMinutes(480)
+                .build();
+        when(appointmentRepository.findBookedSlotsForProviders(eq(List.of(2L, 3L)), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(fullDay));
+        List<ProviderDayAvailabilityDto> emitted = new ArrayList<>();
+
+        // Act
+        int count = appointmentService.searchAvailability(List.of(2L, 3L, 2L), day, day.plusDays(1), 60, emitted::addAll);
+
+        // Assert
+        assertEquals(4, count);
+        assertEquals(List.of(2L, 2L, 3L, 3L), emitted.stream().map(ProviderDayAvailabilityDto::getProviderId).toList());
+        assertTrue(emitted.get(0).getSlots().isEmpty());
+        assertEquals(15, emitted.get(1).getSlots().size());
+        assertEquals(15, emitted.get(2).getSlots().size());
+
+        verify(appointmentRepository).findBookedSlotsForProviders(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
     @Test
     void getUpcomingAppointmentsForReminders_Success() {
         // Arrange
@@ -721,54 +1232,73 @@ public class AppointmentServiceImplTest {
     @Test
     void markReminderSent_Success() {
         // Arrange
-        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointmentEntity));
-        when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(appointmentEntity);
+        when(appointmentRepository.markRemindersSent(List.of("appointment123"))).thenReturn(1L);
 
         // Act
         appointmentService.markReminderSent("appointment123");
 
-        // Assert
-        verify(appointmentRepository).findById("appointment123");
-        verify(appointmentRepository).save(any(AppointmentEntity.class));
+        // Assert - one conditional update, no read-modify-write of the whole document
+        verify(appointmentRepository).markRemindersSent(List.of("appointment123"));
+        verify(appointmentRepository, never()).findById(anyString());
+        verify(appointmentRepository, never()).save(any(AppointmentEntity.class));
     }
 
     @Test
     void getAppointmentStatistics_Success() {
         // Arrange
-        AppointmentEntity completedAppointment = AppointmentEntity.builder()
-                .status(AppointmentStatus.COMPLETED)
-                .appointmentDateTime(LocalDateTime.now().minusDays(1))
-                .build();
-
-        AppointmentEntity cancelledAppointment = AppointmentEntity.builder()
-                .status(AppointmentStatus.CANCELLED)
-                .appointmentDateTime(LocalDateTime.now().plusDays(1))
-                .build();
+        when(appointmentRepository.aggregateStatistics(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(new AppointmentStatistics(4, 1, 1, 1, 1));
 
-        AppointmentEntity upcomingAppointment = AppointmentEntity.builder()
-                .status(AppointmentStatus.CONFIRMED)
-                .appointmentDateTime(LocalDateTime.now().plusDays(2))
-                .build();
+        // Act
+        AppointmentResponse response = appointmentService.getAppointmentStatistics(1L);
 
-        List<AppointmentEntity> userAppointments = Arrays.asList(
-                completedAppointment, cancelledAppointment, upcomingAppointment);
+        // Assert
+        assertNotNull(response);
+        assertTrue(response.isSuccess());
+        assertEquals("Statistics retrieved successfully", response.getMessage());
+        assertNotNull(response.getStatistics());
+        assertEquals(1L, response.getStatistics().getUserId());
+        assertEquals(4, response.getStatistics().getTotalAppointments());
+        assertEquals(1, response.getStatistics().getCompletedAppointments());
+        assertEquals(1, response.getStatistics().getCancelledAppointments());
+        assertEquals(1, response.getStatistics().getNoShowAppointments());
+        assertEquals(1, response.getStatistics().getUpcomingAppointments());
+
+        verify(appointmentRepository).aggregateStatistics(eq(1L), any(LocalDateTime.class));
+        verify(appointmentRepository, never()).findByUserId(anyLong());
+        // Counters are not seeded yet, so they are not read at all
+        verify(appointmentCounterRepository, never()).findAllById(any());
+    }
 
-        when(appointmentRepository.findByUserId(1L)).thenReturn(userAppointments);
+    @Test
+    void getAppointmentStatistics_FromCounters_SumsRolesWithoutAggregating() {
+        // Arrange
+        AppointmentCounterEntity asRequester = AppointmentCounterEntity.builder()
+                .id("1:REQUESTER").userId(1L).role(AppointmentCounterEntity.Role.REQUESTER).total(3)
+                .statusCounts(new HashMap<>(Map.of("COMPLETED", 1L, "PENDING", 2L)))
+                .build();
+        AppointmentCounterEntity asProvider = AppointmentCounterEntity.builder()
+                .id("1:PROVIDER").userId(1L).role(AppointmentCounterEntity.Role.PROVIDER).total(2)
+                .statusCounts(new HashMap<>(Map.of("CANCELLED", 1L, "CONFIRMED", 1L)))
+                .build();
+        when(appointmentCounterRepository.isSeeded()).thenReturn(true);
+        when(appointmentCounterRepository.findAllById(List.of("1:REQUESTER", "1:PROVIDER")))
+                .thenReturn(List.of(asRequester, asProvider));
+        // One of the three PENDING/CONFIRMED appointments has already started
+        when(appointmentRepository.countUpcoming(eq(1L), any(LocalDateTime.class))).thenReturn(2L);
 
         // Act
         AppointmentResponse response = appointmentService.getAppointmentStatistics(1L);
 
         // Assert
-        assertNotNull(response);
         assertTrue(response.isSuccess());
-        assertEquals("Statistics retrieved successfully", response.getMessage());
-        assertNotNull(response.getAppointment());
-        assertTrue(response.getAppointment().getNotes().contains("Total: 3"));
-        assertTrue(response.getAppointment().getNotes().contains("Completed: 1"));
-        assertTrue(response.getAppointment().getNotes().contains("Cancelled: 1"));
-        assertTrue(response.getAppointment().getNotes().contains("Upcoming: 1"));
+        assertEquals(5, response.getStatistics().getTotalAppointments());
+        assertEquals(1, response.getStatistics().getCompletedAppointments());
+        assertEquals(1, response.getStatistics().getCancelledAppointments());
+        assertEquals(0, response.getStatistics().getNoShowAppointments());
+        assertEquals(2, response.getStatistics().getUpcomingAppointments());
 
-        verify(appointmentRepository).findByUserId(1L);
+        verify(appointmentRepository, never()).aggregateStatistics(anyLong(), any(LocalDateTime.class));
     }
 
     @Test
@@ -778,11 +1308,11 @@ public class AppointmentServiceImplTest {
         LocalDateTime endDate = LocalDateTime.now().plusDays(7);
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
 
-        when(appointmentRepository.findByAppointmentDateTimeBetween(startDate, endDate)).thenReturn(appointments);
+        when(appointmentRepository.findPageByDateRange(startDate, endDate, null, 51)).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
 
         // Act
-        AppointmentResponse response = appointmentService.getAppointmentsByDateRange(startDate, endDate);
+        AppointmentResponse response = appointmentService.getAppointmentsByDateRange(startDate, endDate, null, null);
 
         // Assert
         assertNotNull(response);
@@ -791,7 +1321,7 @@ public class AppointmentServiceImplTest {
         assertNotNull(response.getAppointments());
         assertEquals(1, response.getAppointments().size());
 
-        verify(appointmentRepository).findByAppointmentDateTimeBetween(startDate, endDate);
+        verify(appointmentRepository).findPageByDateRange(startDate, endDate, null, 51);
     }
 
     @Test
@@ -800,7 +1330,7 @@ public class AppointmentServiceImplTest {
         List<AppointmentEntity> appointments = Arrays.asList(appointmentEntity);
         when(appointmentRepository.findAll()).thenReturn(appointments);
         when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
-        when(propertyServiceClient.getPropertyById(1L)).thenReturn(propertyServiceResponse);
+        when(propertyServiceClient.getPropertiesByIds(List.of(1L))).thenReturn(List.of(propertyServiceResponse));
 
         // Act
         AppointmentResponse response = appointmentService.getAllAppointmentsWithPropertyDetails();
@@ -813,6 +1343,33 @@ public class AppointmentServiceImplTest {
         assertEquals(1, response.getAppointments().size());
 
         verify(appointmentRepository).findAll();
+        verify(propertyServiceClient, never()).getPropertyById(anyLong());
+        assertEquals("Test Property", response.getAppointments().get(0).getPropertyTitle());
+    }
+
+    @Test
+    void streamAllAppointmentsWithPropertyDetails_EmitsEnrichedChunks() {
+        // Arrange
+        AppointmentEntity secondEntity = AppointmentEntity.builder().id("appointment456").propertyId(1L).build();
+        AppointmentDto secondDto = AppointmentDto.builder().id("appointment456").propertyId(1L).build();
+        ReflectionTestUtils.setField(appointmentService, "exportChunkSize", 1);
+
+        when(appointmentRepository.streamAll(anyInt())).thenReturn(Stream.of(appointmentEntity, secondEntity));
+        when(appointmentMapper.toDto(appointmentEntity)).thenReturn(appointmentDto);
+        when(appointmentMapper.toDto(secondEntity)).thenReturn(secondDto);
+        when(propertyServiceClient.getPropertiesByIds(List.of(1L))).thenReturn(List.of(propertyServiceResponse));
+
+        List<List<String>> chunks = new ArrayList<>();
+
+        // Act
+        long exported = appointmentService.streamAllAppointmentsWithPropertyDetails(chunk ->
+                chunks.add(chunk.stream().map(AppointmentDto::getPropertyTitle).toList()));
+
+        // Assert
+        assertEquals(2, exported);
+        assertEquals(List.of(List.of("Test Property"), List.of("Test Property")), chunks);
+        verify(propertyServiceClient, times(2)).getPropertiesByIds(List.of(1L));
+        verify(appointmentRepository, never()).findAll();
     }
 
     @Test
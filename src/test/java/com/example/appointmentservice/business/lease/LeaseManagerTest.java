@@ -0,0 +1,156 @@
+package com.example.appointmentservice.business.lease;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+import com.example.appointmentservice.persistence.repository.LeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaseManagerTest {
+
+    private static final String LEASE = "reminder-dispatch";
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    private LeaseManager leaseManager;
+
+    @BeforeEach
+    void setUp() {
+        // ttl 30s, so holds() turns false 10s (one renewal interval) before expiry
+        leaseManager = new LeaseManager(leaseRepository, TTL.toSeconds(), "pod-1");
+    }
+
+    @Test
+    void acquire_FreeLease_HeldUntilNearExpiry() {
+        // Arrange
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL)).thenReturn(Optional.of(lease(1, TTL)));
+
+        // Act
+        boolean acquired = leaseManager.acquire(LEASE);
+
+        // Assert
+        assertTrue(acquired);
+        assertTrue(leaseManager.holds(LEASE));
+        assertTrue(leaseManager.owner().startsWith("pod-1-"));
+        assertTrue(leaseManager.heldLeases().containsKey(LEASE));
+    }
+
+    @Test
+    void acquire_HeldByAnotherOwner_NotHeld() {
+        // Arrange
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL)).thenReturn(Optional.empty());
+
+        // Act
+        boolean acquired = leaseManager.acquire(LEASE);
+
+        // Assert
+        assertFalse(acquired);
+        assertFalse(leaseManager.holds(LEASE));
+    }
+
+    @Test
+    void acquire_RepositoryFails_NotHeld() {
+        // Arrange
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL))
+                .thenThrow(new DataAccessResourceFailureException("Mongo unavailable"));
+
+        // Act & Assert
+        assertFalse(leaseManager.acquire(LEASE));
+        assertFalse(leaseManager.holds(LEASE));
+    }
+
+    @Test
+    void holds_WithinLastRenewalInterval_TreatedAsLost() {
+        // Arrange - written with only 5s left, less than the 10s renewal interval
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL))
+                .thenReturn(Optional.of(lease(1, Duration.ofSeconds(5))));
+        leaseManager.acquire(LEASE);
+
+        // Act & Assert
+        assertFalse(leaseManager.holds(LEASE));
+    }
+
+    @Test
+    void acquire_StillOursNearExpiry_RenewsWithoutBumpingEpoch() {
+        // Arrange
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL))
+                .thenReturn(Optional.of(lease(1, Duration.ofSeconds(5))));
+        when(leaseRepository.renew(LEASE, leaseManager.owner(), TTL)).thenReturn(Optional.of(lease(1, TTL)));
+        leaseManager.acquire(LEASE);
+
+        // Act
+        boolean acquired = leaseManager.acquire(LEASE);
+
+        // Assert
+        assertTrue(acquired);
+        assertTrue(leaseManager.holds(LEASE));
+        assertEquals(1, leaseManager.heldLeases().get(LEASE).getEpoch());
+        verify(leaseRepository, times(1)).acquire(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void acquire_RenewalLostToAnotherOwner_FallsBackToAcquire() {
+        // Arrange
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL))
+                .thenReturn(Optional.of(lease(1, Duration.ofSeconds(5))), Optional.empty());
+        when(leaseRepository.renew(LEASE, leaseManager.owner(), TTL)).thenReturn(Optional.empty());
+        leaseManager.acquire(LEASE);
+
+        // Act
+        boolean acquired = leaseManager.acquire(LEASE);
+
+        // Assert
+        assertFalse(acquired);
+        assertFalse(leaseManager.heldLeases().containsKey(LEASE));
+        verify(leaseRepository, times(2)).acquire(LEASE, leaseManager.owner(), TTL);
+    }
+
+    @Test
+    void release_HeldLease_GivenUp() {
+        // Arrange
+        when(leaseRepository.acquire(LEASE, leaseManager.owner(), TTL)).thenReturn(Optional.of(lease(1, TTL)));
+        leaseManager.acquire(LEASE);
+
+        // Act
+        leaseManager.release(LEASE);
+
+        // Assert
+        assertFalse(leaseManager.holds(LEASE));
+        verify(leaseRepository).release(LEASE, leaseManager.owner());
+    }
+
+    @Test
+    void release_NotHeld_NothingWritten() {
+        // Act
+        leaseManager.release(LEASE);
+
+        // Assert
+        verify(leaseRepository, never()).release(anyString(), anyString());
+    }
+
+    private LeaseEntity lease(long epoch, Duration remaining) {
+        LocalDateTime now = LocalDateTime.now();
+        return LeaseEntity.builder()
+                .name(LEASE)
+                .owner(leaseManager.owner())
+                .epoch(epoch)
+                .acquiredAt(now)
+                .renewedAt(now)
+                .expiresAt(now.plus(remaining))
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.appointmentservice.business.reminder;
+
+import com.example.appointmentservice.business.lease.LeaseManager;
+import com.example.appointmentservice.persistence.model.AppointmentEntity;
+import com.example.appointmentservice.persistence.model.AppointmentStatus;
+import com.example.appointmentservice.persistence.repository.AppointmentCursor;
+import com.example.appointmentservice.persistence.repository.AppointmentRepository;
+import com.example.appointmentservice.producer.AppointmentEvent;
+import com.example.appointmentservice.producer.AppointmentEventProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AppointmentReminderDispatcherTest {
+
+    private static final String LEASE = "appointment-reminders";
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentEventProducer producer;
+
+    @Mock
+    private LeaseManager leaseManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void dispatch_WalksEachBucketPageByPage() throws Exception {
+        // Arrange - lead 2h in 60 minute buckets, pages of 2
+        AppointmentReminderDispatcher dispatcher = dispatcher(2);
+        AppointmentEntity first = appointment("a1", NOW.plusMinutes(10));
+        AppointmentEntity second = appointment("a2", NOW.plusMinutes(20));
+        AppointmentEntity third = appointment("a3", NOW.plusMinutes(30));
+        AppointmentEntity fourth = appointment("a4", NOW.plusMinutes(90));
+        when(leaseManager.holds(LEASE)).thenReturn(true);
+        when(appointmentRepository.findPendingReminderPage(NOW, NOW.plusHours(1), null, 2))
+                .thenReturn(List.of(first, second));
+        when(appointmentRepository.findPendingReminderPage(NOW, NOW.plusHours(1), AppointmentCursor.of(second), 2))
+                .thenReturn(List.of(third));
+        when(appointmentRepository.findPendingReminderPage(NOW.plusHours(1), NOW.plusHours(2), null, 2))
+                .thenReturn(List.of(fourth));
+        when(producer.send(any(AppointmentEvent.class), anyString())).thenReturn(confirm(true));
+
+        // Act
+        int dispatched = dispatcher.dispatch(NOW);
+
+        // Assert
+        assertEquals(4, dispatched);
+        InOrder inOrder = inOrder(appointmentRepository);
+        inOrder.verify(appointmentRepository).findPendingReminderPage(NOW, NOW.plusHours(1), null, 2);
+        inOrder.verify(appointmentRepository).markRemindersSent(List.of("a1", "a2"));
+        inOrder.verify(appointmentRepository).findPendingReminderPage(NOW, NOW.plusHours(1), AppointmentCursor.of(second), 2);
+        inOrder.verify(appointmentRepository).markRemindersSent(List.of("a3"));
+        inOrder.verify(appointmentRepository).findPendingReminderPage(NOW.plusHours(1), NOW.plusHours(2), null, 2);
+        inOrder.verify(appointmentRepository).markRemindersSent(List.of("a4"));
+        inOrder.verifyNoMoreInteractions();
+        assertEquals(4.0, meterRegistry.counter("reminders.sent").count());
+    }
+
+    @Test
+    void dispatch_NackedOrUnconfirmed_LeftPending() throws Exception {
+        // Arrange
+        AppointmentReminderDispatcher dispatcher = dispatcher(10);
+        AppointmentEntity acked = appointment("acked", NOW.plusMinutes(10));
+        AppointmentEntity nacked = appointment("nacked", NOW.plusMinutes(20));
+        AppointmentEntity timedOut = appointment("timed-out", NOW.plusMinutes(30));
+        when(leaseManager.holds(LEASE)).thenReturn(true);
+        when(appointmentRepository.findPendingReminderPage(any(LocalDateTime.class), any(LocalDateTime.class), isNull(), eq(10)))
+                .thenReturn(List.of(acked, nacked, timedOut), List.of());
+        when(producer.send(argThat(event -> event != null && "acked".equals(event.getAppointmentId())), anyString()))
+                .thenReturn(confirm(true));
+        when(producer.send(argThat(event -> event != null && "nacked".equals(event.getAppointmentId())), anyString()))
+                .thenReturn(confirm(false));
+        when(producer.send(argThat(event -> event != null && "timed-out".equals(event.getAppointmentId())), anyString()))
+                .thenReturn(new CompletableFuture<>());
+
+        // Act
+        int dispatched = dispatcher.dispatch(NOW);
+
+        // Assert
+        assertEquals(1, dispatched);
+        verify(appointmentRepository).markRemindersSent(List.of("acked"));
+        verify(appointmentRepository, never()).markRemindersSent(argThat(ids -> ids != null && ids.contains("nacked")));
+        verify(appointmentRepository, never()).markRemindersSent(argThat(ids -> ids != null && ids.contains("timed-out")));
+        assertEquals(2.0, meterRegistry.counter("reminders.failed").count());
+    }
+
+    @Test
+    void dispatch_LeaseLostBetweenPages_Stops() throws Exception {
+        // Arrange - held for the first bucket's first page only
+        AppointmentReminderDispatcher dispatcher = dispatcher(2);
+        when(leaseManager.holds(LEASE)).thenReturn(true, false);
+        when(appointmentRepository.findPendingReminderPage(NOW, NOW.plusHours(1), null, 2))
+                .thenReturn(List.of(appointment("a1", NOW.plusMinutes(10)), appointment("a2", NOW.plusMinutes(20))));
+        when(producer.send(any(AppointmentEvent.class), anyString())).thenReturn(confirm(true));
+
+        // Act
+        int dispatched = dispatcher.dispatch(NOW);
+
+        // Assert
+        assertEquals(2, dispatched);
+        verify(appointmentRepository, times(1)).findPendingReminderPage(any(), any(), any(), anyInt());
+        verify(appointmentRepository).markRemindersSent(List.of("a1", "a2"));
+    }
+
+    @Test
+    void dispatchDueReminders_LeaseHeldElsewhere_SendsNothing() {
+        // Arrange
+        AppointmentReminderDispatcher dispatcher = dispatcher(2);
+        when(leaseManager.acquire(LEASE)).thenReturn(false);
+
+        // Act
+        dispatcher.dispatchDueReminders();
+
+        // Assert
+        verifyNoInteractions(appointmentRepository, producer);
+    }
+
+    private AppointmentReminderDispatcher dispatcher(int batchSize) {
+        // lead 2h, 60 minute buckets, 200 ms to wait for confirms
+        return new AppointmentReminderDispatcher(appointmentRepository, producer, leaseManager, meterRegistry,
+                true, 2, 60, batchSize, 200);
+    }
+
+    private static AppointmentEntity appointment(String id, LocalDateTime start) {
+        return AppointmentEntity.builder()
+                .id(id)
+                .appointmentDateTime(start)
+                .durationMinutes(30)
+                .status(AppointmentStatus.CONFIRMED)
+                .reminderSent(false)
+                .build();
+    }
+
+    private static CompletableFuture<CorrelationData.Confirm> confirm(boolean ack) {
+        return CompletableFuture.completedFuture(new CorrelationData.Confirm(ack, ack ? null : "nacked"));
+    }
+}
@@ -5,7 +5,12 @@ import com.example.appointmentservice.business.client.PropertyServiceClient;
 import com.example.appointmentservice.business.client.UserServiceClient;
 import com.example.appointmentservice.business.interfaces.AppointmentService;
 import com.example.appointmentservice.domain.dto.AppointmentDto;
+import com.example.appointmentservice.domain.dto.AppointmentStatisticsDto;
+import com.example.appointmentservice.domain.dto.BulkOperationResultDto;
+import com.example.appointmentservice.domain.dto.ProviderDayAvailabilityDto;
 import com.example.appointmentservice.domain.request.AppointmentRequest;
+import com.example.appointmentservice.domain.request.AvailabilitySearchRequest;
+import com.example.appointmentservice.domain.request.BulkLifecycleRequest;
 import com.example.appointmentservice.domain.response.AppointmentResponse;
 import com.example.appointmentservice.persistence.model.AppointmentStatus;
 import com.example.appointmentservice.persistence.model.AppointmentType;
@@ -19,13 +24,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -206,7 +214,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByUserId("1")).thenReturn(response);
+        when(appointmentService.getAppointmentsByUserId("1", null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/user/1"))
@@ -217,7 +225,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByUserId("1");
+        verify(appointmentService).getAppointmentsByUserId("1", null, null);
     }
 
     @Test
@@ -230,7 +238,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByRequesterId("1")).thenReturn(response);
+        when(appointmentService.getAppointmentsByRequesterId("1", null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/requester/1"))
@@ -241,7 +249,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByRequesterId("1");
+        verify(appointmentService).getAppointmentsByRequesterId("1", null, null);
     }
 
     @Test
@@ -254,7 +262,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByProviderId("2")).thenReturn(response);
+        when(appointmentService.getAppointmentsByProviderId("2", null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/provider/2"))
@@ -265,7 +273,27 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByProviderId("2");
+        verify(appointmentService).getAppointmentsByProviderId("2", null, null);
+    }
+
+    @Test
+    void getAppointmentsByProviderId_WithCursor_PassesPagingParameters() throws Exception {
+        // Arrange
+        AppointmentResponse response = AppointmentResponse.success(
+                "Retrieved 1 appointments for provider", Arrays.asList(appointmentDto), "next-cursor", 20);
+
+        when(appointmentService.getAppointmentsByProviderId("2", "page-cursor", 20)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/appointments/provider/2")
+                        .param("cursor", "page-cursor")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.pageSize").value(20));
+
+        verify(appointmentService).getAppointmentsByProviderId("2", "page-cursor", 20);
     }
 
     @Test
@@ -278,7 +306,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByPropertyId("1")).thenReturn(response);
+        when(appointmentService.getAppointmentsByPropertyId("1", null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/property/1"))
@@ -289,7 +317,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByPropertyId("1");
+        verify(appointmentService).getAppointmentsByPropertyId("1", null, null);
     }
 
     @Test
@@ -302,7 +330,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByStatus(AppointmentStatus.PENDING)).thenReturn(response);
+        when(appointmentService.getAppointmentsByStatus(AppointmentStatus.PENDING, null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/status/PENDING"))
@@ -313,7 +341,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByStatus(AppointmentStatus.PENDING);
+        verify(appointmentService).getAppointmentsByStatus(AppointmentStatus.PENDING, null, null);
     }
 
     @Test
@@ -326,7 +354,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByType(AppointmentType.PROPERTY_VIEWING)).thenReturn(response);
+        when(appointmentService.getAppointmentsByType(AppointmentType.PROPERTY_VIEWING, null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/type/PROPERTY_VIEWING"))
@@ -337,7 +365,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByType(AppointmentType.PROPERTY_VIEWING);
+        verify(appointmentService).getAppointmentsByType(AppointmentType.PROPERTY_VIEWING, null, null);
     }
 
     @Test
@@ -367,6 +395,65 @@ public class AppointmentControllerTest {
         verify(appointmentService).getAvailableSlots(eq("2"), any(LocalDate.class), eq(60));
     }
 
+    @Test
+    void searchAvailableSlots_StreamsOneLinePerProviderDay() throws Exception {
+        // Arrange
+        LocalDate day = LocalDate.now().plusDays(1);
+        AvailabilitySearchRequest request = AvailabilitySearchRequest.builder()
+                .providerIds(List.of(2L, 3L))
+                .startDate(day)
+                .endDate(day)
+                .durationMinutes(60)
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<List<ProviderDayAvailabilityDto>> consumer = invocation.getArgument(4);
+            consumer.accept(List.of(
+                    new ProviderDayAvailabilityDto(2L, day, 60, List.of(day.atTime(9, 0))),
+                    new ProviderDayAvailabilityDto(3L, day, 60, List.of())));
+            return 2;
+        }).when(appointmentService).searchAvailability(eq(List.of(2L, 3L)), eq(day), eq(day), eq(60), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/v1/appointments/available-slots/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readValue(lines[0], ProviderDayAvailabilityDto.class).getProviderId());
+        assertEquals(3L, objectMapper.readValue(lines[1], ProviderDayAvailabilityDto.class).getProviderId());
+    }
+
+    @Test
+    void searchAvailableSlots_RangeTooLong_ReturnsBadRequest() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.now().plusDays(1);
+        AvailabilitySearchRequest request = AvailabilitySearchRequest.builder()
+                .providerIds(List.of(2L))
+                .startDate(start)
+                .endDate(start.plusDays(31))
+                .durationMinutes(60)
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/appointments/available-slots/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(appointmentService, never()).searchAvailability(any(), any(), any(), anyInt(), any());
+    }
+
     @Test
     void confirmAppointment_Success() throws Exception {
         // Arrange
@@ -588,6 +675,53 @@ public class AppointmentControllerTest {
         verify(appointmentService).markAsNoShow("appointment123");
     }
 
+    @Test
+    void applyBulkLifecycleAction_ReturnsResultPerAppointment() throws Exception {
+        // Arrange
+        BulkLifecycleRequest request = BulkLifecycleRequest.builder()
+                .action(BulkLifecycleRequest.Action.CONFIRM)
+                .appointmentIds(List.of("appointment123", "missing"))
+                .build();
+        AppointmentResponse response = AppointmentResponse.bulk("1 of 2 appointments updated", List.of(
+                BulkOperationResultDto.applied("appointment123", AppointmentStatus.CONFIRMED),
+                BulkOperationResultDto.failed("missing", "APPOINTMENT_NOT_FOUND", "Appointment not found")));
+
+        when(appointmentSecurityService.appointmentPermission(true)).thenReturn(appointment -> true);
+        when(appointmentService.applyBulkLifecycleAction(any(BulkLifecycleRequest.class), any())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/appointments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.totalCount").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("APPOINTMENT_NOT_FOUND"));
+
+        verify(appointmentSecurityService).appointmentPermission(true);
+        verify(appointmentService).applyBulkLifecycleAction(
+                argThat(bulk -> bulk.getAppointmentIds().size() == 2), any());
+    }
+
+    @Test
+    void applyBulkLifecycleAction_NoAppointmentIds_BadRequest() throws Exception {
+        // Arrange
+        BulkLifecycleRequest request = BulkLifecycleRequest.builder()
+                .action(BulkLifecycleRequest.Action.CANCEL)
+                .appointmentIds(List.of())
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/appointments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(appointmentService, never()).applyBulkLifecycleAction(any(), any());
+    }
+
     @Test
     void updateAppointment_Success() throws Exception {
         // Arrange
@@ -672,16 +806,15 @@ public class AppointmentControllerTest {
     @Test
     void getAppointmentStatistics_Success() throws Exception {
         // Arrange
-        AppointmentDto statisticsDto = AppointmentDto.builder()
-                .id("1")
-                .notes("Total: 10, Completed: 5, Cancelled: 2, Upcoming: 3")
+        AppointmentStatisticsDto statisticsDto = AppointmentStatisticsDto.builder()
+                .userId(1L)
+                .totalAppointments(10)
+                .completedAppointments(5)
+                .cancelledAppointments(2)
+                .upcomingAppointments(3)
                 .build();
 
-        AppointmentResponse response = AppointmentResponse.builder()
-                .success(true)
-                .message("Statistics retrieved successfully")
-                .appointment(statisticsDto)
-                .build();
+        AppointmentResponse response = AppointmentResponse.statistics("Statistics retrieved successfully", statisticsDto);
 
         when(appointmentService.getAppointmentStatistics(1L)).thenReturn(response);
 
@@ -691,7 +824,10 @@ public class AppointmentControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Statistics retrieved successfully"))
-                .andExpect(jsonPath("$.appointment.notes").value("Total: 10, Completed: 5, Cancelled: 2, Upcoming: 3"));
+                .andExpect(jsonPath("$.statistics.totalAppointments").value(10))
+                .andExpect(jsonPath("$.statistics.completedAppointments").value(5))
+                .andExpect(jsonPath("$.statistics.cancelledAppointments").value(2))
+                .andExpect(jsonPath("$.statistics.upcomingAppointments").value(3));
 
         verify(appointmentService).getAppointmentStatistics(1L);
     }
@@ -752,7 +888,7 @@ public class AppointmentControllerTest {
                 .appointments(appointments)
                 .build();
 
-        when(appointmentService.getAppointmentsByDateRange(startDate, endDate)).thenReturn(response);
+        when(appointmentService.getAppointmentsByDateRange(startDate, endDate, null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/date-range")
@@ -765,7 +901,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(1));
 
-        verify(appointmentService).getAppointmentsByDateRange(startDate, endDate);
+        verify(appointmentService).getAppointmentsByDateRange(startDate, endDate, null, null);
     }
 
     @Test
@@ -783,7 +919,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Start date must be before end date"));
 
-        verify(appointmentService, never()).getAppointmentsByDateRange(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(appointmentService, never()).getAppointmentsByDateRange(any(LocalDateTime.class), any(LocalDateTime.class), any(), any());
     }
 
     @Test
@@ -813,7 +949,7 @@ public class AppointmentControllerTest {
                 .appointments(Collections.emptyList())
                 .build();
 
-        when(appointmentService.getAppointmentsByUserId("999")).thenReturn(response);
+        when(appointmentService.getAppointmentsByUserId("999", null, null)).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/appointments/user/999"))
@@ -824,7 +960,7 @@ public class AppointmentControllerTest {
                 .andExpect(jsonPath("$.appointments").isArray())
                 .andExpect(jsonPath("$.appointments.length()").value(0));
 
-        verify(appointmentService).getAppointmentsByUserId("999");
+        verify(appointmentService).getAppointmentsByUserId("999", null, null);
     }
 
     @Test
@@ -0,0 +1,100 @@
+package com.example.appointmentservice.persistence.migration;
+
+import com.example.appointmentservice.business.lease.LeaseManager;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IndexMigratorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LeaseManager leaseManager;
+
+    @Test
+    void matches_SamePartialFilterInAnotherKeyOrder_Matches() {
+        // Arrange - as listIndexes returns it: ints for the direction, the filter fields reordered
+        IndexDefinition definition = partialIndex(Criteria.where("status").in(List.of("PENDING")).and("property_id").exists(true));
+        IndexInfo current = IndexInfo.indexInfoOf(indexDocument()
+                .append("partialFilterExpression", new Document("property_id", new Document("$exists", true))
+                        .append("status", new Document("$in", List.of("PENDING")))));
+
+        // Act & Assert
+        assertTrue(IndexMigrator.matches(current, definition));
+    }
+
+    @Test
+    void matches_PartialFilterContentChanged_Rebuilt() {
+        // Arrange
+        IndexDefinition definition = partialIndex(Criteria.where("status").in(List.of("PENDING", "CONFIRMED")));
+        IndexInfo current = IndexInfo.indexInfoOf(indexDocument()
+                .append("partialFilterExpression", new Document("status", new Document("$in", List.of("PENDING")))));
+
+        // Act & Assert
+        assertFalse(IndexMigrator.matches(current, definition));
+    }
+
+    @Test
+    void matches_ExpireAfterOrSparseChanged_Rebuilt() {
+        // Arrange
+        IndexDefinition definition = new Index().named("test_idx").on("created_at", Sort.Direction.ASC)
+                .expire(3600);
+        IndexInfo differentTtl = IndexInfo.indexInfoOf(new Document("name", "test_idx")
+                .append("key", new Document("created_at", 1)).append("expireAfterSeconds", 60));
+        IndexInfo sparse = IndexInfo.indexInfoOf(new Document("name", "test_idx")
+                .append("key", new Document("created_at", 1)).append("expireAfterSeconds", 3600).append("sparse", true));
+        IndexInfo same = IndexInfo.indexInfoOf(new Document("name", "test_idx")
+                .append("key", new Document("created_at", 1)).append("expireAfterSeconds", 3600));
+
+        // Act & Assert
+        assertFalse(IndexMigrator.matches(differentTtl, definition));
+        assertFalse(IndexMigrator.matches(sparse, definition));
+        assertTrue(IndexMigrator.matches(same, definition));
+    }
+
+    @Test
+    void migrate_LeaseHeldByAnotherReplica_LeavesIndexesAlone() {
+        // Arrange
+        IndexMigrator migrator = new IndexMigrator(mongoTemplate, leaseManager, true, true);
+        when(leaseManager.acquire("index-migration")).thenReturn(false);
+
+        // Act
+        migrator.migrate();
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+        verify(leaseManager, never()).release(anyString());
+    }
+
+    private static IndexDefinition partialIndex(Criteria filter) {
+        return new Index().named("test_idx")
+                .on("requester_id", Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(filter));
+    }
+
+    private static Document indexDocument() {
+        return new Document("v", 2)
+                .append("name", "test_idx")
+                .append("key", new Document("requester_id", 1))
+                .append("unique", true);
+    }
+}
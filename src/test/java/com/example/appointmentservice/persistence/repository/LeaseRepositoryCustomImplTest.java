@@ -0,0 +1,102 @@
+package com.example.appointmentservice.persistence.repository;
+
+import com.example.appointmentservice.persistence.model.LeaseEntity;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaseRepositoryCustomImplTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private LeaseRepositoryCustomImpl leaseRepository;
+
+    @Test
+    void acquire_FreeOrExpired_UpsertsAndBumpsEpoch() {
+        // Arrange
+        LeaseEntity written = LeaseEntity.builder().name("job").owner("pod-1").epoch(3)
+                .expiresAt(LocalDateTime.now().plus(TTL)).build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        when(mongoTemplate.findAndModify(query.capture(), update.capture(), options.capture(), eq(LeaseEntity.class)))
+                .thenReturn(written);
+
+        // Act
+        Optional<LeaseEntity> lease = leaseRepository.acquire("job", "pod-1", TTL);
+
+        // Assert
+        assertEquals(Optional.of(written), lease);
+        assertTrue(options.getValue().isUpsert());
+        assertTrue(options.getValue().isReturnNew());
+        // Only taken when it is already ours or has expired
+        assertEquals("job", query.getValue().getQueryObject().get("_id"));
+        assertTrue(query.getValue().getQueryObject().containsKey("$or"));
+        assertEquals(new Document("epoch", 1), update.getValue().getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    void acquire_HeldByAnotherOwner_DuplicateKeyMapsToEmpty() {
+        // Arrange - the filter misses the live lease, so the upsert collides with its _id
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(LeaseEntity.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        // Act
+        Optional<LeaseEntity> lease = leaseRepository.acquire("job", "pod-2", TTL);
+
+        // Assert
+        assertTrue(lease.isEmpty());
+    }
+
+    @Test
+    void renew_StillHeld_ExtendsWithoutUpsert() {
+        // Arrange
+        LeaseEntity renewed = LeaseEntity.builder().name("job").owner("pod-1").epoch(3)
+                .expiresAt(LocalDateTime.now().plus(TTL)).build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), options.capture(), eq(LeaseEntity.class)))
+                .thenReturn(renewed);
+
+        // Act
+        Optional<LeaseEntity> lease = leaseRepository.renew("job", "pod-1", TTL);
+
+        // Assert
+        assertEquals(Optional.of(renewed), lease);
+        assertFalse(options.getValue().isUpsert());
+        assertEquals("pod-1", query.getValue().getQueryObject().get("owner"));
+        assertTrue(query.getValue().getQueryObject().containsKey("expires_at"));
+    }
+
+    @Test
+    void renew_ExpiredOrTakenOver_Empty() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(LeaseEntity.class))).thenReturn(null);
+
+        // Act & Assert
+        assertTrue(leaseRepository.renew("job", "pod-1", TTL).isEmpty());
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.appointmentservice.producer;
+
+import com.example.appointmentservice.configuration.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AppointmentEventProducerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations operations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentEventProducer producer;
+    private AppointmentEvent event;
+
+    // What the publisher threads handed to the channel, in send order
+    private final BlockingQueue<Sent> sent = new LinkedBlockingQueue<>();
+
+    private record Sent(String routingKey, Object payload, CorrelationData correlation) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        event = AppointmentEvent.builder()
+                .eventId("event-1")
+                .eventType("APPOINTMENT_CONFIRMED")
+                .eventTimestamp(LocalDateTime.now())
+                .appointmentId("appointment-1")
+                .status("CONFIRMED")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (producer != null) {
+            producer.stop();
+        }
+    }
+
+    @Test
+    void send_QueueFull_FailsImmediately() {
+        // Arrange - publisher threads are not started, so the single slot stays taken
+        producer = producer(1, 3, EnumSet.of(EventFormat.FAT));
+        CompletableFuture<CorrelationData.Confirm> queued = producer.send(event, "event-1");
+
+        // Act
+        CompletableFuture<CorrelationData.Confirm> rejected = producer.send(event, "event-2");
+
+        // Assert
+        assertFalse(queued.isDone());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(0, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertEquals(1.0, meterRegistry.counter("rabbitmq.publisher.rejected").count());
+    }
+
+    @Test
+    void send_Nacked_RequeuedAndAckedOnRetry() throws Exception {
+        // Arrange
+        publishIntoSent();
+        producer = producer(10, 3, EnumSet.of(EventFormat.FAT));
+        producer.start();
+
+        // Act
+        CompletableFuture<CorrelationData.Confirm> result = producer.send(event, "event-1");
+        nextSent().correlation().getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+        Sent retry = nextSent();
+        retry.correlation().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertTrue(result.get(5, TimeUnit.SECONDS).isAck());
+        assertEquals("event-1:FAT", retry.correlation().getId());
+        assertEquals(1.0, meterRegistry.counter("rabbitmq.publisher.nacks").count());
+    }
+
+    @Test
+    void send_NackedBeyondMaxRetries_ReportsTheLastNack() throws Exception {
+        // Arrange
+        publishIntoSent();
+        producer = producer(10, 1, EnumSet.of(EventFormat.FAT));
+        producer.start();
+
+        // Act
+        CompletableFuture<CorrelationData.Confirm> result = producer.send(event, "event-1");
+        nextSent().correlation().getFuture().complete(new CorrelationData.Confirm(false, "first"));
+        nextSent().correlation().getFuture().complete(new CorrelationData.Confirm(false, "second"));
+
+        // Assert
+        CorrelationData.Confirm confirm = result.get(5, TimeUnit.SECONDS);
+        assertFalse(confirm.isAck());
+        assertEquals("second", confirm.getReason());
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void send_EveryFormat_CombinedFutureAcksOnlyWhenAllAcked() throws Exception {
+        // Arrange
+        publishIntoSent();
+        producer = producer(10, 0, EnumSet.of(EventFormat.FAT, EventFormat.COMPACT));
+        producer.start();
+
+        // Act
+        CompletableFuture<CorrelationData.Confirm> result = producer.send(event, "event-1");
+        Sent first = nextSent();
+        Sent second = nextSent();
+        Sent fat = first.routingKey().equals(RabbitMQConfig.APPOINTMENT_ROUTING_KEY) ? first : second;
+        Sent compact = fat == first ? second : first;
+
+        fat.correlation().getFuture().complete(new CorrelationData.Confirm(true, null));
+        boolean doneAfterOneAck = result.isDone();
+        compact.correlation().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertFalse(doneAfterOneAck);
+        assertTrue(result.get(5, TimeUnit.SECONDS).isAck());
+        assertSame(event, fat.payload());
+        assertEquals(RabbitMQConfig.APPOINTMENT_COMPACT_ROUTING_KEY, compact.routingKey());
+        assertInstanceOf(CompactAppointmentEvent.class, compact.payload());
+    }
+
+    @Test
+    void send_OneFormatNacked_CombinedFutureReportsTheNack() throws Exception {
+        // Arrange
+        publishIntoSent();
+        producer = producer(10, 0, EnumSet.of(EventFormat.FAT, EventFormat.COMPACT));
+        producer.start();
+
+        // Act
+        CompletableFuture<CorrelationData.Confirm> result = producer.send(event, "event-1");
+        nextSent().correlation().getFuture().complete(new CorrelationData.Confirm(false, "rejected"));
+        nextSent().correlation().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        CorrelationData.Confirm confirm = result.get(5, TimeUnit.SECONDS);
+        assertFalse(confirm.isAck());
+        assertEquals("rejected", confirm.getReason());
+    }
+
+    @Test
+    void stop_QueuedEventsFailInsteadOfHanging() {
+        // Arrange - publisher threads are not started, so the event stays queued
+        producer = producer(10, 3, EnumSet.of(EventFormat.FAT));
+        CompletableFuture<CorrelationData.Confirm> queued = producer.send(event, "event-1");
+
+        // Act
+        producer.stop();
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(0, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertTrue(producer.send(event, "event-2").isCompletedExceptionally());
+    }
+
+    private AppointmentEventProducer producer(int queueCapacity, int maxRetries, Set<EventFormat> formats) {
+        return new AppointmentEventProducer(rabbitTemplate, meterRegistry, queueCapacity, 1, 50, maxRetries, formats);
+    }
+
+    // Runs each batch against the mocked channel and records every message instead of sending it
+    private void publishIntoSent() {
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+        doAnswer(invocation -> {
+            sent.add(new Sent(invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(4)));
+            return null;
+        }).when(operations).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), anyString(), any(),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private Sent nextSent() throws InterruptedException {
+        Sent next = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(next, "Nothing was published");
+        return next;
+    }
+}
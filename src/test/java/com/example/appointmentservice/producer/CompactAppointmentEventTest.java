@@ -0,0 +1,120 @@
+package com.example.appointmentservice.producer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactAppointmentEventTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    private AppointmentEvent event;
+
+    @BeforeEach
+    void setUp() {
+        event = AppointmentEvent.builder()
+                .eventId("event-1")
+                .eventTimestamp(START.minusDays(1))
+                .appointmentId("appointment-1")
+                .requesterId(1L)
+                .requesterEmail("tenant@example.com")
+                .providerId(2L)
+                .providerName("Landlord")
+                .propertyId(3L)
+                .propertyTitle("Flat")
+                .status("CONFIRMED")
+                .type("VIEWING")
+                .appointmentDateTime(START)
+                .durationMinutes(30)
+                .cancellationReason("Not needed")
+                .previousDateTime(START.minusHours(2))
+                .build();
+    }
+
+    @Test
+    void from_Created_CarriesTypeAndBookingFields() {
+        // Arrange
+        event.setEventType("APPOINTMENT_CREATED");
+
+        // Act
+        CompactAppointmentEvent compact = CompactAppointmentEvent.from(event);
+
+        // Assert
+        assertEquals(List.of("status", "appointmentDateTime", "durationMinutes", "type"), compact.getChangedFields());
+        assertEquals("VIEWING", compact.getType());
+        assertNull(compact.getCancellationReason());
+        assertNull(compact.getPreviousDateTime());
+    }
+
+    @Test
+    void from_Cancelled_CarriesReasonOnly() {
+        // Arrange
+        event.setEventType("APPOINTMENT_CANCELLED");
+
+        // Act
+        CompactAppointmentEvent compact = CompactAppointmentEvent.from(event);
+
+        // Assert
+        assertEquals(List.of("status", "cancellationReason"), compact.getChangedFields());
+        assertEquals("Not needed", compact.getCancellationReason());
+        assertNull(compact.getType());
+        assertNull(compact.getPreviousDateTime());
+    }
+
+    @Test
+    void from_Rescheduled_CarriesPreviousTime() {
+        // Arrange
+        event.setEventType("APPOINTMENT_RESCHEDULED");
+
+        // Act
+        CompactAppointmentEvent compact = CompactAppointmentEvent.from(event);
+
+        // Assert
+        assertEquals(List.of("status", "appointmentDateTime"), compact.getChangedFields());
+        assertEquals(START.minusHours(2), compact.getPreviousDateTime());
+        assertNull(compact.getType());
+        assertNull(compact.getCancellationReason());
+    }
+
+    @Test
+    void from_OtherTransitions_OnlyStatusChanged() {
+        for (String eventType : List.of("APPOINTMENT_CONFIRMED", "APPOINTMENT_COMPLETED", "APPOINTMENT_REMINDER")) {
+            // Arrange
+            event.setEventType(eventType);
+
+            // Act
+            CompactAppointmentEvent compact = CompactAppointmentEvent.from(event);
+
+            // Assert
+            assertEquals(List.of("status"), compact.getChangedFields(), eventType);
+            assertNull(compact.getType(), eventType);
+            assertNull(compact.getCancellationReason(), eventType);
+            assertNull(compact.getPreviousDateTime(), eventType);
+        }
+    }
+
+    @Test
+    void from_AnyEvent_KeepsIdsAndCurrentState() {
+        // Arrange
+        event.setEventType("APPOINTMENT_CONFIRMED");
+
+        // Act
+        CompactAppointmentEvent compact = CompactAppointmentEvent.from(event);
+
+        // Assert
+        assertEquals(CompactAppointmentEvent.SCHEMA_VERSION, compact.getSchemaVersion());
+        assertEquals("event-1", compact.getEventId());
+        assertEquals("APPOINTMENT_CONFIRMED", compact.getEventType());
+        assertEquals("appointment-1", compact.getAppointmentId());
+        assertEquals(1L, compact.getRequesterId());
+        assertEquals(2L, compact.getProviderId());
+        assertEquals(3L, compact.getPropertyId());
+        assertEquals("CONFIRMED", compact.getStatus());
+        assertEquals(START, compact.getAppointmentDateTime());
+        assertEquals(30, compact.getDurationMinutes());
+    }
+}
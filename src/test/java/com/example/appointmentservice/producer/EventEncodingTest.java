@@ -0,0 +1,130 @@
+package com.example.appointmentservice.producer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventEncodingTest {
+
+    private AppointmentEvent event;
+
+    @BeforeEach
+    void setUp() {
+        event = AppointmentEvent.builder()
+                .eventId("event-1")
+                .eventType("APPOINTMENT_CREATED")
+                .eventTimestamp(LocalDateTime.of(2026, 3, 1, 8, 15, 30))
+                .appointmentId("appointment-1")
+                .appointmentDateTime(LocalDateTime.of(2026, 3, 2, 10, 0))
+                .durationMinutes(30)
+                .requesterId(1L)
+                .providerId(2L)
+                .providerName("Landlord")
+                .build();
+    }
+
+    @Test
+    void negotiating_Cbor_RoundTripsTheEvent() {
+        assertRoundTrip(EventEncoding.CBOR);
+    }
+
+    @Test
+    void negotiating_Smile_RoundTripsTheEvent() {
+        assertRoundTrip(EventEncoding.SMILE);
+    }
+
+    @Test
+    void negotiating_DecodesByContentTypeRegardlessOfOutboundEncoding() {
+        // Arrange - a message from a producer still on JSON
+        Message json = new Jackson2JsonMessageConverter()
+                .toMessage(new HashMap<>(Map.of("eventId", "event-1")), new MessageProperties());
+
+        // Act
+        Object decoded = EventEncoding.negotiating(EventEncoding.CBOR).fromMessage(json);
+
+        // Assert
+        assertEquals(Map.of("eventId", "event-1"), decoded);
+    }
+
+    @Test
+    void fromMessage_UntrustedTypeId_ReadAsMap() {
+        // Arrange
+        MessageConverter converter = EventEncoding.SMILE.converter();
+        Message message = converter.toMessage(event, new MessageProperties());
+        message.getMessageProperties().setHeader(BinaryJacksonMessageConverter.TYPE_ID_HEADER, "org.example.Gadget");
+
+        // Act
+        Object decoded = converter.fromMessage(message);
+
+        // Assert
+        Map<?, ?> fields = assertInstanceOf(Map.class, decoded);
+        assertEquals("event-1", fields.get("eventId"));
+    }
+
+    @Test
+    void fromMessage_ListenerParameterType_WinsOverTypeId() {
+        // Arrange
+        MessageConverter converter = EventEncoding.CBOR.converter();
+        Message message = converter.toMessage(event, new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(CompactAppointmentEvent.class);
+
+        // Act
+        Object decoded = converter.fromMessage(message);
+
+        // Assert
+        CompactAppointmentEvent compact = assertInstanceOf(CompactAppointmentEvent.class, decoded);
+        assertEquals("appointment-1", compact.getAppointmentId());
+    }
+
+    @Test
+    void thresholdGZip_BelowThreshold_LeftUncompressed() {
+        // Arrange
+        Message message = new Message("small".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+
+        // Act
+        Message processed = new ThresholdGZipPostProcessor(64).postProcessMessage(message);
+
+        // Assert
+        assertSame(message, processed);
+        assertNull(processed.getMessageProperties().getContentEncoding());
+    }
+
+    @Test
+    void thresholdGZip_AtThreshold_CompressedAndDecompressible() {
+        // Arrange
+        byte[] body = "x".repeat(64).getBytes(StandardCharsets.UTF_8);
+        Message message = new Message(body, new MessageProperties());
+
+        // Act
+        Message processed = new ThresholdGZipPostProcessor(64).postProcessMessage(message);
+
+        // Assert
+        assertEquals("gzip", processed.getMessageProperties().getContentEncoding());
+        assertArrayEquals(body, new DelegatingDecompressingPostProcessor().postProcessMessage(processed).getBody());
+    }
+
+    private void assertRoundTrip(EventEncoding encoding) {
+        // Arrange
+        MessageConverter converter = EventEncoding.negotiating(encoding);
+
+        // Act
+        Message message = converter.toMessage(event, new MessageProperties());
+        Object decoded = converter.fromMessage(message);
+
+        // Assert
+        assertEquals(encoding.contentType(), message.getMessageProperties().getContentType());
+        assertEquals(message.getBody().length, message.getMessageProperties().getContentLength());
+        assertEquals(event, decoded);
+    }
+}